@@ -0,0 +1,118 @@
+package com.social.assistance.config;
+
+import com.social.assistance.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one request through {@link JwtRequestFilter}, with the user lookup
+ * stubbed out so only JWT handling is measured; the stateless variant reads the role from the
+ * token and checks a warm {@link UserStateCache}. {@code legacyParsePerClaim} reproduces the old
+ * path (new key and parser per call, one parse per claim read) as a baseline.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtRequestFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private JwtUtil jwtUtil;
+    private JwtRequestFilter filter;
+    private JwtRequestFilter statelessFilter;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 3_600_000L);
+        userDetails = new User("admin", "{noop}password",
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        token = jwtUtil.generateToken(userDetails);
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl(null, null) {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return userDetails;
+            }
+        };
+        UserStateCache userStateCache = new UserStateCache(null, 60_000L) {
+            @Override
+            UserState load(String username) {
+                return new UserState(true, 0);
+            }
+        };
+        TokenRevocationService tokenRevocationService = new TokenRevocationService(null, jwtUtil);
+        filter = new JwtRequestFilter(userDetailsService, jwtUtil, userStateCache, tokenRevocationService, false);
+        statelessFilter = new JwtRequestFilter(userDetailsService, jwtUtil, userStateCache, tokenRevocationService, true);
+    }
+
+    @Benchmark
+    public int filterRequest() throws Exception {
+        return authenticate(filter);
+    }
+
+    @Benchmark
+    public int filterRequestStateless() throws Exception {
+        return authenticate(statelessFilter);
+    }
+
+    private int authenticate(JwtRequestFilter jwtRequestFilter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/applicants");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            jwtRequestFilter.doFilter(request, response, new MockFilterChain());
+            return response.getStatus();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public boolean parseOnce() {
+        Claims claims = jwtUtil.parseClaims(token);
+        return jwtUtil.validateToken(claims, userDetails);
+    }
+
+    @Benchmark
+    public boolean legacyParsePerClaim() {
+        String username = legacyParse(token).getSubject();
+        boolean sameUser = username.equals(legacyParse(token).getSubject());
+        return sameUser && legacyParse(token).getExpiration().after(new Date());
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -0,0 +1,268 @@
+package com.social.assistance.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the hot application queries on PostgreSQL with the indexes {@code schema.sql} had
+ * before {@code db/migration/V4__hot_path_indexes.sql} ({@code baseline}) and with that migration
+ * applied ({@code hotPath}), at one and ten million applications. The queries are the SQL the
+ * repository methods render, trimmed to the applications table: status paging with an id seek,
+ * the export's status and date range, applications of one applicant in one status, the
+ * per-programme status report and the lookup PostgreSQL runs for the users foreign key.
+ * <p>
+ * Needs a PostgreSQL database it may fill; the data goes into its own
+ * {@code hot_path_bench} schema and is generated once per size. Connection settings come from
+ * {@code BENCH_DB_URL}, {@code BENCH_DB_USERNAME} and {@code BENCH_DB_PASSWORD}, defaulting to a
+ * local {@code social_mis_bench} database. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HotPathIndexBenchmark {
+
+    private static final String SCHEMA = "hot_path_bench";
+    private static final int PROGRAMMES = 20;
+    private static final int MAKERS = 200;
+    private static final LocalDate FIRST_DATE = LocalDate.of(2023, 1, 1);
+    private static final int DAYS = 1095;
+
+    /** The application indexes of schema.sql before the hot path migration. */
+    private static final List<String> BASELINE_INDEXES = Arrays.asList(
+            "CREATE INDEX idx_applications_applicant_id ON applications(applicant_id)",
+            "CREATE INDEX idx_applications_status ON applications(status)",
+            "CREATE INDEX idx_applications_programme_id ON applications(programme_id, id)",
+            "CREATE INDEX idx_applications_date_applicant ON applications(application_date, applicant_id)");
+
+    @Param({"1000000", "10000000"})
+    public int applications;
+
+    @Param({"baseline", "hotPath"})
+    public String indexes;
+
+    private Connection connection;
+    private PreparedStatement statusPage;
+    private PreparedStatement statusBetweenDates;
+    private PreparedStatement applicantInStatus;
+    private PreparedStatement programmeStats;
+    private PreparedStatement makerReferenced;
+
+    @Setup
+    public void setUp() throws SQLException, IOException {
+        connection = DriverManager.getConnection(
+                env("BENCH_DB_URL", "jdbc:postgresql://localhost:5432/social_mis_bench"),
+                env("BENCH_DB_USERNAME", "postgres"),
+                env("BENCH_DB_PASSWORD", "postgres"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA IF NOT EXISTS " + SCHEMA);
+            statement.execute("SET search_path TO " + SCHEMA);
+        }
+        if (generatedRows() != applications) {
+            generate();
+        }
+        applyIndexes();
+
+        statusPage = connection.prepareStatement(
+                "SELECT id, applicant_id, programme_id, application_date, status FROM applications " +
+                "WHERE status = ? AND id > ? ORDER BY id LIMIT 20");
+        statusBetweenDates = connection.prepareStatement(
+                "SELECT id, applicant_id, programme_id, application_date FROM applications " +
+                "WHERE status = ? AND application_date BETWEEN ? AND ?");
+        applicantInStatus = connection.prepareStatement(
+                "SELECT id, programme_id, application_date FROM applications " +
+                "WHERE applicant_id = ? AND status = ? ORDER BY id LIMIT 20");
+        programmeStats = connection.prepareStatement(
+                "SELECT COUNT(a.id), " +
+                "SUM(CASE WHEN a.status = 'Approved' THEN 1 ELSE 0 END), " +
+                "SUM(CASE WHEN a.status = 'Pending' THEN 1 ELSE 0 END), " +
+                "SUM(CASE WHEN a.status = 'Rejected' THEN 1 ELSE 0 END), p.name " +
+                "FROM applications a JOIN programmes p ON p.id = a.programme_id GROUP BY p.id, p.name");
+        makerReferenced = connection.prepareStatement(
+                "SELECT 1 FROM applications WHERE maker_id = ? LIMIT 1");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    /**
+     * A page of rejected applications after a random id, as the status list seeks with a cursor.
+     */
+    @Benchmark
+    public int rejectedPageAfterId() throws SQLException {
+        statusPage.setString(1, "Rejected");
+        statusPage.setInt(2, ThreadLocalRandom.current().nextInt(applications));
+        return rows(statusPage);
+    }
+
+    /**
+     * The export of one week of rejected applications.
+     */
+    @Benchmark
+    public int rejectedWeekExport() throws SQLException {
+        LocalDate from = FIRST_DATE.plusDays(ThreadLocalRandom.current().nextInt(DAYS - 7));
+        statusBetweenDates.setString(1, "Rejected");
+        statusBetweenDates.setDate(2, Date.valueOf(from));
+        statusBetweenDates.setDate(3, Date.valueOf(from.plusDays(6)));
+        return rows(statusBetweenDates);
+    }
+
+    /**
+     * Pending applications of one applicant, now answered by the unique (applicant, programme)
+     * index instead of the dropped applicant index.
+     */
+    @Benchmark
+    public int applicantPending() throws SQLException {
+        applicantInStatus.setInt(1, 1 + ThreadLocalRandom.current().nextInt(applications / 2));
+        applicantInStatus.setString(2, "Pending");
+        return rows(applicantInStatus);
+    }
+
+    @Benchmark
+    public int statsByProgramme() throws SQLException {
+        return rows(programmeStats);
+    }
+
+    /**
+     * The check PostgreSQL makes on applications when a user who never made a proposal is
+     * deleted: there is no matching row, so without an index it reads the whole table.
+     */
+    @Benchmark
+    public int unreferencedMakerCheck() throws SQLException {
+        makerReferenced.setInt(1, MAKERS + 1 + ThreadLocalRandom.current().nextInt(MAKERS));
+        return rows(makerReferenced);
+    }
+
+    private static int rows(PreparedStatement query) throws SQLException {
+        int rows = 0;
+        try (ResultSet resultSet = query.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private long generatedRows() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS generated (applications BIGINT NOT NULL)");
+            try (ResultSet resultSet = statement.executeQuery("SELECT applications FROM generated")) {
+                return resultSet.next() ? resultSet.getLong(1) : -1;
+            }
+        }
+    }
+
+    /**
+     * Fill the tables with two applications per applicant across the programmes. Statuses are
+     * spread 60% pending, 30% approved, 8% rejected and 2% proposed over three years, and only
+     * the rejected and proposed applications have a maker.
+     */
+    private void generate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS applications, programmes, users");
+            statement.execute("CREATE TABLE programmes (id SERIAL PRIMARY KEY, name VARCHAR(100) NOT NULL UNIQUE)");
+            statement.execute("CREATE TABLE users (id SERIAL PRIMARY KEY, username VARCHAR(50) NOT NULL UNIQUE)");
+            statement.execute("CREATE TABLE applications (" +
+                    "id SERIAL PRIMARY KEY, " +
+                    "applicant_id INTEGER NOT NULL, " +
+                    "programme_id INTEGER NOT NULL REFERENCES programmes(id), " +
+                    "application_date DATE NOT NULL DEFAULT CURRENT_DATE, " +
+                    "status VARCHAR(20) NOT NULL DEFAULT 'Pending', " +
+                    "maker_id INTEGER REFERENCES users(id), " +
+                    "checker_id INTEGER REFERENCES users(id), " +
+                    "approved BOOLEAN NOT NULL DEFAULT FALSE, " +
+                    "version INTEGER NOT NULL DEFAULT 0, " +
+                    "UNIQUE (applicant_id, programme_id), " +
+                    "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            statement.execute("INSERT INTO programmes (name) SELECT 'Programme ' || g FROM generate_series(1, " + PROGRAMMES + ") g");
+            statement.execute("INSERT INTO users (username) SELECT 'user' || g FROM generate_series(1, " + 2 * MAKERS + ") g");
+            statement.execute("INSERT INTO applications (applicant_id, programme_id, application_date, status, maker_id) " +
+                    "SELECT 1 + (g - 1) / 2, 1 + g % " + PROGRAMMES + ", DATE '" + FIRST_DATE + "' + (g * 31) % " + DAYS + ", " +
+                    "CASE WHEN s < 60 THEN 'Pending' WHEN s < 90 THEN 'Approved' WHEN s < 98 THEN 'Rejected' ELSE 'Proposed' END, " +
+                    "CASE WHEN s >= 90 THEN 1 + g % " + MAKERS + " END " +
+                    "FROM (SELECT g, (g::bigint * 7919) % 100 AS s FROM generate_series(1, " + applications + ") g) t");
+            statement.execute("DELETE FROM generated");
+            statement.execute("INSERT INTO generated VALUES (" + applications + ")");
+        }
+    }
+
+    /**
+     * Drop every secondary index on applications and create the chosen set, then refresh the
+     * statistics and visibility map so the planner can pick index-only scans.
+     */
+    private void applyIndexes() throws SQLException, IOException {
+        List<String> statements = new ArrayList<>(BASELINE_INDEXES);
+        if (indexes.equals("hotPath")) {
+            statements.addAll(migration());
+        }
+        try (Statement statement = connection.createStatement()) {
+            List<String> existing = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery("SELECT indexname FROM pg_indexes " +
+                    "WHERE schemaname = '" + SCHEMA + "' AND tablename = 'applications' AND indexname LIKE 'idx\\_%'")) {
+                while (resultSet.next()) {
+                    existing.add(resultSet.getString(1));
+                }
+            }
+            for (String index : existing) {
+                statement.execute("DROP INDEX " + index);
+            }
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+            statement.execute("VACUUM ANALYZE applications");
+        }
+    }
+
+    /**
+     * The statements of the hot path migration, without CONCURRENTLY since nothing else uses
+     * the benchmark tables.
+     */
+    private static List<String> migration() throws IOException {
+        String script = new String(new ClassPathResource("db/migration/V4__hot_path_indexes.sql")
+                .getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        List<String> statements = new ArrayList<>();
+        for (String sql : script.replaceAll("(?m)^--.*$", "").split(";")) {
+            if (!sql.isBlank()) {
+                statements.add(sql.trim().replace(" CONCURRENTLY", ""));
+            }
+        }
+        return statements;
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? fallback : value;
+    }
+}
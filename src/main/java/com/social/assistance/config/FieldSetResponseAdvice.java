@@ -0,0 +1,36 @@
+package com.social.assistance.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.social.assistance.dto.FieldSet;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Writes only the properties named in a {@code fields=} request parameter for response types
+ * annotated with {@code @JsonFilter(FieldSet.FILTER)}; the same parameter has already narrowed the
+ * projection query, so the omitted properties are null rather than merely hidden.
+ */
+@RestControllerAdvice
+public class FieldSetResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest)) {
+            return;
+        }
+        FieldSet fields = FieldSet.from(((ServletServerHttpRequest) request).getServletRequest().getParameter("fields"));
+        if (!fields.isAll()) {
+            bodyContainer.setFilters(new SimpleFilterProvider()
+                    .addFilter(FieldSet.FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields.names())));
+        }
+    }
+}
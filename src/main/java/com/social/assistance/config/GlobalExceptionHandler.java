@@ -1,24 +1,37 @@
 package com.social.assistance.config;
 
+import com.social.assistance.exception.ConflictErrorResponse;
 import com.social.assistance.exception.DuplicateResourceException;
 import com.social.assistance.exception.InvalidStateException;
+import com.social.assistance.exception.LikelyDuplicateErrorResponse;
+import com.social.assistance.exception.LikelyDuplicateException;
 import com.social.assistance.exception.ResourceNotFoundException;
+import com.social.assistance.exception.TooManyRequestsException;
 import com.social.assistance.exception.ErrorResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.util.ClassUtils;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.util.HashMap;
 import java.util.Map;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleResourceNotFoundException(ResourceNotFoundException ex, WebRequest request) {
         ErrorResponse error = new ErrorResponse(HttpStatus.NOT_FOUND.value(), "Not Found", ex.getMessage(), request.getDescription(false));
@@ -31,12 +44,45 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(LikelyDuplicateException.class)
+    public ResponseEntity<ErrorResponse> handleLikelyDuplicateException(LikelyDuplicateException ex, WebRequest request) {
+        ErrorResponse error = new LikelyDuplicateErrorResponse(HttpStatus.CONFLICT.value(), "Conflict", ex.getMessage(), request.getDescription(false), ex.getCandidates());
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex, WebRequest request) {
+        ErrorResponse error = new ConflictErrorResponse(HttpStatus.CONFLICT.value(), "Conflict",
+                "The record was changed by someone else; review the current state and retry",
+                request.getDescription(false), currentState(ex));
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    private Object currentState(ObjectOptimisticLockingFailureException ex) {
+        if (ex.getPersistentClassName() == null || ex.getIdentifier() == null) {
+            return null;
+        }
+        try {
+            return entityManager.find(ClassUtils.forName(ex.getPersistentClassName(), null), ex.getIdentifier());
+        } catch (ClassNotFoundException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     @ExceptionHandler(InvalidStateException.class)
     public ResponseEntity<ErrorResponse> handleInvalidStateException(InvalidStateException ex, WebRequest request) {
         ErrorResponse error = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), "Bad Request", ex.getMessage(), request.getDescription(false));
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequestsException(TooManyRequestsException ex, WebRequest request) {
+        ErrorResponse error = new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(), "Too Many Requests", ex.getMessage(), request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationExceptions(MethodArgumentNotValidException ex, WebRequest request) {
         Map<String, String> errors = new HashMap<>();
@@ -47,6 +93,12 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<ErrorResponse> handleAuthenticationException(AuthenticationException ex, WebRequest request) {
+        ErrorResponse error = new ErrorResponse(HttpStatus.UNAUTHORIZED.value(), "Unauthorized", ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ErrorResponse> handleAccessDeniedException(AccessDeniedException ex, WebRequest request) {
         ErrorResponse error = new ErrorResponse(HttpStatus.FORBIDDEN.value(), "Forbidden", "Access denied", request.getDescription(false));
@@ -0,0 +1,22 @@
+package com.social.assistance.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.social.assistance.dto.FieldSet;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Types filtered by {@link FieldSet#FILTER} write every property unless a response narrows them
+     * (see {@link FieldSetResponseAdvice}).
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSetFilter() {
+        return builder -> builder.filters(new SimpleFilterProvider()
+                .addFilter(FieldSet.FILTER, SimpleBeanPropertyFilter.serializeAll()));
+    }
+}
@@ -1,12 +1,18 @@
 package com.social.assistance.config;
 
+import com.social.assistance.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -17,6 +23,7 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Collections;
 
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
@@ -25,10 +32,18 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
     private final UserDetailsServiceImpl userDetailsService;
     private final JwtUtil jwtUtil;
+    private final UserStateCache userStateCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final boolean stateless;
 
-    public JwtRequestFilter(UserDetailsServiceImpl userDetailsService, JwtUtil jwtUtil) {
+    public JwtRequestFilter(UserDetailsServiceImpl userDetailsService, JwtUtil jwtUtil, UserStateCache userStateCache,
+                            TokenRevocationService tokenRevocationService,
+                            @Value("${jwt.stateless:false}") boolean stateless) {
         this.userDetailsService = userDetailsService;
         this.jwtUtil = jwtUtil;
+        this.userStateCache = userStateCache;
+        this.tokenRevocationService = tokenRevocationService;
+        this.stateless = stateless;
     }
 
     @Override
@@ -37,12 +52,14 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
         String username = null;
-        String jwt = null;
+        Claims claims = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            String jwt = authorizationHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
+                // The only signature check for this request; the claims are reused below
+                claims = jwtUtil.parseClaims(jwt);
+                username = claims.getSubject();
             } catch (ExpiredJwtException e) {
                 logger.warn("JWT Token has expired: {}", e.getMessage());
                 response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "JWT Token has expired");
@@ -59,13 +76,25 @@ public class JwtRequestFilter extends OncePerRequestFilter {
                 logger.error("JWT claims string is empty: {}", e.getMessage());
                 response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid JWT claims");
                 return;
+            } catch (JwtException e) {
+                logger.error("Invalid JWT token: {}", e.getMessage());
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid JWT token");
+                return;
             }
         }
 
+        if (claims != null && tokenRevocationService.isRevoked(claims.getId())) {
+            logger.warn("Rejected revoked JWT token {} for user {}", claims.getId(), username);
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "JWT token has been revoked");
+            return;
+        }
+
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = stateless ? userFromClaims(username, claims) : this.userDetailsService.loadUserByUsername(username);
 
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            // Tokens issued before a password change, disable or revoke-all carry an older version
+            if (userDetails != null && userStateCache.get(username).accepts(jwtUtil.extractVersion(claims))
+                    && jwtUtil.validateToken(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -74,4 +103,16 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         }
         chain.doFilter(request, response);
     }
+
+    /**
+     * Build the principal from the role claim instead of loading the user; the cached token
+     * version check in the caller stands in for the enabled flag and credentials.
+     */
+    private UserDetails userFromClaims(String username, Claims claims) {
+        String role = claims.get(JwtUtil.ROLE_CLAIM, String.class);
+        if (role == null) {
+            return null;
+        }
+        return new User(username, "", Collections.singletonList(new SimpleGrantedAuthority(role)));
+    }
 }
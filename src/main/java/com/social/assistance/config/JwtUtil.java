@@ -12,6 +12,7 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
@@ -19,14 +20,25 @@ public class JwtUtil {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
 
-    @Value("${jwt.secret}")
-    private String secret;
+    public static final String ROLE_CLAIM = "role";
+    public static final String VERSION_CLAIM = "ver";
 
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    private final Long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    // Both are immutable and thread-safe, so they are built once instead of per token
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    public JwtUtil(@Value("${jwt.secret}") String secret, @Value("${jwt.expiration}") Long expiration) {
+        this.expiration = expiration;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
+    public long getExpirationMillis() {
+        return expiration;
     }
 
     public String extractUsername(String token) {
@@ -38,7 +50,15 @@ public class JwtUtil {
     }
 
     public String extractRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class));
+        return extractClaim(token, claims -> claims.get(ROLE_CLAIM, String.class));
+    }
+
+    /**
+     * Token version the token was issued at; tokens issued before versions were added count as 0.
+     */
+    public int extractVersion(Claims claims) {
+        Integer version = claims.get(VERSION_CLAIM, Integer.class);
+        return version != null ? version : 0;
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -51,22 +71,33 @@ public class JwtUtil {
         }
     }
 
+    /**
+     * Verify the signature and expiry of a token and return its claims. Callers that need more
+     * than one claim should parse once and pass the result to {@link #validateToken(Claims, UserDetails)}.
+     *
+     * @throws JwtException if the token is expired, malformed or not signed with our key
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parseClaims(token);
     }
 
-    private Boolean isTokenExpired(String token) {
-        Date expirationDate = extractExpiration(token);
+    private boolean isTokenExpired(Claims claims) {
+        Date expirationDate = claims.getExpiration();
         return expirationDate != null && expirationDate.before(new Date());
     }
 
     public String generateToken(UserDetails userDetails) {
+        return generateToken(userDetails, 0);
+    }
+
+    public String generateToken(UserDetails userDetails, int tokenVersion) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("role", userDetails.getAuthorities().iterator().next().getAuthority());
+        claims.put(ROLE_CLAIM, userDetails.getAuthorities().iterator().next().getAuthority());
+        claims.put(VERSION_CLAIM, tokenVersion);
         return createToken(claims, userDetails.getUsername());
     }
 
@@ -74,19 +105,24 @@ public class JwtUtil {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
         try {
-            final String username = extractUsername(token);
-            return (username != null && username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-        } catch (JwtException e) {
+            return validateToken(parseClaims(token), userDetails);
+        } catch (JwtException | IllegalArgumentException e) {
             logger.warn("Invalid JWT token: {}", e.getMessage());
             return false;
         }
     }
+
+    public boolean validateToken(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return username != null && username.equals(userDetails.getUsername()) && !isTokenExpired(claims);
+    }
 }
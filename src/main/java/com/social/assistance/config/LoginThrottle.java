@@ -0,0 +1,147 @@
+package com.social.assistance.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.social.assistance.exception.TooManyRequestsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Guards the public endpoints that run BCrypt (login and registration).
+ * <p>
+ * Each attempt takes a token from an in-memory bucket for the client IP and, for logins, one
+ * for the username, so neither a credential-stuffing run from one address nor a distributed
+ * attack on one account can keep the hasher busy. Attempts that pass are then limited to
+ * {@code auth.login.max-concurrent-hashes} at a time: a request that cannot get a permit
+ * within {@code auth.login.hash-wait} ms is rejected instead of queueing, so a login storm
+ * holds at most that many Tomcat workers and the rest of the API keeps its threads.
+ * <p>
+ * The client IP is {@code request.getRemoteAddr()}; behind a proxy set
+ * {@code server.forward-headers-strategy} so it reflects the real client.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginThrottle.class);
+
+    private final Cache<String, TokenBucket> userBuckets;
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final int userCapacity;
+    private final int ipCapacity;
+    private final long refillNanos;
+    private final Semaphore hashPermits;
+    private final long hashWaitMillis;
+    private final LongSupplier clock;
+
+    @Autowired
+    public LoginThrottle(@Value("${auth.login.user-capacity:5}") int userCapacity,
+                         @Value("${auth.login.ip-capacity:30}") int ipCapacity,
+                         @Value("${auth.login.refill-period:60000}") long refillPeriodMillis,
+                         @Value("${auth.login.max-concurrent-hashes:4}") int maxConcurrentHashes,
+                         @Value("${auth.login.hash-wait:200}") long hashWaitMillis) {
+        this(userCapacity, ipCapacity, refillPeriodMillis, maxConcurrentHashes, hashWaitMillis, System::nanoTime);
+    }
+
+    LoginThrottle(int userCapacity, int ipCapacity, long refillPeriodMillis, int maxConcurrentHashes,
+                  long hashWaitMillis, LongSupplier clock) {
+        this.userCapacity = userCapacity;
+        this.ipCapacity = ipCapacity;
+        this.refillNanos = TimeUnit.MILLISECONDS.toNanos(refillPeriodMillis);
+        this.hashPermits = new Semaphore(maxConcurrentHashes);
+        this.hashWaitMillis = hashWaitMillis;
+        this.clock = clock;
+        // A bucket idle for a full refill period is full again, so dropping it loses nothing
+        this.userBuckets = buckets(refillPeriodMillis);
+        this.ipBuckets = buckets(refillPeriodMillis);
+    }
+
+    private static Cache<String, TokenBucket> buckets(long refillPeriodMillis) {
+        return Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofMillis(refillPeriodMillis))
+                .build();
+    }
+
+    /**
+     * Run {@code passwordWork} if neither bucket is empty and a hashing permit is free.
+     * {@code username} may be null for work that is not tied to an existing account.
+     *
+     * @throws TooManyRequestsException when the caller is over its rate or the hasher is saturated
+     */
+    public <T> T guard(String username, String clientIp, Supplier<T> passwordWork) {
+        long now = clock.getAsLong();
+        long wait = ipBuckets.get(String.valueOf(clientIp), key -> new TokenBucket(ipCapacity, refillNanos, now))
+                .tryConsume(now);
+        if (wait == 0 && username != null) {
+            wait = userBuckets.get(username.toLowerCase(Locale.ROOT), key -> new TokenBucket(userCapacity, refillNanos, now))
+                    .tryConsume(now);
+        }
+        if (wait > 0) {
+            logger.warn("Throttled login attempt for user {} from {}", username, clientIp);
+            throw new TooManyRequestsException("Too many login attempts, try again later", toSeconds(wait));
+        }
+
+        boolean acquired;
+        try {
+            acquired = hashPermits.tryAcquire(hashWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            logger.warn("Password verification saturated; rejecting attempt for user {}", username);
+            throw new TooManyRequestsException("Authentication service is busy, try again shortly", 1);
+        }
+        try {
+            return passwordWork.get();
+        } finally {
+            hashPermits.release();
+        }
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Classic token bucket: {@code capacity} attempts, refilled evenly over {@code refillNanos}.
+     */
+    static final class TokenBucket {
+        private final int capacity;
+        private final long nanosPerToken;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int capacity, long refillNanos, long now) {
+            this.capacity = capacity;
+            this.nanosPerToken = Math.max(1, refillNanos / capacity);
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        /**
+         * Take one token; returns 0 on success, otherwise the nanoseconds until one is available.
+         */
+        synchronized long tryConsume(long now) {
+            if (now > lastRefill) {
+                tokens = Math.min(capacity, tokens + (double) (now - lastRefill) / nanosPerToken);
+                lastRefill = now;
+            }
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) * nanosPerToken);
+        }
+    }
+}
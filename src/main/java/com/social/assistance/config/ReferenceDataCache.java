@@ -0,0 +1,51 @@
+package com.social.assistance.config;
+
+import com.social.assistance.dto.CacheRegionStats;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * View of the Hibernate second-level cache, which holds the reference entities (parameters,
+ * programmes and the geography hierarchy) and the cached lookup queries over them.
+ * <p>
+ * Writes made through JPA, such as the parameter and physical location uploads, invalidate the
+ * affected entries and query results on commit; {@link #evictAll()} is only needed after editing
+ * those tables directly in the database.
+ */
+@Component
+public class ReferenceDataCache {
+
+    private final SessionFactory sessionFactory;
+
+    public ReferenceDataCache(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    public List<CacheRegionStats> stats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        String[] regions = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regions);
+        List<CacheRegionStats> stats = new ArrayList<>(regions.length);
+        for (String region : regions) {
+            CacheRegionStatistics regionStats = statistics.getCacheRegionStatistics(region);
+            if (regionStats != null) {
+                long hits = regionStats.getHitCount();
+                long misses = regionStats.getMissCount();
+                stats.add(new CacheRegionStats(region, hits, misses, regionStats.getPutCount(),
+                        hits + misses == 0 ? 0.0 : (double) hits / (hits + misses)));
+            }
+        }
+        return stats;
+    }
+
+    public void evictAll() {
+        sessionFactory.getCache().evictAllRegions();
+    }
+}
@@ -0,0 +1,64 @@
+package com.social.assistance.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.social.assistance.dto.UserCacheStats;
+import com.social.assistance.service.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Size-bounded, TTL-based cache of {@link UserDetails} by username, sitting in front of the
+ * {@code users} table for both login and per-request authentication.
+ * <p>
+ * Callers always get a copy: Spring Security erases the password of the principal after a
+ * successful login, which would otherwise corrupt the cached entry.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final Cache<String, UserDetails> cache;
+
+    public UserDetailsCache(@Value("${auth.user-cache.max-size:10000}") long maxSize,
+                            @Value("${auth.user-cache.ttl:300000}") long ttlMillis) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Cached details for {@code username}, loading them on a miss. Exceptions from the loader
+     * (e.g. an unknown username) propagate and are not cached.
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        return User.withUserDetails(cache.get(username, loader)).build();
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.getUsername());
+    }
+
+    public UserCacheStats stats() {
+        CacheStats stats = cache.stats();
+        return new UserCacheStats(cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount(), stats.averageLoadPenalty() / 1_000_000.0);
+    }
+}
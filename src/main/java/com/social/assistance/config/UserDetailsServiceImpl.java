@@ -20,13 +20,19 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     private static final Logger logger = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(UserRepository userRepository, UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return userDetailsCache.get(username, this::loadFromDatabase);
+    }
+
+    private UserDetails loadFromDatabase(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> {
                     logger.warn("User not found with username: {}", username);
@@ -37,7 +43,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         String role = (user.getRole() != null) ? user.getRole() : "ROLE_USER";
         List<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority(role));
 
-        logger.info("Loaded user: {} with role: {}", user.getUsername(), role);
+        logger.debug("Loaded user: {} with role: {}", user.getUsername(), role);
 
         return new org.springframework.security.core.userdetails.User(
                 user.getUsername(),
@@ -0,0 +1,102 @@
+package com.social.assistance.config;
+
+import com.social.assistance.repository.UserRepository;
+import com.social.assistance.service.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enabled flag and token version per username, used by stateless JWT authentication in place of
+ * a user lookup on every request. Entries are dropped when a {@link UserChangedEvent} commits and
+ * otherwise expire after {@code jwt.user-state-ttl}, which bounds how long a change made directly
+ * in the database goes unnoticed.
+ */
+@Component
+public class UserStateCache {
+
+    private static final int MAX_ENTRIES = 10000;
+
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+    private final Map<String, Entry> states = new ConcurrentHashMap<>();
+
+    public UserStateCache(UserRepository userRepository, @Value("${jwt.user-state-ttl:60000}") long ttlMillis) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public UserState get(String username) {
+        long now = System.currentTimeMillis();
+        Entry entry = states.get(username);
+        if (entry != null && entry.expiresAt > now) {
+            return entry.state;
+        }
+        if (states.size() >= MAX_ENTRIES) {
+            states.clear();
+        }
+        UserState state = load(username);
+        states.put(username, new Entry(state, now + ttlMillis));
+        return state;
+    }
+
+    public void invalidate(String username) {
+        states.remove(username);
+    }
+
+    public void invalidateAll() {
+        states.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.getUsername());
+    }
+
+    UserState load(String username) {
+        return userRepository.findByUsername(username)
+                .map(user -> new UserState(Boolean.TRUE.equals(user.getEnabled()),
+                        user.getTokenVersion() != null ? user.getTokenVersion() : 0))
+                .orElse(UserState.UNKNOWN);
+    }
+
+    public static final class UserState {
+        static final UserState UNKNOWN = new UserState(false, -1);
+
+        private final boolean enabled;
+        private final int tokenVersion;
+
+        public UserState(boolean enabled, int tokenVersion) {
+            this.enabled = enabled;
+            this.tokenVersion = tokenVersion;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public int getTokenVersion() {
+            return tokenVersion;
+        }
+
+        /**
+         * Whether a token issued at {@code tokenVersion} is still honoured for this user.
+         */
+        public boolean accepts(int tokenVersion) {
+            return enabled && this.tokenVersion == tokenVersion;
+        }
+    }
+
+    private static final class Entry {
+        final UserState state;
+        final long expiresAt;
+
+        Entry(UserState state, long expiresAt) {
+            this.state = state;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,18 +1,28 @@
 package com.social.assistance.controller;
 
 import com.social.assistance.dto.ApplicantRequest;
+import com.social.assistance.dto.ApplicantSuggestion;
+import com.social.assistance.dto.ApplicantSummary;
+import com.social.assistance.dto.BulkVerificationRequest;
+import com.social.assistance.dto.BulkVerificationResult;
+import com.social.assistance.dto.CountMode;
+import com.social.assistance.dto.CursorSlice;
+import com.social.assistance.dto.DuplicateCandidate;
+import com.social.assistance.dto.DuplicatePair;
+import com.social.assistance.dto.FieldSet;
 import com.social.assistance.model.Applicant;
 import com.social.assistance.model.Parameter;
 import com.social.assistance.model.Village;
 import com.social.assistance.service.ApplicantService;
+import com.social.assistance.service.DuplicateApplicantService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -21,6 +31,7 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/applicants")
@@ -32,20 +43,46 @@ public class ApplicantController {
     @Autowired
     private ApplicantService applicantService;
 
+    @Autowired
+    private DuplicateApplicantService duplicateApplicantService;
+
     @PostMapping
     @Operation(summary = "Create a new applicant", description = "Restricted to ROLE_DATA_COLLECTOR")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Applicant created successfully"),
             @ApiResponse(responseCode = "400", description = "Validation failed"),
             @ApiResponse(responseCode = "403", description = "Access denied"),
-            @ApiResponse(responseCode = "409", description = "Duplicate ID number")
+            @ApiResponse(responseCode = "409", description = "Duplicate ID number or likely duplicate applicant")
     })
-    public ResponseEntity<Applicant> createApplicant(@Valid @RequestBody ApplicantRequest request) {
+    public ResponseEntity<Applicant> createApplicant(
+            @Valid @RequestBody ApplicantRequest request,
+            @RequestParam(defaultValue = "false") boolean allowLikelyDuplicates) {
         Applicant applicant = mapToApplicant(request);
-        Applicant createdApplicant = applicantService.createApplicant(applicant);
+        Applicant createdApplicant = applicantService.createApplicant(applicant, allowLikelyDuplicates);
         return ResponseEntity.ok(createdApplicant);
     }
 
+    @PostMapping("/duplicates/check")
+    @Operation(summary = "Check for likely duplicate applicants", description = "Restricted to ROLE_ADMIN or ROLE_DATA_COLLECTOR, phonetic match within the same village and age range")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Likely duplicates retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Validation failed"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<List<DuplicateCandidate>> checkDuplicates(@Valid @RequestBody ApplicantRequest request) {
+        return ResponseEntity.ok(duplicateApplicantService.findLikelyDuplicates(mapToApplicant(request)));
+    }
+
+    @PostMapping("/duplicates/scan")
+    @Operation(summary = "Scan the registry for likely duplicate applicants", description = "Restricted to ROLE_ADMIN")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Scan completed"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<List<DuplicatePair>> scanDuplicates() {
+        return ResponseEntity.ok(duplicateApplicantService.scanRegistry());
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get applicant by ID", description = "Retrieve an applicant by ID")
     @ApiResponses(value = {
@@ -60,23 +97,42 @@ public class ApplicantController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all applicants", description = "Restricted to ROLE_ADMIN or ROLE_DATA_COLLECTOR, paginated")
+    @Operation(summary = "Get all applicants", description = "Restricted to ROLE_ADMIN or ROLE_DATA_COLLECTOR, paginated; count=none|approx|exact controls the total; fields=a,b,c selects the returned properties")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Applicants retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid count mode or field"),
             @ApiResponse(responseCode = "403", description = "Access denied")
     })
-    public ResponseEntity<Page<Applicant>> getAllApplicants(Pageable pageable) {
-        Page<Applicant> applicants = applicantService.getAllApplicants(pageable);
+    public ResponseEntity<Slice<ApplicantSummary>> getAllApplicants(
+            Pageable pageable,
+            @RequestParam(defaultValue = "exact") String count,
+            @RequestParam(required = false) String fields) {
+        Slice<ApplicantSummary> applicants = applicantService.getAllApplicants(pageable, CountMode.from(count), FieldSet.from(fields));
         return ResponseEntity.ok(applicants);
     }
 
+    @GetMapping(params = "limit")
+    @Operation(summary = "Get all applicants by cursor", description = "Restricted to ROLE_ADMIN or ROLE_DATA_COLLECTOR, keyset paginated by id without a total count; fields=a,b,c selects the returned properties")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Applicants retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or field"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<CursorSlice<ApplicantSummary>> getApplicantsAfter(
+            @RequestParam(required = false) String after,
+            @RequestParam int limit,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(applicantService.getApplicantsAfter(after, limit, FieldSet.from(fields)));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update an applicant", description = "Restricted to ROLE_DATA_COLLECTOR")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Applicant updated successfully"),
             @ApiResponse(responseCode = "400", description = "Validation failed"),
             @ApiResponse(responseCode = "403", description = "Access denied"),
-            @ApiResponse(responseCode = "404", description = "Applicant not found")
+            @ApiResponse(responseCode = "404", description = "Applicant not found"),
+            @ApiResponse(responseCode = "409", description = "Applicant was changed since the given version")
     })
     public ResponseEntity<Applicant> updateApplicant(@PathVariable Integer id, @Valid @RequestBody ApplicantRequest request) {
         Applicant applicant = mapToApplicant(request);
@@ -111,6 +167,20 @@ public class ApplicantController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/verifications")
+    @Operation(summary = "Verify applicants in bulk",
+            description = "Restricted to ROLE_VERIFIER, optional maker-checker; up to 10000 ids in one set-based update")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Verification applied; see updated and skipped ids"),
+            @ApiResponse(responseCode = "400", description = "Validation failed"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<BulkVerificationResult> verifyApplicants(
+            @Valid @RequestBody BulkVerificationRequest request,
+            Authentication authentication) {
+        return ResponseEntity.ok(applicantService.verifyApplicants(request.getIds(), authentication.getName(), request.isUseMakerChecker()));
+    }
+
     @PatchMapping("/maker-checker/{logId}")
     @Operation(summary = "Confirm maker-checker action", description = "Restricted to ROLE_APPROVER")
     @ApiResponses(value = {
@@ -127,43 +197,79 @@ public class ApplicantController {
     }
 
     @GetMapping("/search")
-@Operation(summary = "Search applicants by name, ID number, or date applied", description = "Restricted to ROLE_ADMIN or ROLE_DATA_COLLECTOR, paginated")
+@Operation(summary = "Search applicants by name, ID number, or date applied", description = "Restricted to ROLE_ADMIN or ROLE_DATA_COLLECTOR, paginated; count=none|approx|exact controls the total; fields=a,b,c selects the returned properties")
 @ApiResponses(value = {
     @ApiResponse(responseCode = "200", description = "Applicants retrieved successfully"),
+    @ApiResponse(responseCode = "400", description = "Invalid count mode or field"),
     @ApiResponse(responseCode = "403", description = "Access denied")
 })
-public ResponseEntity<Page<Applicant>> searchApplicants(
+public ResponseEntity<Slice<ApplicantSummary>> searchApplicants(
         @RequestParam(required = false) String name,
         @RequestParam(required = false) String idNumber,
         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateApplied,
-        Pageable pageable) {
-    Page<Applicant> applicants = applicantService.searchApplicants(name, idNumber, dateApplied, pageable);
+        Pageable pageable,
+        @RequestParam(defaultValue = "exact") String count,
+        @RequestParam(required = false) String fields) {
+    Slice<ApplicantSummary> applicants = applicantService.searchApplicants(name, idNumber, dateApplied, pageable, CountMode.from(count), FieldSet.from(fields));
     return ResponseEntity.ok(applicants);
 }
 
+    @GetMapping("/typeahead")
+    @Operation(summary = "Typeahead lookup of applicants", description = "Restricted to ROLE_ADMIN or ROLE_DATA_COLLECTOR, matches name or ID number prefixes from an in-memory index")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<List<ApplicantSuggestion>> typeahead(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(applicantService.typeahead(q, limit));
+    }
+
     @GetMapping("/filter/status")
-    @Operation(summary = "Filter applicants by verification status", description = "Restricted to ROLE_ADMIN, ROLE_DATA_COLLECTOR, or ROLE_VERIFIER, paginated")
+    @Operation(summary = "Filter applicants by verification status", description = "Restricted to ROLE_ADMIN, ROLE_DATA_COLLECTOR, or ROLE_VERIFIER, paginated; count=none|approx|exact controls the total; fields=a,b,c selects the returned properties")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Applicants retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid count mode or field"),
             @ApiResponse(responseCode = "403", description = "Access denied")
     })
-    public ResponseEntity<Page<Applicant>> filterApplicantsByStatus(
+    public ResponseEntity<Slice<ApplicantSummary>> filterApplicantsByStatus(
             @RequestParam(required = false) String status,
-            Pageable pageable) {
-        Page<Applicant> applicants = applicantService.filterApplicantsByStatus(status, pageable);
+            Pageable pageable,
+            @RequestParam(defaultValue = "exact") String count,
+            @RequestParam(required = false) String fields) {
+        Slice<ApplicantSummary> applicants = applicantService.filterApplicantsByStatus(status, pageable, CountMode.from(count), FieldSet.from(fields));
         return ResponseEntity.ok(applicants);
     }
 
+    @GetMapping(value = "/filter/status", params = "limit")
+    @Operation(summary = "Filter applicants by verification status by cursor", description = "Restricted to ROLE_ADMIN, ROLE_DATA_COLLECTOR, or ROLE_VERIFIER, keyset paginated by id without a total count; fields=a,b,c selects the returned properties")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Applicants retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or field"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<CursorSlice<ApplicantSummary>> filterApplicantsByStatusAfter(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String after,
+            @RequestParam int limit,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(applicantService.filterApplicantsByStatusAfter(status, after, limit, FieldSet.from(fields)));
+    }
+
     @GetMapping("/filter/village")
-    @Operation(summary = "Filter applicants by village", description = "Restricted to ROLE_ADMIN or ROLE_DATA_COLLECTOR, paginated")
+    @Operation(summary = "Filter applicants by village", description = "Restricted to ROLE_ADMIN or ROLE_DATA_COLLECTOR, paginated; count=none|approx|exact controls the total; fields=a,b,c selects the returned properties")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Applicants retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid count mode or field"),
             @ApiResponse(responseCode = "403", description = "Access denied")
     })
-    public ResponseEntity<Page<Applicant>> filterApplicantsByVillage(
+    public ResponseEntity<Slice<ApplicantSummary>> filterApplicantsByVillage(
             @RequestParam(required = false) Integer villageId,
-            Pageable pageable) {
-        Page<Applicant> applicants = applicantService.filterApplicantsByVillage(villageId, pageable);
+            Pageable pageable,
+            @RequestParam(defaultValue = "exact") String count,
+            @RequestParam(required = false) String fields) {
+        Slice<ApplicantSummary> applicants = applicantService.filterApplicantsByVillage(villageId, pageable, CountMode.from(count), FieldSet.from(fields));
         return ResponseEntity.ok(applicants);
     }
 
@@ -186,6 +292,7 @@ public ResponseEntity<Page<Applicant>> searchApplicants(
         applicant.setPostalAddress(request.getPostalAddress());
         applicant.setPhysicalAddress(request.getPhysicalAddress());
         applicant.setTelephone(request.getTelephone());
+        applicant.setVersion(request.getVersion());
         return applicant;
     }
 }
@@ -2,6 +2,12 @@ package com.social.assistance.controller;
 
 import com.social.assistance.dto.ApplicationReport;
 import com.social.assistance.dto.ApplicationRequest;
+import com.social.assistance.dto.ApplicationSummary;
+import com.social.assistance.dto.BulkDecisionRequest;
+import com.social.assistance.dto.BulkDecisionResult;
+import com.social.assistance.dto.CountMode;
+import com.social.assistance.dto.CursorSlice;
+import com.social.assistance.dto.FieldSet;
 import com.social.assistance.model.Application;
 import com.social.assistance.service.ApplicationService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,8 +16,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -62,16 +68,34 @@ public class ApplicationController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all applications", description = "Restricted to ROLE_ADMIN or ROLE_DATA_COLLECTOR, paginated")
+    @Operation(summary = "Get all applications", description = "Restricted to ROLE_ADMIN or ROLE_DATA_COLLECTOR, paginated; count=none|approx|exact controls the total; fields=a,b,c selects the returned properties")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Applications retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid count mode or field"),
             @ApiResponse(responseCode = "403", description = "Access denied")
     })
-    public ResponseEntity<Page<Application>> getAllApplications(Pageable pageable) {
-        Page<Application> applications = applicationService.getAllApplications(pageable);
+    public ResponseEntity<Slice<ApplicationSummary>> getAllApplications(
+            Pageable pageable,
+            @RequestParam(defaultValue = "exact") String count,
+            @RequestParam(required = false) String fields) {
+        Slice<ApplicationSummary> applications = applicationService.getAllApplications(pageable, CountMode.from(count), FieldSet.from(fields));
         return ResponseEntity.ok(applications);
     }
 
+    @GetMapping(params = "limit")
+    @Operation(summary = "Get all applications by cursor", description = "Restricted to ROLE_ADMIN or ROLE_DATA_COLLECTOR, keyset paginated by id without a total count; fields=a,b,c selects the returned properties")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Applications retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or field"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<CursorSlice<ApplicationSummary>> getApplicationsAfter(
+            @RequestParam(required = false) String after,
+            @RequestParam int limit,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(applicationService.getApplicationsAfter(after, limit, FieldSet.from(fields)));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update an application", description = "Restricted to ROLE_ADMIN or ROLE_DATA_COLLECTOR")
     @ApiResponses(value = {
@@ -105,16 +129,34 @@ public class ApplicationController {
             @ApiResponse(responseCode = "200", description = "Application approval initiated"),
             @ApiResponse(responseCode = "403", description = "Access denied"),
             @ApiResponse(responseCode = "404", description = "Application not found"),
-            @ApiResponse(responseCode = "400", description = "Invalid state (applicant not verified)")
+            @ApiResponse(responseCode = "400", description = "Invalid state (applicant not verified)"),
+            @ApiResponse(responseCode = "409", description = "Application was changed since the given version")
     })
     public ResponseEntity<Void> approveApplication(
             @PathVariable Integer id,
             @RequestParam(defaultValue = "false") boolean useMakerChecker,
+            @RequestParam(required = false) Integer version,
             Authentication authentication) {
-        applicationService.approveApplication(id, authentication.getName(), useMakerChecker);
+        applicationService.approveApplication(id, authentication.getName(), useMakerChecker, version);
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/decisions")
+    @Operation(summary = "Approve or reject applications in bulk",
+            description = "Restricted to ROLE_APPROVER, optional maker-checker; returns an outcome per application instead of failing the whole batch")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Decisions applied; see per-id outcomes"),
+            @ApiResponse(responseCode = "400", description = "Validation failed"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<List<BulkDecisionResult>> decideApplications(
+            @Valid @RequestBody BulkDecisionRequest request,
+            Authentication authentication) {
+        List<BulkDecisionResult> results = applicationService.decideApplications(request.getIds(),
+                "approve".equalsIgnoreCase(request.getDecision()), authentication.getName(), request.isUseMakerChecker());
+        return ResponseEntity.ok(results);
+    }
+
     @PatchMapping("/maker-checker/{logId}")
     @Operation(summary = "Confirm maker-checker action", description = "Restricted to ROLE_APPROVER")
     @ApiResponses(value = {
@@ -131,45 +173,69 @@ public class ApplicationController {
     }
 
     @GetMapping("/filter/status")
-    @Operation(summary = "Filter applications by status", description = "Restricted to ROLE_ADMIN or ROLE_DATA_COLLECTOR, paginated")
+    @Operation(summary = "Filter applications by status", description = "Restricted to ROLE_ADMIN or ROLE_DATA_COLLECTOR, paginated; count=none|approx|exact controls the total; fields=a,b,c selects the returned properties")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Applications retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid count mode or field"),
             @ApiResponse(responseCode = "403", description = "Access denied")
     })
-    public ResponseEntity<Page<Application>> getApplicationsByStatus(
+    public ResponseEntity<Slice<ApplicationSummary>> getApplicationsByStatus(
             @RequestParam(required = false) String status,
-            Pageable pageable) {
-        Page<Application> applications = applicationService.getApplicationsByStatus(status, pageable);
+            Pageable pageable,
+            @RequestParam(defaultValue = "exact") String count,
+            @RequestParam(required = false) String fields) {
+        Slice<ApplicationSummary> applications = applicationService.getApplicationsByStatus(status, pageable, CountMode.from(count), FieldSet.from(fields));
         return ResponseEntity.ok(applications);
     }
 
     @GetMapping("/filter/applicant-status")
-    @Operation(summary = "Filter applications by applicant and status", description = "Restricted to ROLE_ADMIN, ROLE_DATA_COLLECTOR, or ROLE_APPROVER, paginated")
+    @Operation(summary = "Filter applications by applicant and status", description = "Restricted to ROLE_ADMIN, ROLE_DATA_COLLECTOR, or ROLE_APPROVER, paginated; count=none|approx|exact controls the total; fields=a,b,c selects the returned properties")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Applications retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid count mode or field"),
             @ApiResponse(responseCode = "403", description = "Access denied")
     })
-    public ResponseEntity<Page<Application>> filterApplicationsByApplicantAndStatus(
+    public ResponseEntity<Slice<ApplicationSummary>> filterApplicationsByApplicantAndStatus(
             @RequestParam(required = false) Integer applicantId,
             @RequestParam(required = false) String status,
-            Pageable pageable) {
-        Page<Application> applications = applicationService.filterApplicationsByApplicantAndStatus(applicantId, status, pageable);
+            Pageable pageable,
+            @RequestParam(defaultValue = "exact") String count,
+            @RequestParam(required = false) String fields) {
+        Slice<ApplicationSummary> applications = applicationService.filterApplicationsByApplicantAndStatus(applicantId, status, pageable, CountMode.from(count), FieldSet.from(fields));
         return ResponseEntity.ok(applications);
     }
 
     @GetMapping("/filter/programme")
-    @Operation(summary = "Filter applications by programme", description = "Restricted to ROLE_ADMIN or ROLE_DATA_COLLECTOR, paginated")
+    @Operation(summary = "Filter applications by programme", description = "Restricted to ROLE_ADMIN or ROLE_DATA_COLLECTOR, paginated; count=none|approx|exact controls the total; fields=a,b,c selects the returned properties")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Applications retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid count mode or field"),
             @ApiResponse(responseCode = "403", description = "Access denied")
     })
-    public ResponseEntity<Page<Application>> filterApplicationsByProgramme(
+    public ResponseEntity<Slice<ApplicationSummary>> filterApplicationsByProgramme(
             @RequestParam(required = false) Integer programmeId,
-            Pageable pageable) {
-        Page<Application> applications = applicationService.filterApplicationsByProgramme(programmeId, pageable);
+            Pageable pageable,
+            @RequestParam(defaultValue = "exact") String count,
+            @RequestParam(required = false) String fields) {
+        Slice<ApplicationSummary> applications = applicationService.filterApplicationsByProgramme(programmeId, pageable, CountMode.from(count), FieldSet.from(fields));
         return ResponseEntity.ok(applications);
     }
 
+    @GetMapping(value = "/filter/programme", params = "limit")
+    @Operation(summary = "Filter applications by programme by cursor", description = "Restricted to ROLE_ADMIN or ROLE_DATA_COLLECTOR, keyset paginated by id without a total count; fields=a,b,c selects the returned properties")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Applications retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or field"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<CursorSlice<ApplicationSummary>> filterApplicationsByProgrammeAfter(
+            @RequestParam(required = false) Integer programmeId,
+            @RequestParam(required = false) String after,
+            @RequestParam int limit,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(applicationService.filterApplicationsByProgrammeAfter(programmeId, after, limit, FieldSet.from(fields)));
+    }
+
     @GetMapping("/report")
     @Operation(summary = "Get application report", description = "Restricted to ROLE_ADMIN")
     @ApiResponses(value = {
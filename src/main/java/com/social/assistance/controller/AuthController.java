@@ -1,10 +1,14 @@
 package com.social.assistance.controller;
 
 import com.social.assistance.config.JwtUtil;
+import com.social.assistance.config.LoginThrottle;
+import com.social.assistance.config.UserStateCache;
 import com.social.assistance.dto.JwtResponse;
 import com.social.assistance.dto.LoginRequest;
+import com.social.assistance.dto.RefreshTokenRequest;
 import com.social.assistance.dto.UserRegistrationRequest;
 import com.social.assistance.model.User;
+import com.social.assistance.service.RefreshTokenService;
 import com.social.assistance.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -17,6 +21,9 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
+
 @RestController
 @RequestMapping("/api/auth")
 @Tag(name = "Authentication", description = "Endpoints for user authentication and registration")
@@ -26,46 +33,83 @@ public class AuthController {
     private final UserDetailsService userDetailsService; // Changed from UserDetailsService
     private final JwtUtil jwtUtil;
     private final UserService userService;
+    private final UserStateCache userStateCache;
+    private final LoginThrottle loginThrottle;
+    private final RefreshTokenService refreshTokenService;
 
     public AuthController(AuthenticationManager authenticationManager, UserDetailsService userDetailsService,
-                          JwtUtil jwtUtil, UserService userService) {
+                          JwtUtil jwtUtil, UserService userService, UserStateCache userStateCache,
+                          LoginThrottle loginThrottle, RefreshTokenService refreshTokenService) {
         this.authenticationManager = authenticationManager;
         this.userDetailsService = userDetailsService;
         this.jwtUtil = jwtUtil;
         this.userService = userService;
+        this.userStateCache = userStateCache;
+        this.loginThrottle = loginThrottle;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @PostMapping("/login")
     @Operation(summary = "Authenticate user and get JWT token", description = "Logs in a user and returns a JWT token")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully authenticated"),
-            @ApiResponse(responseCode = "401", description = "Invalid credentials")
+            @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+            @ApiResponse(responseCode = "429", description = "Too many login attempts; see Retry-After")
     })
-    public ResponseEntity<JwtResponse> login(@RequestBody LoginRequest loginRequest) {
-        authenticationManager.authenticate(
+    public ResponseEntity<JwtResponse> login(@RequestBody LoginRequest loginRequest, HttpServletRequest httpRequest) {
+        loginThrottle.guard(loginRequest.getUsername(), httpRequest.getRemoteAddr(), () -> authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword())
-        );
+        ));
 
         final UserDetails userDetails = userDetailsService.loadUserByUsername(loginRequest.getUsername());
-        final String jwt = jwtUtil.generateToken(userDetails);
+        final int tokenVersion = userStateCache.get(userDetails.getUsername()).getTokenVersion();
+        return ResponseEntity.ok(tokenResponse(userDetails, tokenVersion,
+                refreshTokenService.issue(userDetails.getUsername(), tokenVersion)));
+    }
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Exchange a refresh token for a new access token",
+            description = "Refresh tokens are single use; the response carries the replacement refresh token")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "New access and refresh token issued"),
+            @ApiResponse(responseCode = "401", description = "Refresh token invalid, expired, reused or revoked")
+    })
+    public ResponseEntity<JwtResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        UserDetails userDetails = userDetailsService.loadUserByUsername(rotation.getUsername());
+        return ResponseEntity.ok(tokenResponse(userDetails, rotation.getTokenVersion(), rotation.getRefreshToken()));
+    }
 
+    @PostMapping("/logout")
+    @Operation(summary = "Revoke a refresh token", description = "Ends the session the refresh token belongs to")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Refresh token revoked")
+    })
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest request) {
+        refreshTokenService.revoke(request.getRefreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
+    private JwtResponse tokenResponse(UserDetails userDetails, int tokenVersion, String refreshToken) {
         JwtResponse response = new JwtResponse();
-        response.setToken(jwt);
+        response.setToken(jwtUtil.generateToken(userDetails, tokenVersion));
+        response.setRefreshToken(refreshToken);
+        response.setExpiresIn(jwtUtil.getExpirationMillis() / 1000);
         response.setUsername(userDetails.getUsername());
         response.setRole(userDetails.getAuthorities().iterator().next().getAuthority());
-
-        return ResponseEntity.ok(response);
+        return response;
     }
 
     @PostMapping("/register")
     @Operation(summary = "Register a new user with ROLE_USER", description = "Public registration endpoint, assigns ROLE_USER")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User registered successfully"),
-            @ApiResponse(responseCode = "409", description = "Username already exists")
+            @ApiResponse(responseCode = "409", description = "Username already exists"),
+            @ApiResponse(responseCode = "429", description = "Too many attempts; see Retry-After")
     })
-    public ResponseEntity<User> register(@RequestBody UserRegistrationRequest request) {
+    public ResponseEntity<User> register(@RequestBody UserRegistrationRequest request, HttpServletRequest httpRequest) {
         request.setRole("ROLE_USER");
-        User user = userService.registerUser(request);
+        User user = loginThrottle.guard(null, httpRequest.getRemoteAddr(), () -> userService.registerUser(request));
         return ResponseEntity.ok(user);
     }
 }
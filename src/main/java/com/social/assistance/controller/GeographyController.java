@@ -0,0 +1,52 @@
+package com.social.assistance.controller;
+
+import com.social.assistance.dto.GeographyLevel;
+import com.social.assistance.dto.GeographyNode;
+import com.social.assistance.service.GeographyTree;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/geography")
+@Tag(name = "Geography", description = "County to village hierarchy served from memory")
+@SecurityRequirement(name = "bearerAuth")
+public class GeographyController {
+    private final GeographyTree geographyTree;
+
+    public GeographyController(GeographyTree geographyTree) {
+        this.geographyTree = geographyTree;
+    }
+
+    @GetMapping("/tree")
+    @Operation(summary = "Geography hierarchy", description = "Every county with its sub-counties, locations, sub-locations and villages nested as children")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Hierarchy retrieved successfully")
+    })
+    public ResponseEntity<List<GeographyNode>> getTree() {
+        return ResponseEntity.ok(geographyTree.tree());
+    }
+
+    @GetMapping("/{level}/{id}/descendants")
+    @Operation(summary = "Descendants of a geography node", description = "Every node below a county, subCounty, location or subLocation in tree order; only=village returns just the villages")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Descendants retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid level"),
+            @ApiResponse(responseCode = "404", description = "Node not found")
+    })
+    public ResponseEntity<List<GeographyNode>> getDescendants(@PathVariable String level, @PathVariable Integer id,
+                                                              @RequestParam(required = false) String only) {
+        return ResponseEntity.ok(geographyTree.descendants(GeographyLevel.from(level), id,
+                only == null ? null : GeographyLevel.from(only)));
+    }
+}
@@ -1,7 +1,11 @@
 package com.social.assistance.controller;
 
 import com.social.assistance.dto.ApplicantRequest;
+import com.social.assistance.dto.CursorSlice;
+import com.social.assistance.dto.PendingLogView;
 import com.social.assistance.dto.UserRegistrationRequest;
+import com.social.assistance.exception.InvalidStateException;
+import com.social.assistance.exception.ResourceNotFoundException;
 import com.social.assistance.model.Applicant;
 import com.social.assistance.model.Application;
 import com.social.assistance.model.MakerCheckerLog;
@@ -10,10 +14,14 @@ import com.social.assistance.repository.ApplicantRepository;
 import com.social.assistance.repository.ApplicationRepository;
 import com.social.assistance.repository.MakerCheckerLogRepository;
 import com.social.assistance.repository.UserRepository;
+import com.social.assistance.service.ApplicantSearchIndex;
+import com.social.assistance.service.UserChangedEvent;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -22,6 +30,7 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -33,6 +42,9 @@ public class MakerCheckerController {
     private final ApplicationRepository applicationRepository;
     private final MakerCheckerLogRepository makerCheckerLogRepository;
     private final UserRepository userRepository;
+    private final ApplicantSearchIndex applicantSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long claimLeaseMillis;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -40,11 +52,17 @@ public class MakerCheckerController {
     public MakerCheckerController(ApplicantRepository applicantRepository,
                                   ApplicationRepository applicationRepository,
                                   MakerCheckerLogRepository makerCheckerLogRepository,
-                                  UserRepository userRepository) {
+                                  UserRepository userRepository,
+                                  ApplicantSearchIndex applicantSearchIndex,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${maker-checker.claim-lease:900000}") long claimLeaseMillis) {
         this.applicantRepository = applicantRepository;
         this.applicationRepository = applicationRepository;
         this.makerCheckerLogRepository = makerCheckerLogRepository;
         this.userRepository = userRepository;
+        this.applicantSearchIndex = applicantSearchIndex;
+        this.eventPublisher = eventPublisher;
+        this.claimLeaseMillis = claimLeaseMillis;
     }
     
     @PostMapping("/applications")
@@ -72,6 +90,7 @@ public class MakerCheckerController {
                 .setParameter("telephone", request.getTelephone())
                 .setParameter("programmeId", request.getProgrammeId())
                 .executeUpdate();
+        applicantRepository.findByIdNumber(request.getIdNumber()).ifPresent(applicantSearchIndex::index);
 
         return ResponseEntity.ok("Application inserted for " + request.getFirstName() + " " + request.getLastName());
     }
@@ -116,6 +135,7 @@ public class MakerCheckerController {
                 .setParameter("userId", id)
                 .setParameter("newPassword", newPassword) // Note: Should be encoded in production
                 .executeUpdate();
+        eventPublisher.publishEvent(new UserChangedEvent(username));
 
         return ResponseEntity.ok("Password changed for user: " + username);
     }
@@ -188,10 +208,16 @@ public class MakerCheckerController {
             @PathVariable Integer logId,
             @RequestParam boolean approve,
             Authentication authentication) {
-        MakerCheckerLog log = makerCheckerLogRepository.findById(logId)
-                .orElseThrow(() -> new RuntimeException("Log not found: " + logId));
+        MakerCheckerLog log = makerCheckerLogRepository.findWithLockById(logId)
+                .orElseThrow(() -> new ResourceNotFoundException("Log not found: " + logId));
         Integer userId = userRepository.findByUsername(authentication.getName())
                 .orElseThrow(() -> new RuntimeException("User not found")).getId();
+        if (!"Proposed".equals(log.getStatus())) {
+            throw new InvalidStateException("Log " + logId + " has already been decided: " + log.getStatus());
+        }
+        if (log.isClaimedByOther(authentication.getName(), LocalDateTime.now())) {
+            throw new InvalidStateException("Log " + logId + " is claimed by another reviewer");
+        }
 
         entityManager.createNativeQuery("CALL confirm_maker_checker(:logId, :checkerId, :approve)")
                 .setParameter("logId", logId)
@@ -202,15 +228,56 @@ public class MakerCheckerController {
         return ResponseEntity.ok("Log " + logId + " " + (approve ? "approved" : "rejected"));
     }
 
+    @PostMapping("/logs/claim")
+    @PreAuthorize("hasRole('APPROVER')")
+    @Operation(summary = "Claim the next pending maker-checker logs",
+            description = "Reserves up to limit unclaimed proposals, oldest first, for the caller until the lease expires; concurrent reviewers get disjoint sets")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Claimed logs, possibly empty"),
+            @ApiResponse(responseCode = "403", description = "Unauthorized")
+    })
+    @Transactional
+    public ResponseEntity<List<PendingLogView>> claimPendingLogs(
+            @RequestParam(required = false) String entityType,
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
+        LocalDateTime now = LocalDateTime.now();
+        int size = Math.min(Math.max(limit, 1), CursorSlice.MAX_LIMIT);
+        return ResponseEntity.ok(makerCheckerLogRepository.claimPending(authentication.getName(), entityType, size,
+                now, now.plusNanos(claimLeaseMillis * 1_000_000)));
+    }
+
+    @DeleteMapping("/logs/{logId}/claim")
+    @PreAuthorize("hasRole('APPROVER')")
+    @Operation(summary = "Release a claimed maker-checker log", description = "Returns a log claimed by the caller to the queue")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Claim released"),
+            @ApiResponse(responseCode = "403", description = "Unauthorized"),
+            @ApiResponse(responseCode = "404", description = "No pending log claimed by the caller")
+    })
+    @Transactional
+    public ResponseEntity<Void> releaseClaim(@PathVariable Integer logId, Authentication authentication) {
+        if (makerCheckerLogRepository.releaseClaim(logId, authentication.getName()) == 0) {
+            throw new ResourceNotFoundException("No pending log " + logId + " claimed by " + authentication.getName());
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/logs/pending")
     @PreAuthorize("hasAnyRole('APPROVER', 'VERIFIER')")
-    @Operation(summary = "Get pending maker-checker logs", description = "Lists logs with status 'Proposed'")
+    @Operation(summary = "Get pending maker-checker logs",
+            description = "Logs with status 'Proposed', oldest first, keyset paginated by id; optionally filtered by entity type and maker username")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "List of pending logs"),
+            @ApiResponse(responseCode = "200", description = "Page of pending logs"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
             @ApiResponse(responseCode = "403", description = "Unauthorized")
     })
-    public ResponseEntity<List<MakerCheckerLog>> getPendingLogs() {
-        List<MakerCheckerLog> pendingLogs = makerCheckerLogRepository.findByStatus("Proposed");
-        return ResponseEntity.ok(pendingLogs);
+    public ResponseEntity<CursorSlice<PendingLogView>> getPendingLogs(
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) String maker,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(CursorSlice.of(makerCheckerLogRepository.findPending(
+                entityType, maker, CursorSlice.decode(after), CursorSlice.pageRequest(limit)), PendingLogView::getId));
     }
 }
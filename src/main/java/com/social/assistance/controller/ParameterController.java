@@ -1,10 +1,12 @@
 package com.social.assistance.controller;
 
+import com.social.assistance.dto.CountMode;
 import com.social.assistance.model.Parameter;
 import com.social.assistance.repository.ParameterRepository;
+import com.social.assistance.service.RowCountEstimator;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -16,13 +18,20 @@ import org.springframework.web.bind.annotation.RestController;
 @SecurityRequirement(name = "bearerAuth")
 public class ParameterController {
     private final ParameterRepository parameterRepository;
+    private final RowCountEstimator rowCountEstimator;
 
-    public ParameterController(ParameterRepository parameterRepository) {
+    public ParameterController(ParameterRepository parameterRepository, RowCountEstimator rowCountEstimator) {
         this.parameterRepository = parameterRepository;
+        this.rowCountEstimator = rowCountEstimator;
     }
 
     @GetMapping
-    public ResponseEntity<Page<Parameter>> getParametersByCategory(@RequestParam String category, Pageable pageable) {
-        return ResponseEntity.ok(parameterRepository.findByCategory(category, pageable));
+    public ResponseEntity<Slice<Parameter>> getParametersByCategory(@RequestParam String category, Pageable pageable,
+                                                                    @RequestParam(defaultValue = "exact") String count) {
+        return ResponseEntity.ok(rowCountEstimator.fetch(CountMode.from(count), pageable,
+                p -> parameterRepository.findByCategory(category, p),
+                p -> parameterRepository.findSliceByCategory(category, p),
+                () -> rowCountEstimator.cached("parameters:category:" + category,
+                        () -> parameterRepository.countByCategory(category))));
     }
 }
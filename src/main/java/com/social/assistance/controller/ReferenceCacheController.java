@@ -0,0 +1,51 @@
+package com.social.assistance.controller;
+
+import com.social.assistance.config.ReferenceDataCache;
+import com.social.assistance.dto.CacheRegionStats;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reference-cache")
+@Tag(name = "Reference cache", description = "Second-level cache of parameters, programmes and geography")
+@SecurityRequirement(name = "bearerAuth")
+public class ReferenceCacheController {
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reference data cache statistics", description = "Admin-only endpoint reporting hits, misses and hit ratio per second-level cache region, including cached queries")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<List<CacheRegionStats>> getStats() {
+        return ResponseEntity.ok(referenceDataCache.stats());
+    }
+
+    @DeleteMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Clear the reference data cache", description = "Admin-only endpoint, e.g. after editing reference tables directly in the database")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Cache cleared"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<Void> clearCache() {
+        referenceDataCache.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+}
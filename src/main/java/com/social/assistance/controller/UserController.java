@@ -1,7 +1,12 @@
 package com.social.assistance.controller;
 
+import com.social.assistance.config.UserDetailsCache;
+import com.social.assistance.config.UserStateCache;
+import com.social.assistance.dto.TokenRevocationRequest;
+import com.social.assistance.dto.UserCacheStats;
 import com.social.assistance.dto.UserRegistrationRequest;
 import com.social.assistance.model.User;
+import com.social.assistance.service.TokenRevocationService;
 import com.social.assistance.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -26,6 +31,15 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private UserStateCache userStateCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Register a new user", description = "Admin-only endpoint to register users with any role")
@@ -68,4 +82,80 @@ public class UserController {
         List<User> users = userService.getAllUsers();
         return ResponseEntity.ok(users);
     }
+
+    @PostMapping("/tokens/revoke")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Revoke a token", description = "Admin-only endpoint; the token is rejected on every request until it expires")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Token revoked"),
+            @ApiResponse(responseCode = "400", description = "Not a valid token"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<Void> revokeToken(@Valid @RequestBody TokenRevocationRequest request) {
+        tokenRevocationService.revokeToken(request.getToken());
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{username}/revoke-tokens")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Revoke all tokens of a user", description = "Admin-only endpoint; tokens issued before this call stop being accepted")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Tokens revoked"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<Void> revokeUserTokens(@PathVariable String username) {
+        userService.revokeTokens(username);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PatchMapping("/{username}/disable")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Disable a user", description = "Admin-only endpoint; the user can no longer log in and tokens already issued stop being accepted")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "User disabled"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<Void> disableUser(@PathVariable String username) {
+        userService.setEnabled(username, false);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PatchMapping("/{username}/enable")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Enable a user", description = "Admin-only endpoint; the user can log in again")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "User enabled"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<Void> enableUser(@PathVariable String username) {
+        userService.setEnabled(username, true);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/auth-cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "User details cache statistics", description = "Admin-only endpoint reporting size and hit ratio of the authentication user cache")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<UserCacheStats> getAuthCacheStats() {
+        return ResponseEntity.ok(userDetailsCache.stats());
+    }
+
+    @DeleteMapping("/auth-cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Clear the authentication caches", description = "Admin-only endpoint clearing the user details and stateless user-state caches, e.g. after editing users directly in the database")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Cache cleared"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<Void> clearAuthCache() {
+        userDetailsCache.invalidateAll();
+        userStateCache.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -1,13 +1,17 @@
 package com.social.assistance.controller;
 
+import com.social.assistance.dto.CountMode;
+import com.social.assistance.dto.CursorSlice;
 import com.social.assistance.model.Village;
 import com.social.assistance.repository.VillageRepository;
+import com.social.assistance.service.RowCountEstimator;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -15,13 +19,22 @@ import org.springframework.web.bind.annotation.RestController;
 @SecurityRequirement(name = "bearerAuth")
 public class VillageController {
     private final VillageRepository villageRepository;
+    private final RowCountEstimator rowCountEstimator;
 
-    public VillageController(VillageRepository villageRepository) {
+    public VillageController(VillageRepository villageRepository, RowCountEstimator rowCountEstimator) {
         this.villageRepository = villageRepository;
+        this.rowCountEstimator = rowCountEstimator;
     }
 
     @GetMapping
-    public ResponseEntity<Page<Village>> getVillages(Pageable pageable) {
-        return ResponseEntity.ok(villageRepository.findAll(pageable));
+    public ResponseEntity<Slice<Village>> getVillages(Pageable pageable, @RequestParam(defaultValue = "exact") String count) {
+        return ResponseEntity.ok(rowCountEstimator.fetch(CountMode.from(count), pageable, villageRepository::findAll, villageRepository::findSliceBy,
+                () -> rowCountEstimator.estimate("villages", villageRepository::count)));
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorSlice<Village>> getVillagesAfter(@RequestParam(required = false) String after, @RequestParam int limit) {
+        return ResponseEntity.ok(CursorSlice.of(
+                villageRepository.findByIdGreaterThan(CursorSlice.decode(after), CursorSlice.pageRequest(limit)), Village::getId));
     }
 }
@@ -7,6 +7,9 @@ import javax.validation.constraints.*;
 @Data
 public class ApplicantRequest {
 
+    // Version the client last read; when given on update, a stale value is rejected with 409
+    private Integer version;
+
     @NotBlank(message = "First name is required")
     @Size(max = 50, message = "First name must not exceed 50 characters")
     private String firstName;
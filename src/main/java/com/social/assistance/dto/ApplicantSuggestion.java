@@ -0,0 +1,14 @@
+package com.social.assistance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApplicantSuggestion {
+    private Integer id;
+    private String displayName;
+    private String idNumber;
+}
@@ -0,0 +1,31 @@
+package com.social.assistance.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Row of an applicant listing, with sex, marital status and village flattened to their display
+ * values and read with a single projection query; no entities are loaded. A {@link FieldSet}
+ * narrows both the query and the written properties.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFilter(FieldSet.FILTER)
+public class ApplicantSummary {
+    private Integer id;
+    private String firstName;
+    private String middleName;
+    private String lastName;
+    private String idNumber;
+    private Integer age;
+    private String sex;
+    private String maritalStatus;
+    private Integer villageId;
+    private String villageName;
+    private String telephone;
+    private String verificationStatus;
+    private Integer version;
+}
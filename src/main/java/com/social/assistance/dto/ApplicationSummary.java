@@ -0,0 +1,31 @@
+package com.social.assistance.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Row of an application listing, flattened from the application, its applicant, programme and
+ * village and read with a single projection query; no entities are loaded. A {@link FieldSet}
+ * narrows both the query and the written properties.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFilter(FieldSet.FILTER)
+public class ApplicationSummary {
+    private Integer id;
+    private Integer applicantId;
+    private String applicantName;
+    private String applicantIdNumber;
+    private Integer programmeId;
+    private String programmeName;
+    private String villageName;
+    private String status;
+    private Boolean approved;
+    private LocalDate applicationDate;
+    private Integer version;
+}
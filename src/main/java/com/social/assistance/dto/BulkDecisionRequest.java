@@ -0,0 +1,23 @@
+package com.social.assistance.dto;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+public class BulkDecisionRequest {
+
+    @NotEmpty(message = "At least one application ID is required")
+    @Size(max = 500, message = "At most 500 applications can be decided at once")
+    private List<Integer> ids;
+
+    @NotBlank(message = "Decision is required")
+    @Pattern(regexp = "(?i)approve|reject", message = "Decision must be approve or reject")
+    private String decision;
+
+    private boolean useMakerChecker;
+}
@@ -0,0 +1,16 @@
+package com.social.assistance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BulkDecisionResult {
+
+    public enum Outcome {
+        APPROVED, REJECTED, PROPOSED, NOT_FOUND, NOT_PENDING, NOT_VERIFIED
+    }
+
+    private Integer id;
+    private Outcome outcome;
+}
@@ -0,0 +1,17 @@
+package com.social.assistance.dto;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+public class BulkVerificationRequest {
+
+    @NotEmpty(message = "At least one applicant ID is required")
+    @Size(max = 10000, message = "At most 10000 applicants can be verified at once")
+    private List<Integer> ids;
+
+    private boolean useMakerChecker;
+}
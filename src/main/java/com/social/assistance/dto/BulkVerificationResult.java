@@ -0,0 +1,15 @@
+package com.social.assistance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BulkVerificationResult {
+    private String status;
+    private List<Integer> updated;
+    // Not found, already verified, or awaiting a maker-checker decision
+    private List<Integer> skipped;
+}
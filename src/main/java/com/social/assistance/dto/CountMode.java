@@ -0,0 +1,29 @@
+package com.social.assistance.dto;
+
+import com.social.assistance.exception.InvalidStateException;
+import org.springframework.data.domain.Slice;
+
+import java.util.Locale;
+
+/**
+ * How a paginated endpoint computes {@code totalElements}: {@code NONE} returns a {@link Slice}
+ * without counting, {@code APPROX} returns a page whose total comes from planner statistics or
+ * a cached count, and {@code EXACT} runs the count query on every request. The listing itself is
+ * run by {@code RowCountEstimator.fetch}.
+ */
+public enum CountMode {
+    NONE,
+    APPROX,
+    EXACT;
+
+    public static CountMode from(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return EXACT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidStateException("Invalid count mode: " + value + " (expected none, approx or exact)");
+        }
+    }
+}
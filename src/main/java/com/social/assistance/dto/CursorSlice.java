@@ -0,0 +1,73 @@
+package com.social.assistance.dto;
+
+import com.social.assistance.exception.InvalidStateException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset (seek) listing. Rows are ordered by id; {@code nextCursor} is an
+ * opaque token for the last row returned and is passed back as {@code after} to continue.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorSlice<T> {
+
+    public static final int MAX_LIMIT = 500;
+
+    private static final String PREFIX = "id:";
+
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+    private int limit;
+
+    public static <T> CursorSlice<T> of(Slice<T> slice, Function<T, Integer> idExtractor) {
+        List<T> content = slice.getContent();
+        String nextCursor = slice.hasNext() && !content.isEmpty()
+                ? encode(idExtractor.apply(content.get(content.size() - 1)))
+                : null;
+        return new CursorSlice<>(content, nextCursor, slice.hasNext(), slice.getSize());
+    }
+
+    /**
+     * First page of a seek query: {@code limit} rows ordered by id, clamped to {@link #MAX_LIMIT}.
+     */
+    public static Pageable pageRequest(int limit) {
+        return PageRequest.of(0, Math.min(Math.max(limit, 1), MAX_LIMIT), Sort.by("id"));
+    }
+
+    public static String encode(Integer id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Id after which the next page starts; 0 for a missing cursor.
+     * @throws InvalidStateException if the cursor was not produced by {@link #encode(Integer)}
+     */
+    public static int decode(String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new InvalidStateException("Invalid cursor: " + cursor);
+            }
+            return Integer.parseInt(decoded.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidStateException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.social.assistance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateCandidate {
+    private Integer applicantId;
+    private String name;
+    private String idNumber;
+    private Integer villageId;
+    private Integer age;
+    private double score;
+}
@@ -0,0 +1,14 @@
+package com.social.assistance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicatePair {
+    private DuplicateCandidate first;
+    private DuplicateCandidate second;
+    private double score;
+}
@@ -0,0 +1,57 @@
+package com.social.assistance.dto;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Sparse fieldset requested with {@code fields=a,b,c} on a list endpoint: the projection query
+ * selects only these columns and the JSON writer only writes these properties. {@code id} is
+ * always included so rows stay addressable and cursors can be built from them.
+ */
+public final class FieldSet {
+
+    /**
+     * {@code @JsonFilter} id of the response types whose properties can be narrowed.
+     */
+    public static final String FILTER = "fields";
+
+    public static final FieldSet ALL = new FieldSet(null);
+
+    private static final String ID = "id";
+
+    private final Set<String> names;
+
+    private FieldSet(Set<String> names) {
+        this.names = names;
+    }
+
+    public static FieldSet from(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return ALL;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        names.add(ID);
+        for (String name : value.split(",")) {
+            if (!name.trim().isEmpty()) {
+                names.add(name.trim());
+            }
+        }
+        return new FieldSet(Collections.unmodifiableSet(names));
+    }
+
+    public boolean isAll() {
+        return names == null;
+    }
+
+    public boolean includes(String name) {
+        return names == null || names.contains(name);
+    }
+
+    /**
+     * Requested property names including {@code id}; only meaningful when not {@link #isAll()}.
+     */
+    public Set<String> names() {
+        return names == null ? Collections.emptySet() : names;
+    }
+}
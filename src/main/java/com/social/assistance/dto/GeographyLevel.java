@@ -0,0 +1,38 @@
+package com.social.assistance.dto;
+
+import com.social.assistance.exception.InvalidStateException;
+
+import java.util.Locale;
+
+/**
+ * Levels of the administrative hierarchy, from county down to village. Parsing accepts the
+ * {@link #key()} in any case and with or without separators, so {@code subCounty},
+ * {@code SubCounty} and {@code sub-county} all name {@link #SUB_COUNTY}.
+ */
+public enum GeographyLevel {
+    COUNTY("county"),
+    SUB_COUNTY("subCounty"),
+    LOCATION("location"),
+    SUB_LOCATION("subLocation"),
+    VILLAGE("village");
+
+    private final String key;
+
+    GeographyLevel(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static GeographyLevel from(String value) {
+        String normalized = value == null ? "" : value.replace("-", "").replace("_", "").trim().toLowerCase(Locale.ROOT);
+        for (GeographyLevel level : values()) {
+            if (level.key.toLowerCase(Locale.ROOT).equals(normalized)) {
+                return level;
+            }
+        }
+        throw new InvalidStateException("Invalid geography level: " + value + " (expected county, subCounty, location, subLocation or village)");
+    }
+}
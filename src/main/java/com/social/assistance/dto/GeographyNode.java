@@ -0,0 +1,24 @@
+package com.social.assistance.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A county, sub-county, location, sub-location or village. {@code children} is only filled in
+ * when the hierarchy is returned as a tree, and is left out for villages.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GeographyNode {
+    private Integer id;
+    private String name;
+    private String level;
+    private Integer parentId;
+    private List<GeographyNode> children;
+}
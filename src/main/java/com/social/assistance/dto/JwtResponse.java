@@ -5,6 +5,9 @@ import lombok.Data;
 @Data
 public class JwtResponse {
     private String token;
+    private String refreshToken;
+    // Lifetime of the access token in seconds
+    private long expiresIn;
     private String username;
     private String role;
 }
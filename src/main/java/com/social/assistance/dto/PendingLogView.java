@@ -0,0 +1,24 @@
+package com.social.assistance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of the pending maker-checker queue: the log itself plus the maker's id and username,
+ * without loading the maker or checker {@code User} entities.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingLogView {
+    private Integer id;
+    private String entityType;
+    private Integer entityId;
+    private String action;
+    private Integer makerId;
+    private String makerUsername;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,11 @@
+package com.social.assistance.dto;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+
+@Data
+public class TokenRevocationRequest {
+    @NotBlank(message = "Token is required")
+    private String token;
+}
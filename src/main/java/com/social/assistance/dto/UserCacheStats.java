@@ -0,0 +1,17 @@
+package com.social.assistance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserCacheStats {
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private double hitRatio;
+    private long evictionCount;
+    private double averageLoadMillis;
+}
@@ -0,0 +1,16 @@
+package com.social.assistance.exception;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class ConflictErrorResponse extends ErrorResponse {
+    // State of the entity as it is now, so the client can merge and retry with its version
+    private Object current;
+
+    public ConflictErrorResponse(int status, String error, String message, String path, Object current) {
+        super(status, error, message, path);
+        this.current = current;
+    }
+}
@@ -0,0 +1,18 @@
+package com.social.assistance.exception;
+
+import com.social.assistance.dto.DuplicateCandidate;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.List;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class LikelyDuplicateErrorResponse extends ErrorResponse {
+    private List<DuplicateCandidate> candidates;
+
+    public LikelyDuplicateErrorResponse(int status, String error, String message, String path, List<DuplicateCandidate> candidates) {
+        super(status, error, message, path);
+        this.candidates = candidates;
+    }
+}
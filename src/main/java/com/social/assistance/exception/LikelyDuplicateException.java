@@ -0,0 +1,19 @@
+package com.social.assistance.exception;
+
+import com.social.assistance.dto.DuplicateCandidate;
+
+import java.util.List;
+
+public class LikelyDuplicateException extends DuplicateResourceException {
+
+    private final List<DuplicateCandidate> candidates;
+
+    public LikelyDuplicateException(String message, List<DuplicateCandidate> candidates) {
+        super(message);
+        this.candidates = candidates;
+    }
+
+    public List<DuplicateCandidate> getCandidates() {
+        return candidates;
+    }
+}
@@ -1,5 +1,6 @@
 package com.social.assistance.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 
 import javax.persistence.*;
@@ -8,6 +9,31 @@ import java.time.LocalDateTime;
 @Data
 @Entity
 @Table(name = "applicants")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+// All associations are lazy; read paths pick one of these graphs. The list graph joins the
+// village hierarchy, while sex and marital status (a handful of distinct rows) are batch-loaded.
+@NamedEntityGraphs({
+        @NamedEntityGraph(name = "Applicant.list",
+                attributeNodes = @NamedAttributeNode(value = "village", subgraph = "village"),
+                subgraphs = {
+                        @NamedSubgraph(name = "village", attributeNodes = @NamedAttributeNode(value = "subLocation", subgraph = "subLocation")),
+                        @NamedSubgraph(name = "subLocation", attributeNodes = @NamedAttributeNode(value = "location", subgraph = "location")),
+                        @NamedSubgraph(name = "location", attributeNodes = @NamedAttributeNode(value = "subCounty", subgraph = "subCounty")),
+                        @NamedSubgraph(name = "subCounty", attributeNodes = @NamedAttributeNode("county"))
+                }),
+        @NamedEntityGraph(name = "Applicant.detail",
+                attributeNodes = {
+                        @NamedAttributeNode("sex"),
+                        @NamedAttributeNode("maritalStatus"),
+                        @NamedAttributeNode(value = "village", subgraph = "village")
+                },
+                subgraphs = {
+                        @NamedSubgraph(name = "village", attributeNodes = @NamedAttributeNode(value = "subLocation", subgraph = "subLocation")),
+                        @NamedSubgraph(name = "subLocation", attributeNodes = @NamedAttributeNode(value = "location", subgraph = "location")),
+                        @NamedSubgraph(name = "location", attributeNodes = @NamedAttributeNode(value = "subCounty", subgraph = "subCounty")),
+                        @NamedSubgraph(name = "subCounty", attributeNodes = @NamedAttributeNode("county"))
+                })
+})
 public class Applicant {
 
     @Id
@@ -23,24 +49,37 @@ public class Applicant {
     @Column(name = "last_name", nullable = false, length = 50)
     private String lastName;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sex_id", nullable = false)
     private Parameter sex;
 
     @Column(nullable = false)
     private Integer age;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "marital_status_id", nullable = false)
     private Parameter maritalStatus;
 
     @Column(name = "id_number", nullable = false, length = 20, unique = true)
     private String idNumber;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "village_id", nullable = false)
     private Village village;
 
+    // Ancestors of the village, copied on every write so location filters need no joins
+    @Column(name = "sub_location_id")
+    private Integer subLocationId;
+
+    @Column(name = "location_id")
+    private Integer locationId;
+
+    @Column(name = "sub_county_id")
+    private Integer subCountyId;
+
+    @Column(name = "county_id")
+    private Integer countyId;
+
     @Column(name = "postal_address", length = 255)
     private String postalAddress;
 
@@ -56,6 +95,11 @@ public class Applicant {
     @Column(name = "image_path", length = 255)
     private String imagePath;
 
+    // Optimistic lock; bulk verification, the location backfill, verify_applicant and confirm_maker_checker bump it in SQL
+    @Version
+    @Column(nullable = false, columnDefinition = "INTEGER NOT NULL DEFAULT 0")
+    private Integer version;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
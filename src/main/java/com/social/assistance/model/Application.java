@@ -1,5 +1,6 @@
 package com.social.assistance.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 
 import javax.persistence.*;
@@ -9,17 +10,53 @@ import java.time.LocalDateTime;
 @Data
 @Entity
 @Table(name = "applications")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+// All associations are lazy; read paths pick one of these graphs, and the export fetch-joins the
+// applicant and programme itself. Users and parameters repeat across rows, so list pages
+// batch-load them instead of joining them into every row.
+@NamedEntityGraphs({
+        @NamedEntityGraph(name = "Application.list",
+                attributeNodes = {
+                        @NamedAttributeNode(value = "applicant", subgraph = "applicant"),
+                        @NamedAttributeNode("programme")
+                },
+                subgraphs = {
+                        @NamedSubgraph(name = "applicant", attributeNodes = @NamedAttributeNode(value = "village", subgraph = "village")),
+                        @NamedSubgraph(name = "village", attributeNodes = @NamedAttributeNode(value = "subLocation", subgraph = "subLocation")),
+                        @NamedSubgraph(name = "subLocation", attributeNodes = @NamedAttributeNode(value = "location", subgraph = "location")),
+                        @NamedSubgraph(name = "location", attributeNodes = @NamedAttributeNode(value = "subCounty", subgraph = "subCounty")),
+                        @NamedSubgraph(name = "subCounty", attributeNodes = @NamedAttributeNode("county"))
+                }),
+        @NamedEntityGraph(name = "Application.detail",
+                attributeNodes = {
+                        @NamedAttributeNode(value = "applicant", subgraph = "applicant"),
+                        @NamedAttributeNode("programme"),
+                        @NamedAttributeNode("maker"),
+                        @NamedAttributeNode("checker")
+                },
+                subgraphs = {
+                        @NamedSubgraph(name = "applicant", attributeNodes = {
+                                @NamedAttributeNode("sex"),
+                                @NamedAttributeNode("maritalStatus"),
+                                @NamedAttributeNode(value = "village", subgraph = "village")
+                        }),
+                        @NamedSubgraph(name = "village", attributeNodes = @NamedAttributeNode(value = "subLocation", subgraph = "subLocation")),
+                        @NamedSubgraph(name = "subLocation", attributeNodes = @NamedAttributeNode(value = "location", subgraph = "location")),
+                        @NamedSubgraph(name = "location", attributeNodes = @NamedAttributeNode(value = "subCounty", subgraph = "subCounty")),
+                        @NamedSubgraph(name = "subCounty", attributeNodes = @NamedAttributeNode("county"))
+                })
+})
 public class Application {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "applicant_id", nullable = false)
     private Applicant applicant;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "programme_id", nullable = false)
     private Programme programme;
 
@@ -29,17 +66,22 @@ public class Application {
     @Column(nullable = false, length = 20)
     private String status = "Pending";
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "maker_id")
     private User maker;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "checker_id")
     private User checker;
 
     @Column(nullable = false)
     private Boolean approved = false;
 
+    // Optimistic lock; bulk decisions, approve_application and confirm_maker_checker bump it in SQL
+    @Version
+    @Column(nullable = false, columnDefinition = "INTEGER NOT NULL DEFAULT 0")
+    private Integer version;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -34,9 +34,25 @@ public class MakerCheckerLog {
     @JoinColumn(name = "checker_id")
     private User checker;
 
+    // Reviewer currently working on this proposal, until claim_expires_at
+    @Column(name = "claimed_by", length = 50)
+    private String claimedBy;
+
+    @Column(name = "claim_expires_at")
+    private LocalDateTime claimExpiresAt;
+
+    // Optimistic lock; claiming, releasing and confirming the log bump it in SQL
+    @Version
+    @Column(nullable = false, columnDefinition = "INTEGER NOT NULL DEFAULT 0")
+    private Integer version;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public boolean isClaimedByOther(String username, LocalDateTime now) {
+        return claimedBy != null && !claimedBy.equals(username) && claimExpiresAt != null && claimExpiresAt.isAfter(now);
+    }
 }
@@ -0,0 +1,39 @@
+package com.social.assistance.model;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    // SHA-256 of the opaque token handed to the client; the token itself is never stored
+    @Column(name = "token_hash", nullable = false, length = 64, unique = true)
+    private String tokenHash;
+
+    // Shared by every token descended from one login, so reuse of a rotated token can end them all
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    @Column(nullable = false, length = 50)
+    private String username;
+
+    @Column(name = "token_version", nullable = false)
+    private Integer tokenVersion;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+}
@@ -1,5 +1,7 @@
 package com.social.assistance.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
 import javax.persistence.*;
@@ -8,6 +10,7 @@ import java.time.LocalDateTime;
 @Data
 @Entity
 @Table(name = "users")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class User {
 
     @Id
@@ -17,6 +20,8 @@ public class User {
     @Column(nullable = false, length = 50, unique = true)
     private String username;
 
+    // BCrypt hash; never written to responses (maker/checker appear on application details)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(nullable = false, length = 255)
     private String password;
 
@@ -29,6 +34,10 @@ public class User {
     @Column(nullable = false)
     private Boolean enabled = true;
 
+    // Bumped whenever existing tokens must stop being accepted (password change, disable)
+    @Column(name = "token_version", nullable = false, columnDefinition = "INTEGER NOT NULL DEFAULT 0")
+    private Integer tokenVersion = 0;
+
     @Column(length = 100, unique = true)
     private String email;
 
@@ -1,12 +1,25 @@
 package com.social.assistance.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
 @Data
 @Entity
 @Table(name = "villages")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
+@NamedEntityGraph(name = "Village.withParents",
+        attributeNodes = @NamedAttributeNode(value = "subLocation", subgraph = "subLocation"),
+        subgraphs = {
+                @NamedSubgraph(name = "subLocation", attributeNodes = @NamedAttributeNode(value = "location", subgraph = "location")),
+                @NamedSubgraph(name = "location", attributeNodes = @NamedAttributeNode(value = "subCounty", subgraph = "subCounty")),
+                @NamedSubgraph(name = "subCounty", attributeNodes = @NamedAttributeNode("county"))
+        })
 public class Village {
 
     @Id
@@ -16,7 +29,7 @@ public class Village {
     @Column(nullable = false, length = 100)
     private String name;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sub_location_id", nullable = false)
     private SubLocation subLocation;
 }
@@ -3,35 +3,91 @@ package com.social.assistance.repository;
 import com.social.assistance.model.Applicant;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
+import javax.persistence.QueryHint;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface ApplicantRepository extends JpaRepository<Applicant, Integer> {
+public interface ApplicantRepository extends JpaRepository<Applicant, Integer>, JpaSpecificationExecutor<Applicant>,
+        ApplicantRepositoryCustom {
+
+    @Override
+    @EntityGraph("Applicant.list")
+    Page<Applicant> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph("Applicant.list")
+    Page<Applicant> findAll(Specification<Applicant> spec, Pageable pageable);
+
+    @EntityGraph("Applicant.detail")
+    Optional<Applicant> findWithDetailsById(Integer id);
 
     boolean existsByIdNumber(String idNumber);
 
+    Optional<Applicant> findByIdNumber(String idNumber);
+
+    @Query("SELECT a.id, a.firstName, a.middleName, a.lastName, a.idNumber FROM Applicant a")
+    List<Object[]> findSearchIndexRows();
+
+    @Query("SELECT a.id, a.firstName, a.middleName, a.lastName, a.age, a.village.id, a.idNumber FROM Applicant a " +
+           "WHERE a.village.id = :villageId AND a.age BETWEEN :minAge AND :maxAge")
+    List<Object[]> findDeduplicationRows(@Param("villageId") Integer villageId,
+                                         @Param("minAge") Integer minAge,
+                                         @Param("maxAge") Integer maxAge);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.id, a.firstName, a.middleName, a.lastName, a.age, a.village.id, a.idNumber FROM Applicant a " +
+           "ORDER BY a.village.id, a.id")
+    Stream<Object[]> streamDeduplicationRows();
+
+    @EntityGraph("Applicant.list")
     @Query("SELECT a FROM Applicant a WHERE LOWER(a.firstName) LIKE LOWER(CONCAT('%', :name, '%')) OR LOWER(a.lastName) LIKE LOWER(CONCAT('%', :name, '%'))")
     Page<Applicant> findByNameContaining(String name, Pageable pageable);
 
-    Page<Applicant> findByVerificationStatus(String verificationStatus, Pageable pageable);
+    long countByVerificationStatus(String verificationStatus);
+
+    long countByVillageId(Integer villageId);
+
+    /**
+     * Lowest id from {@code fromId} on of an applicant whose location columns are not filled,
+     * or null if there is none.
+     */
+    @Query(value = "SELECT MIN(id) FROM applicants WHERE county_id IS NULL AND id >= :fromId", nativeQuery = true)
+    Integer findFirstIdMissingLocation(@Param("fromId") int fromId);
 
-    Page<Applicant> findByVillageId(Integer villageId, Pageable pageable);
+    /**
+     * Fill the denormalized location columns of the applicants with ids from {@code fromId} to
+     * {@code toId} that were written before the columns existed or by plain SQL. Bumps the
+     * version like the other bulk updates.
+     */
+    @Modifying
+    @Query(value = "UPDATE applicants SET " +
+            "sub_location_id = (SELECT v.sub_location_id FROM villages v WHERE v.id = applicants.village_id), " +
+            "location_id = (SELECT sl.location_id FROM villages v " +
+            "    JOIN sub_locations sl ON sl.id = v.sub_location_id WHERE v.id = applicants.village_id), " +
+            "sub_county_id = (SELECT l.sub_county_id FROM villages v " +
+            "    JOIN sub_locations sl ON sl.id = v.sub_location_id " +
+            "    JOIN locations l ON l.id = sl.location_id WHERE v.id = applicants.village_id), " +
+            "county_id = (SELECT sc.county_id FROM villages v " +
+            "    JOIN sub_locations sl ON sl.id = v.sub_location_id " +
+            "    JOIN locations l ON l.id = sl.location_id " +
+            "    JOIN sub_counties sc ON sc.id = l.sub_county_id WHERE v.id = applicants.village_id), " +
+            "version = version + 1 " +
+            "WHERE county_id IS NULL AND id BETWEEN :fromId AND :toId", nativeQuery = true)
+    int fillMissingLocations(@Param("fromId") int fromId, @Param("toId") int toId);
 
     Optional<Applicant> findByFirstNameAndLastNameAndMiddleName(String firstName, String lastName, String middleName);
-    
-    @Query("SELECT a FROM Applicant a LEFT JOIN Application app ON a.id = app.applicant.id " +
-       "WHERE (:name IS NULL OR CONCAT(a.firstName, ' ', a.middleName, ' ', a.lastName) LIKE %:name%) " +
-       "AND (:idNumber IS NULL OR a.idNumber = :idNumber) " +
-       "AND (:dateApplied IS NULL OR app.applicationDate = :dateApplied)")
-Page<Applicant> findByFilters(
-    @Param("name") String name,
-    @Param("idNumber") String idNumber,
-    @Param("dateApplied") LocalDate dateApplied,
-    Pageable pageable);
 }
@@ -0,0 +1,36 @@
+package com.social.assistance.repository;
+
+import com.social.assistance.dto.ApplicantSummary;
+import com.social.assistance.dto.FieldSet;
+import com.social.assistance.model.Applicant;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ApplicantRepositoryCustom {
+
+    /**
+     * Applicants matching {@code spec} as flat {@link ApplicantSummary} rows, read with one
+     * projection query (plus a count query when the total is not evident from the page). Only the
+     * columns in {@code fields} are selected; the other properties are left null.
+     */
+    Page<ApplicantSummary> findSummaries(Specification<Applicant> spec, Pageable pageable, FieldSet fields);
+
+    /**
+     * Like {@link #findSummaries} but without the count query: one extra row is fetched to decide
+     * whether there is a next slice.
+     */
+    Slice<ApplicantSummary> findSummarySlice(Specification<Applicant> spec, Pageable pageable, FieldSet fields);
+
+    /**
+     * Verify (or propose verification of) all given applicants with one statement per step,
+     * whatever the number of ids: lock the eligible rows, update them, and under maker-checker
+     * insert all their logs. Applicants already verified or with an open proposal are left alone.
+     * @return Ids that were actually updated
+     */
+    List<Integer> verifyAll(Collection<Integer> ids, Integer userId, boolean useMakerChecker);
+}
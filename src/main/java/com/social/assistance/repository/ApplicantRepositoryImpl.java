@@ -0,0 +1,103 @@
+package com.social.assistance.repository;
+
+import com.social.assistance.dto.ApplicantSummary;
+import com.social.assistance.dto.FieldSet;
+import com.social.assistance.model.Applicant;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+class ApplicantRepositoryImpl implements ApplicantRepositoryCustom {
+
+    // Applicants with an open proposal are left for the checker; locked in id order so
+    // concurrent batches cannot interleave and propose the same applicant twice
+    private static final String LOCK_VERIFIABLE = "SELECT a.id FROM applicants a" +
+            " WHERE a.id = ANY(?) AND a.verification_status NOT IN ('Verified', 'Proposed')" +
+            " AND NOT EXISTS (SELECT 1 FROM maker_checker_logs l" +
+            "  WHERE l.entity_type = 'Applicant' AND l.entity_id = a.id AND l.status = 'Proposed')" +
+            " ORDER BY a.id FOR UPDATE";
+
+    private static final String SET_VERIFICATION_STATUS = "UPDATE applicants" +
+            " SET verification_status = ?, version = version + 1, updated_at = ? WHERE id = ANY(?)";
+
+    private static final String PROPOSE_VERIFICATION = "INSERT INTO maker_checker_logs" +
+            " (entity_type, entity_id, action, status, maker_id, created_at, updated_at)" +
+            " SELECT 'Applicant', id, 'Verify', 'Proposed', ?, ?, ? FROM applicants WHERE id = ANY(?)";
+
+    private static final CriteriaProjection<Applicant, ApplicantSummary> SUMMARY =
+            CriteriaProjection.of(Applicant.class, ApplicantSummary::new)
+                    .column("id", "id", ApplicantSummary::setId)
+                    .column("firstName", "firstName", ApplicantSummary::setFirstName)
+                    .column("middleName", "middleName", ApplicantSummary::setMiddleName)
+                    .column("lastName", "lastName", ApplicantSummary::setLastName)
+                    .column("idNumber", "idNumber", ApplicantSummary::setIdNumber)
+                    .column("age", "age", ApplicantSummary::setAge)
+                    .column("sex", "sex.value", ApplicantSummary::setSex)
+                    .column("maritalStatus", "maritalStatus.value", ApplicantSummary::setMaritalStatus)
+                    .column("villageId", "village.id", ApplicantSummary::setVillageId)
+                    .column("villageName", "village.name", ApplicantSummary::setVillageName)
+                    .column("telephone", "telephone", ApplicantSummary::setTelephone)
+                    .column("verificationStatus", "verificationStatus", ApplicantSummary::setVerificationStatus)
+                    .column("version", "version", ApplicantSummary::setVersion);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ApplicantRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Page<ApplicantSummary> findSummaries(Specification<Applicant> spec, Pageable pageable, FieldSet fields) {
+        return SUMMARY.page(entityManager, spec, pageable, fields);
+    }
+
+    @Override
+    public Slice<ApplicantSummary> findSummarySlice(Specification<Applicant> spec, Pageable pageable, FieldSet fields) {
+        return SUMMARY.slice(entityManager, spec, pageable, fields);
+    }
+
+    @Override
+    public List<Integer> verifyAll(Collection<Integer> ids, Integer userId, boolean useMakerChecker) {
+        List<Integer> verifiable = jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(LOCK_VERIFIABLE);
+            ps.setArray(1, connection.createArrayOf("integer", ids.toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getInt(1));
+        if (verifiable.isEmpty()) {
+            return verifiable;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SET_VERIFICATION_STATUS);
+            ps.setString(1, useMakerChecker ? "Proposed" : "Verified");
+            ps.setTimestamp(2, now);
+            ps.setArray(3, connection.createArrayOf("integer", verifiable.toArray()));
+            return ps;
+        });
+        if (useMakerChecker) {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(PROPOSE_VERIFICATION);
+                ps.setInt(1, userId);
+                ps.setTimestamp(2, now);
+                ps.setTimestamp(3, now);
+                ps.setArray(4, connection.createArrayOf("integer", verifiable.toArray()));
+                return ps;
+            });
+        }
+        return verifiable;
+    }
+}
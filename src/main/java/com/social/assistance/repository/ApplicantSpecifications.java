@@ -0,0 +1,82 @@
+package com.social.assistance.repository;
+
+import com.social.assistance.model.Applicant;
+import com.social.assistance.model.Application;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Composable filters for applicant search. {@link #matching} only adds a clause for each filter
+ * that is present, and the date filter is an {@code EXISTS} subquery so an applicant with several
+ * applications is returned once.
+ */
+public final class ApplicantSpecifications {
+
+    private ApplicantSpecifications() {
+    }
+
+    public static Specification<Applicant> matching(String name, String idNumber, LocalDate dateApplied) {
+        Specification<Applicant> spec = Specification.where(null);
+        if (name != null && !name.trim().isEmpty()) {
+            for (String token : name.trim().split("\\s+")) {
+                spec = spec.and(nameContains(token));
+            }
+        }
+        if (idNumber != null && !idNumber.trim().isEmpty()) {
+            spec = spec.and(hasIdNumber(idNumber.trim()));
+        }
+        if (dateApplied != null) {
+            spec = spec.and(appliedOn(dateApplied));
+        }
+        return spec;
+    }
+
+    /**
+     * Case-insensitive substring match against the first, middle or last name.
+     */
+    public static Specification<Applicant> nameContains(String token) {
+        String pattern = "%" + escapeLike(token.toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("firstName")), pattern, '\\'),
+                cb.like(cb.lower(root.get("middleName")), pattern, '\\'),
+                cb.like(cb.lower(root.get("lastName")), pattern, '\\'));
+    }
+
+    public static Specification<Applicant> hasIdNumber(String idNumber) {
+        return (root, query, cb) -> cb.equal(root.get("idNumber"), idNumber);
+    }
+
+    public static Specification<Applicant> hasVerificationStatus(String status) {
+        return (root, query, cb) -> cb.equal(root.get("verificationStatus"), status);
+    }
+
+    public static Specification<Applicant> inVillage(Integer villageId) {
+        return (root, query, cb) -> cb.equal(root.get("village").get("id"), villageId);
+    }
+
+    /**
+     * Seek predicate for keyset pagination by id.
+     */
+    public static Specification<Applicant> idAfter(int id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    public static Specification<Applicant> appliedOn(LocalDate date) {
+        return (root, query, cb) -> {
+            Subquery<Integer> applications = query.subquery(Integer.class);
+            Root<Application> application = applications.from(Application.class);
+            applications.select(application.get("id"))
+                    .where(cb.equal(application.get("applicant"), root),
+                            cb.equal(application.get("applicationDate"), date));
+            return cb.exists(applications);
+        };
+    }
+
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,27 +1,62 @@
 package com.social.assistance.repository;
 
 import com.social.assistance.model.Application;
+import com.social.assistance.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ApplicationRepository extends JpaRepository<Application, Integer> {
+public interface ApplicationRepository extends JpaRepository<Application, Integer>, ApplicationRepositoryCustom {
 
-    Page<Application> findByApplicantId(Integer applicantId, Pageable pageable);
+    @Override
+    @EntityGraph("Application.list")
+    Page<Application> findAll(Pageable pageable);
 
-    Page<Application> findByStatus(String status, Pageable pageable);
+    @EntityGraph("Application.detail")
+    Optional<Application> findWithDetailsById(Integer id);
 
-    @Query("SELECT a FROM Application a WHERE a.applicant.id = :applicantId AND a.status = :status")
-    Page<Application> findByApplicantIdAndStatus(Integer applicantId, String status, Pageable pageable);
+    // Both probes are answered from the UNIQUE (applicant_id, programme_id) index
+    boolean existsByApplicantIdAndProgrammeId(Integer applicantId, Integer programmeId);
 
-    Page<Application> findByProgrammeId(Integer programmeId, Pageable pageable);
+    boolean existsByApplicantIdAndProgrammeIdAndIdNot(Integer applicantId, Integer programmeId, Integer id);
+
+    long countByApplicantId(Integer applicantId);
+
+    long countByStatus(String status);
+
+    long countByApplicantIdAndStatus(Integer applicantId, String status);
+
+    long countByProgrammeId(Integer programmeId);
+
+    /**
+     * Id, status and applicant verification status of each application, locked until the end of
+     * the transaction so a bulk decision sees the same states it then updates.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a.id, a.status, ap.verificationStatus FROM Application a JOIN a.applicant ap WHERE a.id IN :ids")
+    List<Object[]> findDecisionStates(@Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Query("UPDATE Application a SET a.status = :status, a.updatedAt = :now, a.version = a.version + 1 WHERE a.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Integer> ids, @Param("status") String status, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Application a SET a.status = 'Proposed', a.maker = :maker, a.updatedAt = :now, a.version = a.version + 1 " +
+           "WHERE a.id IN :ids")
+    int propose(@Param("ids") Collection<Integer> ids, @Param("maker") User maker, @Param("now") LocalDateTime now);
 
     @Query("SELECT COUNT(a) as total, " +
            "SUM(CASE WHEN a.status = 'Approved' THEN 1 ELSE 0 END) as approved, " +
@@ -31,32 +66,4 @@ public interface ApplicationRepository extends JpaRepository<Application, Intege
            "FROM Application a JOIN a.programme p " +
            "GROUP BY p.id, p.name")
     List<Object[]> getApplicationStatsByProgramme();
-
-    @Query("SELECT a FROM Application a " +
-           "JOIN a.applicant ap " +
-           "JOIN ap.village v " +
-           "JOIN v.subLocation sl " +
-           "JOIN sl.location l " +
-           "JOIN l.subCounty sc " +
-           "JOIN sc.county c " +
-           "WHERE (:status IS NULL OR a.status = :status) " +
-           "AND a.applicationDate BETWEEN :startDate AND :endDate " +
-           "AND (:age IS NULL OR ap.age = :age) " +
-           "AND (:sexId IS NULL OR ap.sex.id = :sexId) " +
-           "AND (:maritalStatusId IS NULL OR ap.maritalStatus.id = :maritalStatusId) " +
-           "AND (:physicalLocationLevel = 'All' " +
-           "     OR (:physicalLocationLevel = 'village' AND v.id = :physicalLocationId) " +
-           "     OR (:physicalLocationLevel = 'subLocation' AND sl.id = :physicalLocationId) " +
-           "     OR (:physicalLocationLevel = 'Location' AND l.id = :physicalLocationId) " +
-           "     OR (:physicalLocationLevel = 'SubCounty' AND sc.id = :physicalLocationId) " +
-           "     OR (:physicalLocationLevel = 'County' AND c.id = :physicalLocationId))")
-    List<Application> findFilteredApplications(
-            @Param("status") String status,
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate,
-            @Param("age") Integer age,
-            @Param("sexId") Integer sexId,
-            @Param("maritalStatusId") Integer maritalStatusId,
-            @Param("physicalLocationLevel") String physicalLocationLevel,
-            @Param("physicalLocationId") Integer physicalLocationId);
 }
@@ -0,0 +1,33 @@
+package com.social.assistance.repository;
+
+import com.social.assistance.dto.ApplicationSummary;
+import com.social.assistance.dto.FieldSet;
+import com.social.assistance.model.Application;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ApplicationRepositoryCustom {
+
+    /**
+     * Applications matching {@code spec} as flat {@link ApplicationSummary} rows, read with one
+     * projection query (plus a count query when the total is not evident from the page). Only the
+     * columns in {@code fields} are selected; the other properties are left null.
+     */
+    Page<ApplicationSummary> findSummaries(Specification<Application> spec, Pageable pageable, FieldSet fields);
+
+    /**
+     * Like {@link #findSummaries} but without the count query: one extra row is fetched to decide
+     * whether there is a next slice.
+     */
+    Slice<ApplicationSummary> findSummarySlice(Specification<Application> spec, Pageable pageable, FieldSet fields);
+
+    /**
+     * Applications matching {@code spec} with the applicant and programme the export prints,
+     * read with one statement.
+     */
+    List<Application> findForExport(Specification<Application> spec);
+}
@@ -0,0 +1,73 @@
+package com.social.assistance.repository;
+
+import com.social.assistance.dto.ApplicationSummary;
+import com.social.assistance.dto.FieldSet;
+import com.social.assistance.model.Applicant;
+import com.social.assistance.model.Application;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+class ApplicationRepositoryImpl implements ApplicationRepositoryCustom {
+
+    private static final CriteriaProjection<Application, ApplicationSummary> SUMMARY =
+            CriteriaProjection.of(Application.class, ApplicationSummary::new)
+                    .column("id", "id", ApplicationSummary::setId)
+                    .column("applicantId", "applicant.id", ApplicationSummary::setApplicantId)
+                    .column("applicantName", ApplicationRepositoryImpl::applicantName, ApplicationSummary::setApplicantName)
+                    .column("applicantIdNumber", "applicant.idNumber", ApplicationSummary::setApplicantIdNumber)
+                    .column("programmeId", "programme.id", ApplicationSummary::setProgrammeId)
+                    .column("programmeName", "programme.name", ApplicationSummary::setProgrammeName)
+                    .column("villageName", "applicant.village.name", ApplicationSummary::setVillageName)
+                    .column("status", "status", ApplicationSummary::setStatus)
+                    .column("approved", "approved", ApplicationSummary::setApproved)
+                    .column("applicationDate", "applicationDate", ApplicationSummary::setApplicationDate)
+                    .column("version", "version", ApplicationSummary::setVersion);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ApplicationSummary> findSummaries(Specification<Application> spec, Pageable pageable, FieldSet fields) {
+        return SUMMARY.page(entityManager, spec, pageable, fields);
+    }
+
+    @Override
+    public Slice<ApplicationSummary> findSummarySlice(Specification<Application> spec, Pageable pageable, FieldSet fields) {
+        return SUMMARY.slice(entityManager, spec, pageable, fields);
+    }
+
+    @Override
+    public List<Application> findForExport(Specification<Application> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Application> query = cb.createQuery(Application.class);
+        Root<Application> root = query.from(Application.class);
+        // Only what the Excel/PDF rows print; applicant filters reuse this join
+        root.fetch("applicant");
+        root.fetch("programme");
+        query.select(root).where(spec.toPredicate(root, query, cb));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    /**
+     * "First Middle Last", or "First Last" without a middle name.
+     */
+    private static Expression<String> applicantName(Root<Application> application, CriteriaBuilder cb) {
+        Join<Application, Applicant> applicant = CriteriaProjection.leftJoin(application, "applicant");
+        Expression<String> middleName = applicant.get("middleName");
+        Expression<String> middle = cb.<String>selectCase()
+                .when(cb.isNull(middleName), " ")
+                .otherwise(cb.concat(cb.concat(" ", middleName), " "));
+        return cb.concat(cb.concat(applicant.get("firstName"), middle), applicant.get("lastName"));
+    }
+}
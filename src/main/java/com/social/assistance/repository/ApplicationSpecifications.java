@@ -0,0 +1,123 @@
+package com.social.assistance.repository;
+
+import com.social.assistance.dto.GeographyLevel;
+import com.social.assistance.model.Applicant;
+import com.social.assistance.model.Application;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Fetch;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import java.time.LocalDate;
+
+/**
+ * Filters for application listings and exports, combined with {@code and} so that each query
+ * only carries the clauses it needs. Values are bound as parameters, so every combination of
+ * filters renders one SQL text that the database prepares and plans once, against the index
+ * for the columns it actually filters on.
+ */
+public final class ApplicationSpecifications {
+
+    private ApplicationSpecifications() {
+    }
+
+    public static Specification<Application> hasStatus(String status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Application> forApplicant(Integer applicantId) {
+        return (root, query, cb) -> cb.equal(root.get("applicant").get("id"), applicantId);
+    }
+
+    public static Specification<Application> forProgramme(Integer programmeId) {
+        return (root, query, cb) -> cb.equal(root.get("programme").get("id"), programmeId);
+    }
+
+    /**
+     * Seek predicate for keyset pagination by id.
+     */
+    public static Specification<Application> idAfter(int id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    /**
+     * Export filter: applied between the two dates, plus one clause for each other filter that
+     * is present. A location is matched on the applicant's own column for its level.
+     */
+    public static Specification<Application> exported(LocalDate startDate, LocalDate endDate, String status,
+                                                      Integer age, Integer sexId, Integer maritalStatusId,
+                                                      GeographyLevel level, Integer locationId) {
+        Specification<Application> spec = Specification.where(appliedBetween(startDate, endDate));
+        if (status != null) {
+            spec = spec.and(hasStatus(status));
+        }
+        if (age != null) {
+            spec = spec.and(applicantAged(age));
+        }
+        if (sexId != null) {
+            spec = spec.and(applicantSex(sexId));
+        }
+        if (maritalStatusId != null) {
+            spec = spec.and(applicantMaritalStatus(maritalStatusId));
+        }
+        if (level != null) {
+            spec = spec.and(applicantIn(level, locationId));
+        }
+        return spec;
+    }
+
+    public static Specification<Application> appliedBetween(LocalDate startDate, LocalDate endDate) {
+        return (root, query, cb) -> cb.between(root.get("applicationDate"), startDate, endDate);
+    }
+
+    public static Specification<Application> applicantAged(Integer age) {
+        return (root, query, cb) -> cb.equal(applicant(root).get("age"), age);
+    }
+
+    public static Specification<Application> applicantSex(Integer sexId) {
+        return (root, query, cb) -> cb.equal(applicant(root).get("sex").get("id"), sexId);
+    }
+
+    public static Specification<Application> applicantMaritalStatus(Integer maritalStatusId) {
+        return (root, query, cb) -> cb.equal(applicant(root).get("maritalStatus").get("id"), maritalStatusId);
+    }
+
+    public static Specification<Application> applicantIn(GeographyLevel level, Integer locationId) {
+        return (root, query, cb) -> cb.equal(locationColumn(applicant(root), level), locationId);
+    }
+
+    /**
+     * The applicant join already on the query, such as the export's fetch join, or a new inner
+     * join, so several applicant filters share one join.
+     */
+    @SuppressWarnings("unchecked")
+    private static Join<Application, Applicant> applicant(Root<Application> root) {
+        for (Fetch<Application, ?> fetch : root.getFetches()) {
+            if (fetch.getAttribute().getName().equals("applicant") && fetch instanceof Join) {
+                return (Join<Application, Applicant>) fetch;
+            }
+        }
+        for (Join<Application, ?> join : root.getJoins()) {
+            if (join.getAttribute().getName().equals("applicant")) {
+                return (Join<Application, Applicant>) join;
+            }
+        }
+        return root.join("applicant");
+    }
+
+    private static Path<Integer> locationColumn(Path<Applicant> applicant, GeographyLevel level) {
+        switch (level) {
+            case COUNTY:
+                return applicant.get("countyId");
+            case SUB_COUNTY:
+                return applicant.get("subCountyId");
+            case LOCATION:
+                return applicant.get("locationId");
+            case SUB_LOCATION:
+                return applicant.get("subLocationId");
+            default:
+                return applicant.get("village").get("id");
+        }
+    }
+}
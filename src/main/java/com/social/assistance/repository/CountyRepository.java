@@ -2,11 +2,19 @@ package com.social.assistance.repository;
 
 import com.social.assistance.model.County;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CountyRepository extends JpaRepository<County, Integer> {
     Optional<County> findByName(String name);
+
+    /**
+     * Id and name of every row in name order, for building the {@code GeographyTree}.
+     */
+    @Query("SELECT c.id, c.name FROM County c ORDER BY c.name")
+    List<Object[]> findTreeRows();
 }
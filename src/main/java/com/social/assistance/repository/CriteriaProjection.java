@@ -0,0 +1,185 @@
+package com.social.assistance.repository;
+
+import com.social.assistance.dto.FieldSet;
+import com.social.assistance.exception.InvalidStateException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * A Criteria query that reads named columns into a flat row type, so list endpoints read only the
+ * columns they return instead of whole entity graphs. Callers may narrow the select list further
+ * with a {@link FieldSet}; associations are left-joined only when a selected column needs them,
+ * so the rows returned never depend on which columns were asked for. Filtering, sorting and
+ * paging follow the usual {@link Specification} and {@link Pageable} conventions of the derived
+ * repository methods.
+ */
+final class CriteriaProjection<E, R> {
+
+    private final Class<E> entityType;
+    private final Supplier<R> rowFactory;
+    private final Map<String, Column<E, R, ?>> columns = new LinkedHashMap<>();
+
+    private CriteriaProjection(Class<E> entityType, Supplier<R> rowFactory) {
+        this.entityType = entityType;
+        this.rowFactory = rowFactory;
+    }
+
+    static <E, R> CriteriaProjection<E, R> of(Class<E> entityType, Supplier<R> rowFactory) {
+        return new CriteriaProjection<>(entityType, rowFactory);
+    }
+
+    /**
+     * Column read from a dotted attribute path such as {@code applicant.village.name}; every
+     * association on the way is left-joined once per query.
+     */
+    @SuppressWarnings("unchecked")
+    <T> CriteriaProjection<E, R> column(String name, String attributePath, BiConsumer<R, T> setter) {
+        return column(name, (root, cb) -> (Expression<T>) path(root, attributePath), setter);
+    }
+
+    <T> CriteriaProjection<E, R> column(String name, BiFunction<Root<E>, CriteriaBuilder, Expression<T>> expression,
+                                        BiConsumer<R, T> setter) {
+        columns.put(name, new Column<>(expression, setter));
+        return this;
+    }
+
+    /**
+     * One page plus its total; the count query is skipped when the page itself shows the total.
+     */
+    Page<R> page(EntityManager entityManager, Specification<E> spec, Pageable pageable, FieldSet fields) {
+        List<R> content = query(entityManager, spec, pageable, fields, pageable.isPaged() ? pageable.getPageSize() : -1);
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(entityManager, spec));
+    }
+
+    /**
+     * One page without a count: one extra row is fetched to decide whether there is a next slice.
+     */
+    Slice<R> slice(EntityManager entityManager, Specification<E> spec, Pageable pageable, FieldSet fields) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query(entityManager, spec, pageable, fields, -1), pageable, false);
+        }
+        List<R> rows = query(entityManager, spec, pageable, fields, pageable.getPageSize() + 1);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    private List<R> query(EntityManager entityManager, Specification<E> spec, Pageable pageable, FieldSet fields,
+                          int maxResults) {
+        Map<String, Column<E, R, ?>> selected = select(fields);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entityType);
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        List<Selection<?>> selections = new ArrayList<>(selected.size());
+        selected.forEach((name, column) -> selections.add(column.expression.apply(root, cb).alias(name)));
+        query.multiselect(selections).orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (maxResults >= 0) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(maxResults);
+        }
+        List<Tuple> tuples = typedQuery.getResultList();
+        List<R> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            R row = rowFactory.get();
+            selected.forEach((name, column) -> column.set(row, tuple.get(name)));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private Map<String, Column<E, R, ?>> select(FieldSet fields) {
+        if (fields.isAll()) {
+            return columns;
+        }
+        Map<String, Column<E, R, ?>> selected = new LinkedHashMap<>();
+        for (String name : fields.names()) {
+            Column<E, R, ?> column = columns.get(name);
+            if (column == null) {
+                throw new InvalidStateException("Unknown field: " + name + " (expected any of " + String.join(", ", columns.keySet()) + ")");
+            }
+            selected.put(name, column);
+        }
+        return selected;
+    }
+
+    private long count(EntityManager entityManager, Specification<E> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<E> root = query.from(entityType);
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(cb.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Path<?> path(Root<?> root, String attributePath) {
+        String[] attributes = attributePath.split("\\.");
+        From<?, ?> from = root;
+        for (int i = 0; i < attributes.length - 1; i++) {
+            from = leftJoin(from, attributes[i]);
+        }
+        return from.get(attributes[attributes.length - 1]);
+    }
+
+    /**
+     * The left join of {@code attribute} already added by another column, or a new one.
+     */
+    static <X, Y> Join<X, Y> leftJoin(From<?, X> from, String attribute) {
+        for (Join<X, ?> join : from.getJoins()) {
+            if (join.getJoinType() == JoinType.LEFT && join.getAttribute().getName().equals(attribute)) {
+                @SuppressWarnings("unchecked")
+                Join<X, Y> existing = (Join<X, Y>) join;
+                return existing;
+            }
+        }
+        return from.join(attribute, JoinType.LEFT);
+    }
+
+    private static final class Column<E, R, T> {
+        private final BiFunction<Root<E>, CriteriaBuilder, Expression<T>> expression;
+        private final BiConsumer<R, T> setter;
+
+        private Column(BiFunction<Root<E>, CriteriaBuilder, Expression<T>> expression, BiConsumer<R, T> setter) {
+            this.expression = expression;
+            this.setter = setter;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void set(R row, Object value) {
+            setter.accept(row, (T) value);
+        }
+    }
+}
@@ -3,11 +3,19 @@ package com.social.assistance.repository;
 import com.social.assistance.model.Location;
 import com.social.assistance.model.SubCounty;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface LocationRepository extends JpaRepository<Location, Integer> {
     Optional<Location> findByNameAndSubCounty(String name, SubCounty subCounty);
+
+    /**
+     * Id, name and sub-county id of every row in name order, for building the {@code GeographyTree}.
+     */
+    @Query("SELECT l.id, l.name, l.subCounty.id FROM Location l ORDER BY l.name")
+    List<Object[]> findTreeRows();
 }
@@ -2,16 +2,32 @@ package com.social.assistance.repository;
 
 import com.social.assistance.model.MakerCheckerLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface MakerCheckerLogRepository extends JpaRepository<MakerCheckerLog, Integer> {
+public interface MakerCheckerLogRepository extends JpaRepository<MakerCheckerLog, Integer>, MakerCheckerLogRepositoryCustom {
 
     List<MakerCheckerLog> findByEntityTypeAndEntityId(String entityType, Integer entityId);
 
     List<MakerCheckerLog> findByMakerId(Integer makerId);
     
     List<MakerCheckerLog> findByStatus(String status);
+
+    // Locked so that two checkers deciding the same log are serialized and the second sees the first's outcome
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM MakerCheckerLog l WHERE l.id = :id")
+    Optional<MakerCheckerLog> findWithLockById(@Param("id") Integer id);
+
+    @Modifying
+    @Query("UPDATE MakerCheckerLog l SET l.claimedBy = NULL, l.claimExpiresAt = NULL, l.version = l.version + 1 " +
+           "WHERE l.id = :id AND l.claimedBy = :username AND l.status = 'Proposed'")
+    int releaseClaim(@Param("id") Integer id, @Param("username") String username);
 }
@@ -0,0 +1,33 @@
+package com.social.assistance.repository;
+
+import com.social.assistance.dto.PendingLogView;
+import com.social.assistance.model.MakerCheckerLog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface MakerCheckerLogRepositoryCustom {
+
+    /**
+     * Insert the logs in a single JDBC batch. Hibernate cannot batch these inserts because the
+     * ids are database-generated; the ids of the given objects are left unset.
+     */
+    void insertBatch(List<MakerCheckerLog> logs);
+
+    /**
+     * Proposed logs with an id above {@code afterId}, in id order, optionally narrowed to one
+     * entity type and/or maker. Only the filters that are given end up in the query, so each
+     * combination can use its partial index on {@code status = 'Proposed'}.
+     */
+    Slice<PendingLogView> findPending(String entityType, String makerUsername, int afterId, Pageable pageable);
+
+    /**
+     * Claim up to {@code limit} unclaimed (or lease-expired) proposals for {@code username} until
+     * {@code expiresAt}, oldest first. Rows locked by a concurrent claim are skipped rather than
+     * waited for, so concurrent reviewers always get disjoint sets. The reviewer's own proposals
+     * are never handed out.
+     */
+    List<PendingLogView> claimPending(String username, String entityType, int limit, LocalDateTime now, LocalDateTime expiresAt);
+}
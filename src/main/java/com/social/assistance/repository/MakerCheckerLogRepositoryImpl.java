@@ -0,0 +1,104 @@
+package com.social.assistance.repository;
+
+import com.social.assistance.dto.PendingLogView;
+import com.social.assistance.model.MakerCheckerLog;
+import com.social.assistance.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+class MakerCheckerLogRepositoryImpl implements MakerCheckerLogRepositoryCustom {
+
+    private static final String INSERT = "INSERT INTO maker_checker_logs " +
+            "(entity_type, entity_id, action, status, maker_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String CLAIM = "WITH claimed AS (" +
+            " UPDATE maker_checker_logs SET claimed_by = ?, claim_expires_at = ?, version = version + 1" +
+            " WHERE id IN (" +
+            "  SELECT l.id FROM maker_checker_logs l" +
+            "  WHERE l.status = 'Proposed' AND (l.claim_expires_at IS NULL OR l.claim_expires_at < ?)" +
+            "  AND l.maker_id NOT IN (SELECT u.id FROM users u WHERE u.username = ?)%s" +
+            "  ORDER BY l.id LIMIT ? FOR UPDATE SKIP LOCKED)" +
+            " RETURNING id, entity_type, entity_id, action, maker_id, created_at)" +
+            " SELECT c.id, c.entity_type, c.entity_id, c.action, c.maker_id, u.username, c.created_at" +
+            " FROM claimed c JOIN users u ON u.id = c.maker_id ORDER BY c.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    MakerCheckerLogRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertBatch(List<MakerCheckerLog> logs) {
+        jdbcTemplate.batchUpdate(INSERT, logs, logs.size(), (ps, log) -> {
+            ps.setString(1, log.getEntityType());
+            ps.setInt(2, log.getEntityId());
+            ps.setString(3, log.getAction());
+            ps.setString(4, log.getStatus());
+            ps.setInt(5, log.getMaker().getId());
+            ps.setTimestamp(6, Timestamp.valueOf(log.getCreatedAt()));
+            ps.setTimestamp(7, Timestamp.valueOf(log.getUpdatedAt()));
+        });
+    }
+
+    @Override
+    public List<PendingLogView> claimPending(String username, String entityType, int limit, LocalDateTime now, LocalDateTime expiresAt) {
+        List<Object> args = new ArrayList<>();
+        args.add(username);
+        args.add(Timestamp.valueOf(expiresAt));
+        args.add(Timestamp.valueOf(now));
+        args.add(username);
+        if (entityType != null) {
+            args.add(entityType);
+        }
+        args.add(limit);
+        String sql = String.format(CLAIM, entityType != null ? " AND l.entity_type = ?" : "");
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new PendingLogView(rs.getInt(1), rs.getString(2), rs.getInt(3),
+                rs.getString(4), rs.getInt(5), rs.getString(6), rs.getTimestamp(7).toLocalDateTime()), args.toArray());
+    }
+
+    @Override
+    public Slice<PendingLogView> findPending(String entityType, String makerUsername, int afterId, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PendingLogView> query = cb.createQuery(PendingLogView.class);
+        Root<MakerCheckerLog> log = query.from(MakerCheckerLog.class);
+        Join<MakerCheckerLog, User> maker = log.join("maker");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(log.get("status"), "Proposed"));
+        predicates.add(cb.greaterThan(log.get("id"), afterId));
+        if (entityType != null) {
+            predicates.add(cb.equal(log.get("entityType"), entityType));
+        }
+        if (makerUsername != null) {
+            predicates.add(cb.equal(maker.get("username"), makerUsername));
+        }
+        query.select(cb.construct(PendingLogView.class, log.get("id"), log.get("entityType"), log.get("entityId"),
+                        log.get("action"), maker.get("id"), maker.get("username"), log.get("createdAt")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(log.get("id")));
+
+        List<PendingLogView> rows = entityManager.createQuery(query)
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+}
@@ -3,14 +3,25 @@ package com.social.assistance.repository;
 import com.social.assistance.model.Parameter;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
 
 @Repository
 public interface ParameterRepository extends JpaRepository<Parameter, Integer> {
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Page<Parameter> findByCategory(String category, Pageable pageable);
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    Slice<Parameter> findSliceByCategory(String category, Pageable pageable);
+
+    long countByCategory(String category);
+
     boolean existsByCategoryAndValue(String category, String value);
 }
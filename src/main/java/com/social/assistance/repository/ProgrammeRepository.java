@@ -2,14 +2,19 @@ package com.social.assistance.repository;
 
 import com.social.assistance.model.Programme;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @Repository
 public interface ProgrammeRepository extends JpaRepository<Programme, Integer> {
 
     boolean existsByName(String name);
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<Programme> findByName(String name);
 }
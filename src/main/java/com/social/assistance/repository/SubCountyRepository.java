@@ -3,11 +3,19 @@ package com.social.assistance.repository;
 import com.social.assistance.model.SubCounty;
 import com.social.assistance.model.County;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SubCountyRepository extends JpaRepository<SubCounty, Integer> {
     Optional<SubCounty> findByNameAndCounty(String name, County county);
+
+    /**
+     * Id, name and county id of every row in name order, for building the {@code GeographyTree}.
+     */
+    @Query("SELECT sc.id, sc.name, sc.county.id FROM SubCounty sc ORDER BY sc.name")
+    List<Object[]> findTreeRows();
 }
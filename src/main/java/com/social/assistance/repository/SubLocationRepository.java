@@ -3,11 +3,19 @@ package com.social.assistance.repository;
 import com.social.assistance.model.SubLocation;
 import com.social.assistance.model.Location;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SubLocationRepository extends JpaRepository<SubLocation, Integer> {
     Optional<SubLocation> findByNameAndLocation(String name, Location location);
+
+    /**
+     * Id, name and location id of every row in name order, for building the {@code GeographyTree}.
+     */
+    @Query("SELECT sl.id, sl.name, sl.location.id FROM SubLocation sl ORDER BY sl.name")
+    List<Object[]> findTreeRows();
 }
@@ -2,7 +2,12 @@ package com.social.assistance.repository;
 
 import com.social.assistance.model.SubLocation;
 import com.social.assistance.model.Village;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,9 +17,27 @@ import java.util.Optional;
 @Repository
 public interface VillageRepository extends JpaRepository<Village, Integer> {
 
+    @Override
+    @EntityGraph("Village.withParents")
+    Page<Village> findAll(Pageable pageable);
+
+    @EntityGraph("Village.withParents")
     List<Village> findBySubLocationId(Integer subLocationId);
 
     boolean existsByNameAndSubLocationId(String name, Integer subLocationId);
     
     Optional<Village> findByNameAndSubLocation(String name, SubLocation subLocation);
+
+    @EntityGraph("Village.withParents")
+    Slice<Village> findByIdGreaterThan(Integer id, Pageable pageable);
+
+    @EntityGraph("Village.withParents")
+    @Query("SELECT v FROM Village v")
+    Slice<Village> findSliceBy(Pageable pageable);
+
+    /**
+     * Id, name and sub-location id of every row in name order, for building the {@code GeographyTree}.
+     */
+    @Query("SELECT v.id, v.name, v.subLocation.id FROM Village v ORDER BY v.name")
+    List<Object[]> findTreeRows();
 }
@@ -0,0 +1,56 @@
+package com.social.assistance.service;
+
+import com.social.assistance.repository.ApplicantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fills the location columns of applicants that predate them, one id range per transaction so a
+ * large backlog neither runs as one long transaction nor locks every applicant at once. Ranges
+ * start at the next applicant still missing them, so once every row has them startup costs a
+ * single index lookup.
+ */
+@Component
+public class ApplicantLocationBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApplicantLocationBackfill.class);
+
+    private final ApplicantRepository applicantRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ApplicantLocationBackfill(ApplicantRepository applicantRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${location-backfill.batch-size:10000}") int batchSize) {
+        this.applicantRepository = applicantRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return number of applicants filled
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int fillMissingLocations() {
+        int filled = 0;
+        Integer fromId = applicantRepository.findFirstIdMissingLocation(0);
+        while (fromId != null) {
+            int from = fromId;
+            int to = (int) Math.min((long) from + batchSize - 1, Integer.MAX_VALUE);
+            Integer batch = transactionTemplate.execute(status -> applicantRepository.fillMissingLocations(from, to));
+            filled += batch == null ? 0 : batch;
+            // Continue after the range even if a row in it stayed unfilled, e.g. for a broken village
+            fromId = to == Integer.MAX_VALUE ? null : applicantRepository.findFirstIdMissingLocation(to + 1);
+        }
+        if (filled > 0) {
+            logger.info("Filled location columns of {} applicants", filled);
+        }
+        return filled;
+    }
+}
@@ -0,0 +1,440 @@
+package com.social.assistance.service;
+
+import com.social.assistance.dto.ApplicantSuggestion;
+import com.social.assistance.model.Applicant;
+import com.social.assistance.repository.ApplicantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over applicant names and ID numbers, used to serve typeahead
+ * lookups without a database round trip.
+ * <p>
+ * Every indexed applicant occupies a slot in a set of parallel arrays. Each token is padded
+ * with two boundary markers before being split into trigrams, so a query token matches any
+ * indexed token it is a prefix of. Postings are sorted int arrays of slots; a lookup is an
+ * intersection of the postings of every query trigram followed by a prefix check on the
+ * surviving slots. Updates and deletes tombstone the old slot, and the arrays are compacted
+ * once tombstones outnumber live entries.
+ */
+@Component
+public class ApplicantSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApplicantSearchIndex.class);
+
+    private static final char BOUNDARY = '^';
+    private static final int MIN_QUERY_LENGTH = 2;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int COMPACTION_THRESHOLD = 1024;
+
+    private final ApplicantRepository applicantRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, Postings> postings = new HashMap<>();
+    private final Map<Integer, Integer> slotByApplicantId = new HashMap<>();
+    private int[] applicantIds = new int[INITIAL_CAPACITY];
+    private String[] displayNames = new String[INITIAL_CAPACITY];
+    private String[] idNumbers = new String[INITIAL_CAPACITY];
+    private String[][] tokens = new String[INITIAL_CAPACITY][];
+    private int slotCount;
+    private int deadSlots;
+    // Changes applied while a rebuild reads its rows, in order; null when no rebuild is running
+    private List<Runnable> pendingWrites;
+
+    public ApplicantSearchIndex(ApplicantRepository applicantRepository) {
+        this.applicantRepository = applicantRepository;
+    }
+
+    /**
+     * Load every applicant into the index. Runs once the application has started and can be
+     * called again to resynchronise after changes made outside the service layer. Searches keep
+     * using the old entries while the rows are read; writes made meanwhile are replayed over
+     * the rows, so a change committed after they were read is not lost.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Runnable> replay = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            pendingWrites = replay;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Object[]> rows = null;
+        try {
+            rows = applicantRepository.findSearchIndexRows();
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (rows != null) {
+                    clear();
+                    for (Object[] row : rows) {
+                        put((Integer) row[0], (String) row[1], (String) row[2], (String) row[3], (String) row[4]);
+                    }
+                    replay.forEach(Runnable::run);
+                }
+                pendingWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        logger.info("Applicant search index built with {} entries in {} ms", rows.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Add or replace an applicant. Inside a transaction the change is applied after commit,
+     * so a rolled back save never becomes visible to typeahead.
+     */
+    public void index(Applicant applicant) {
+        if (applicant == null || applicant.getId() == null) {
+            return;
+        }
+        Integer id = applicant.getId();
+        String firstName = applicant.getFirstName();
+        String middleName = applicant.getMiddleName();
+        String lastName = applicant.getLastName();
+        String idNumber = applicant.getIdNumber();
+        afterCommit(() -> write(() -> put(id, firstName, middleName, lastName, idNumber)));
+    }
+
+    public void indexAll(Collection<Applicant> applicants) {
+        for (Applicant applicant : applicants) {
+            index(applicant);
+        }
+    }
+
+    public void remove(Integer applicantId) {
+        if (applicantId == null) {
+            return;
+        }
+        afterCommit(() -> write(() -> {
+            Integer slot = slotByApplicantId.remove(applicantId);
+            if (slot != null) {
+                kill(slot);
+                compactIfNeeded();
+            }
+        }));
+    }
+
+    /**
+     * Find applicants whose name or ID number tokens start with every token of the query.
+     * Exact token and ID number matches rank first; ties go to the shorter display name.
+     */
+    public List<ApplicantSuggestion> search(String query, int limit) {
+        String[] queryTokens = tokenize(query);
+        int queryLength = 0;
+        for (String token : queryTokens) {
+            queryLength += token.length();
+        }
+        if (queryLength < MIN_QUERY_LENGTH || limit <= 0) {
+            return new ArrayList<>();
+        }
+        String normalizedQuery = String.join("", queryTokens);
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>();
+            for (String token : queryTokens) {
+                for (int gram : grams(token)) {
+                    Postings list = postings.get(gram);
+                    if (list == null) {
+                        return new ArrayList<>();
+                    }
+                    lists.add(list);
+                }
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            int[] candidates = Arrays.copyOf(lists.get(0).slots, lists.get(0).size);
+            int candidateCount = candidates.length;
+            for (int i = 1; i < lists.size() && candidateCount > 0; i++) {
+                candidateCount = intersect(candidates, candidateCount, lists.get(i));
+            }
+
+            PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, Match.WORST_FIRST);
+            for (int i = 0; i < candidateCount; i++) {
+                int slot = candidates[i];
+                String[] docTokens = tokens[slot];
+                if (docTokens == null) {
+                    continue;
+                }
+                int score = score(queryTokens, docTokens);
+                if (score < 0) {
+                    continue;
+                }
+                if (normalizedQuery.equals(normalize(idNumbers[slot]))) {
+                    score += 10;
+                }
+                best.add(new Match(slot, score, displayNames[slot].length()));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            List<ApplicantSuggestion> suggestions = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                Match match = best.poll();
+                suggestions.add(new ApplicantSuggestion(applicantIds[match.slot], displayNames[match.slot], idNumbers[match.slot]));
+            }
+            Collections.reverse(suggestions);
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotByApplicantId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a change under the write lock, keeping it for replay if a rebuild is reading rows.
+     */
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (pendingWrites != null) {
+                pendingWrites.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Integer applicantId, String firstName, String middleName, String lastName, String idNumber) {
+        Integer existing = slotByApplicantId.remove(applicantId);
+        if (existing != null) {
+            kill(existing);
+        }
+        addSlot(applicantId, displayName(firstName, middleName, lastName), idNumber,
+                tokenize(join(firstName, middleName, lastName, idNumber)));
+        compactIfNeeded();
+    }
+
+    private void addSlot(int applicantId, String displayName, String idNumber, String[] docTokens) {
+        if (slotCount == applicantIds.length) {
+            int capacity = applicantIds.length * 2;
+            applicantIds = Arrays.copyOf(applicantIds, capacity);
+            displayNames = Arrays.copyOf(displayNames, capacity);
+            idNumbers = Arrays.copyOf(idNumbers, capacity);
+            tokens = Arrays.copyOf(tokens, capacity);
+        }
+        int slot = slotCount++;
+        applicantIds[slot] = applicantId;
+        displayNames[slot] = displayName;
+        idNumbers[slot] = idNumber;
+        tokens[slot] = docTokens;
+        slotByApplicantId.put(applicantId, slot);
+        for (String token : docTokens) {
+            for (int gram : grams(token)) {
+                postings.computeIfAbsent(gram, key -> new Postings()).add(slot);
+            }
+        }
+    }
+
+    private void kill(int slot) {
+        tokens[slot] = null;
+        displayNames[slot] = null;
+        idNumbers[slot] = null;
+        deadSlots++;
+    }
+
+    private void compactIfNeeded() {
+        if (deadSlots < COMPACTION_THRESHOLD || deadSlots * 2 < slotCount) {
+            return;
+        }
+        int[] oldIds = applicantIds;
+        String[] oldNames = displayNames;
+        String[] oldIdNumbers = idNumbers;
+        String[][] oldTokens = tokens;
+        int oldCount = slotCount;
+        clear();
+        for (int slot = 0; slot < oldCount; slot++) {
+            if (oldTokens[slot] != null) {
+                addSlot(oldIds[slot], oldNames[slot], oldIdNumbers[slot], oldTokens[slot]);
+            }
+        }
+    }
+
+    private void clear() {
+        postings.clear();
+        slotByApplicantId.clear();
+        applicantIds = new int[INITIAL_CAPACITY];
+        displayNames = new String[INITIAL_CAPACITY];
+        idNumbers = new String[INITIAL_CAPACITY];
+        tokens = new String[INITIAL_CAPACITY][];
+        slotCount = 0;
+        deadSlots = 0;
+    }
+
+    /**
+     * Returns -1 unless every query token is a prefix of some document token, otherwise one
+     * point per prefix match and two per exact token match.
+     */
+    private static int score(String[] queryTokens, String[] docTokens) {
+        int score = 0;
+        for (String queryToken : queryTokens) {
+            int best = -1;
+            for (String docToken : docTokens) {
+                if (docToken.equals(queryToken)) {
+                    best = 2;
+                    break;
+                }
+                if (docToken.startsWith(queryToken)) {
+                    best = 1;
+                }
+            }
+            if (best < 0) {
+                return -1;
+            }
+            score += best;
+        }
+        return score;
+    }
+
+    /**
+     * Intersect the first {@code count} entries of {@code candidates} with a postings list in
+     * place and return the new candidate count.
+     */
+    private static int intersect(int[] candidates, int count, Postings list) {
+        int[] other = list.slots;
+        int i = 0;
+        int j = 0;
+        int kept = 0;
+        while (i < count && j < list.size) {
+            if (candidates[i] < other[j]) {
+                i++;
+            } else if (candidates[i] > other[j]) {
+                j++;
+            } else {
+                candidates[kept++] = candidates[i];
+                i++;
+                j++;
+            }
+        }
+        return kept;
+    }
+
+    private static int[] grams(String token) {
+        String padded = "" + BOUNDARY + BOUNDARY + token;
+        int[] grams = new int[padded.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = (padded.charAt(i) << 16) | (padded.charAt(i + 1) << 8) | padded.charAt(i + 2);
+        }
+        return grams;
+    }
+
+    static String[] tokenize(String text) {
+        String normalized = normalizeSpaced(text);
+        if (normalized.isEmpty()) {
+            return new String[0];
+        }
+        return normalized.split(" ");
+    }
+
+    private static String normalize(String text) {
+        return normalizeSpaced(text).replace(" ", "");
+    }
+
+    private static String normalizeSpaced(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        return stripped.replaceAll("[^a-z0-9]+", " ").trim();
+    }
+
+    private static String displayName(String firstName, String middleName, String lastName) {
+        return join(firstName, middleName, lastName);
+    }
+
+    private static String join(String... parts) {
+        StringBuilder builder = new StringBuilder();
+        for (String part : parts) {
+            if (part != null && !part.trim().isEmpty()) {
+                if (builder.length() > 0) {
+                    builder.append(' ');
+                }
+                builder.append(part.trim());
+            }
+        }
+        return builder.toString();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Growable, sorted list of slots. Slots are handed out in increasing order, so appending
+     * keeps the list sorted, and a repeated trigram within one applicant is skipped by
+     * comparing against the last entry.
+     */
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size > 0 && slots[size - 1] == slot) {
+                return;
+            }
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+
+    private static final class Match {
+        static final Comparator<Match> WORST_FIRST = Comparator.<Match>comparingInt(match -> match.score)
+                .thenComparing(Comparator.<Match>comparingInt(match -> match.nameLength).reversed())
+                .thenComparing(Comparator.<Match>comparingInt(match -> match.slot).reversed());
+
+        final int slot;
+        final int score;
+        final int nameLength;
+
+        Match(int slot, int score, int nameLength) {
+            this.slot = slot;
+            this.score = score;
+            this.nameLength = nameLength;
+        }
+    }
+}
@@ -1,6 +1,15 @@
 package com.social.assistance.service;
 
+import com.social.assistance.dto.ApplicantSuggestion;
+import com.social.assistance.dto.ApplicantSummary;
+import com.social.assistance.dto.BulkVerificationResult;
+import com.social.assistance.dto.CountMode;
+import com.social.assistance.dto.CursorSlice;
+import com.social.assistance.dto.FieldSet;
+import com.social.assistance.dto.DuplicateCandidate;
 import com.social.assistance.exception.DuplicateResourceException;
+import com.social.assistance.exception.InvalidStateException;
+import com.social.assistance.exception.LikelyDuplicateException;
 import com.social.assistance.exception.ResourceNotFoundException;
 import com.social.assistance.model.Applicant;
 import com.social.assistance.model.MakerCheckerLog;
@@ -8,12 +17,16 @@ import com.social.assistance.model.Parameter;
 import com.social.assistance.model.User;
 import com.social.assistance.model.Village;
 import com.social.assistance.repository.ApplicantRepository;
+import com.social.assistance.repository.ApplicantSpecifications;
 import com.social.assistance.repository.MakerCheckerLogRepository;
 import com.social.assistance.repository.ParameterRepository;
 import com.social.assistance.repository.UserRepository;
 import com.social.assistance.repository.VillageRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,7 +34,14 @@ import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
 
 @Service
 public class ApplicantService {
@@ -32,6 +52,10 @@ public class ApplicantService {
     private final ParameterRepository parameterRepository;
     private final VillageRepository villageRepository;
     private final UserService userService; // Added for username-to-ID lookup
+    private final ApplicantSearchIndex applicantSearchIndex;
+    private final DuplicateApplicantService duplicateApplicantService;
+    private final RowCountEstimator rowCountEstimator;
+    private final GeographyTree geographyTree;
 
     @PersistenceContext
     private EntityManager entityManager; // For stored procedures (optional)
@@ -42,18 +66,37 @@ public class ApplicantService {
             MakerCheckerLogRepository makerCheckerLogRepository,
             ParameterRepository parameterRepository,
             VillageRepository villageRepository,
-            UserService userService) {
+            UserService userService,
+            ApplicantSearchIndex applicantSearchIndex,
+            DuplicateApplicantService duplicateApplicantService,
+            RowCountEstimator rowCountEstimator,
+            GeographyTree geographyTree) {
         this.applicantRepository = applicantRepository;
         this.userRepository = userRepository;
         this.makerCheckerLogRepository = makerCheckerLogRepository;
         this.parameterRepository = parameterRepository;
         this.villageRepository = villageRepository;
         this.userService = userService;
+        this.applicantSearchIndex = applicantSearchIndex;
+        this.duplicateApplicantService = duplicateApplicantService;
+        this.rowCountEstimator = rowCountEstimator;
+        this.geographyTree = geographyTree;
     }
 
     @PreAuthorize("hasRole('DATA_COLLECTOR')")
     @Transactional
     public Applicant createApplicant(Applicant applicant) {
+        return createApplicant(applicant, false);
+    }
+
+    /**
+     * Create an applicant, rejecting likely phonetic duplicates in the same village and age
+     * range unless {@code allowLikelyDuplicates} is set.
+     * @throws LikelyDuplicateException if likely duplicates exist and are not allowed
+     */
+    @PreAuthorize("hasRole('DATA_COLLECTOR')")
+    @Transactional
+    public Applicant createApplicant(Applicant applicant, boolean allowLikelyDuplicates) {
         if (applicantRepository.existsByIdNumber(applicant.getIdNumber())) {
             throw new DuplicateResourceException("Applicant with this ID number already exists");
         }
@@ -69,18 +112,34 @@ public class ApplicantService {
         applicant.setSex(sex);
         applicant.setMaritalStatus(maritalStatus);
         applicant.setVillage(village);
+        geographyTree.locate(applicant);
         applicant.setVerificationStatus("Pending");
 
-        return applicantRepository.save(applicant);
+        if (!allowLikelyDuplicates) {
+            List<DuplicateCandidate> duplicates = duplicateApplicantService.findLikelyDuplicates(applicant);
+            if (!duplicates.isEmpty()) {
+                throw new LikelyDuplicateException("Applicant is likely already registered", duplicates);
+            }
+        }
+
+        Applicant savedApplicant = applicantRepository.save(applicant);
+        applicantSearchIndex.index(savedApplicant);
+        return savedApplicant;
     }
 
     public Optional<Applicant> getApplicantById(Integer id) {
-        return applicantRepository.findById(id);
+        return applicantRepository.findWithDetailsById(id);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'DATA_COLLECTOR')")
+    public Slice<ApplicantSummary> getAllApplicants(Pageable pageable, CountMode count, FieldSet fields) {
+        return summaries(Specification.where(null), pageable, count, fields,
+                () -> rowCountEstimator.estimate("applicants", applicantRepository::count));
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'DATA_COLLECTOR')")
-    public Page<Applicant> getAllApplicants(Pageable pageable) {
-        return applicantRepository.findAll(pageable);
+    public CursorSlice<ApplicantSummary> getApplicantsAfter(String after, int limit, FieldSet fields) {
+        return summariesAfter(Specification.where(null), after, limit, fields);
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'DATA_COLLECTOR')")
@@ -88,6 +147,9 @@ public class ApplicantService {
     public Applicant updateApplicant(Integer id, Applicant updatedApplicant) {
         Applicant applicant = applicantRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Applicant not found"));
+        if (updatedApplicant.getVersion() != null && !updatedApplicant.getVersion().equals(applicant.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Applicant.class, id);
+        }
 
         if (!applicant.getIdNumber().equals(updatedApplicant.getIdNumber()) &&
                 applicantRepository.existsByIdNumber(updatedApplicant.getIdNumber())) {
@@ -110,11 +172,14 @@ public class ApplicantService {
         applicant.setMaritalStatus(maritalStatus);
         applicant.setIdNumber(updatedApplicant.getIdNumber());
         applicant.setVillage(village);
+        geographyTree.locate(applicant);
         applicant.setPostalAddress(updatedApplicant.getPostalAddress());
         applicant.setPhysicalAddress(updatedApplicant.getPhysicalAddress());
         applicant.setTelephone(updatedApplicant.getTelephone());
 
-        return applicantRepository.save(applicant);
+        Applicant savedApplicant = applicantRepository.save(applicant);
+        applicantSearchIndex.index(savedApplicant);
+        return savedApplicant;
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -123,6 +188,7 @@ public class ApplicantService {
         Applicant applicant = applicantRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Applicant not found"));
         applicantRepository.delete(applicant);
+        applicantSearchIndex.remove(id);
     }
 
     @PreAuthorize("hasRole('VERIFIER')")
@@ -158,13 +224,41 @@ public class ApplicantService {
         */
     }
 
+    /**
+     * Verify many applicants with a fixed number of set-based statements: every eligible
+     * applicant is updated at once and, under maker-checker, all the logs are inserted at once.
+     * Missing applicants, verified ones and ones awaiting a maker-checker decision are skipped
+     * rather than failing the batch.
+     */
+    @PreAuthorize("hasRole('VERIFIER')")
+    @Transactional
+    public BulkVerificationResult verifyApplicants(List<Integer> applicantIds, String username, boolean useMakerChecker) {
+        User verifier = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("Verifier not found"));
+        Set<Integer> requested = new LinkedHashSet<>(applicantIds);
+
+        Set<Integer> updated = new HashSet<>(applicantRepository.verifyAll(requested, verifier.getId(), useMakerChecker));
+        List<Integer> updatedIds = new ArrayList<>(updated.size());
+        List<Integer> skippedIds = new ArrayList<>();
+        for (Integer id : requested) {
+            (updated.contains(id) ? updatedIds : skippedIds).add(id);
+        }
+        return new BulkVerificationResult(useMakerChecker ? "Proposed" : "Verified", updatedIds, skippedIds);
+    }
+
     @PreAuthorize("hasRole('APPROVER')")
     @Transactional
     public void confirmMakerChecker(Integer logId, String username, boolean approve) {
-        MakerCheckerLog log = makerCheckerLogRepository.findById(logId)
+        MakerCheckerLog log = makerCheckerLogRepository.findWithLockById(logId)
                 .orElseThrow(() -> new ResourceNotFoundException("Maker-checker log not found"));
         User checker = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("Checker not found"));
+        if (!"Proposed".equals(log.getStatus())) {
+            throw new InvalidStateException("Maker-checker log " + logId + " has already been decided: " + log.getStatus());
+        }
+        if (log.isClaimedByOther(username, LocalDateTime.now())) {
+            throw new InvalidStateException("Maker-checker log " + logId + " is claimed by another reviewer");
+        }
 
         if ("Applicant".equals(log.getEntityType()) && "Verify".equals(log.getAction())) {
             Applicant applicant = applicantRepository.findById(log.getEntityId())
@@ -197,23 +291,58 @@ public class ApplicantService {
     }
     
     @PreAuthorize("hasAnyRole('ADMIN', 'DATA_COLLECTOR')")
-    public Page<Applicant> searchApplicants(String name, String idNumber, LocalDate dateApplied, Pageable pageable) {
-        return applicantRepository.findByFilters(name, idNumber, dateApplied, pageable);
+    public List<ApplicantSuggestion> typeahead(String query, int limit) {
+        return applicantSearchIndex.search(query, Math.min(Math.max(limit, 1), 50));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'DATA_COLLECTOR')")
+    public Slice<ApplicantSummary> searchApplicants(String name, String idNumber, LocalDate dateApplied, Pageable pageable, CountMode count, FieldSet fields) {
+        Specification<Applicant> spec = ApplicantSpecifications.matching(name, idNumber, dateApplied);
+        return summaries(spec, pageable, count, fields,
+                () -> rowCountEstimator.cached("applicants:filters:" + name + "|" + idNumber + "|" + dateApplied,
+                        () -> applicantRepository.count(spec)));
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'DATA_COLLECTOR', 'VERIFIER')")
-    public Page<Applicant> filterApplicantsByStatus(String status, Pageable pageable) {
+    public Slice<ApplicantSummary> filterApplicantsByStatus(String status, Pageable pageable, CountMode count, FieldSet fields) {
         if (status == null || status.trim().isEmpty()) {
-            return applicantRepository.findAll(pageable);
+            return getAllApplicants(pageable, count, fields);
         }
-        return applicantRepository.findByVerificationStatus(status, pageable);
+        return summaries(ApplicantSpecifications.hasVerificationStatus(status), pageable, count, fields,
+                () -> rowCountEstimator.cached("applicants:status:" + status,
+                        () -> applicantRepository.countByVerificationStatus(status)));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'DATA_COLLECTOR', 'VERIFIER')")
+    public CursorSlice<ApplicantSummary> filterApplicantsByStatusAfter(String status, String after, int limit, FieldSet fields) {
+        if (status == null || status.trim().isEmpty()) {
+            return getApplicantsAfter(after, limit, fields);
+        }
+        return summariesAfter(ApplicantSpecifications.hasVerificationStatus(status), after, limit, fields);
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'DATA_COLLECTOR')")
-    public Page<Applicant> filterApplicantsByVillage(Integer villageId, Pageable pageable) {
+    public Slice<ApplicantSummary> filterApplicantsByVillage(Integer villageId, Pageable pageable, CountMode count, FieldSet fields) {
         if (villageId == null) {
-            return applicantRepository.findAll(pageable);
+            return getAllApplicants(pageable, count, fields);
         }
-        return applicantRepository.findByVillageId(villageId, pageable);
+        return summaries(ApplicantSpecifications.inVillage(villageId), pageable, count, fields,
+                () -> rowCountEstimator.cached("applicants:village:" + villageId,
+                        () -> applicantRepository.countByVillageId(villageId)));
+    }
+
+    private Slice<ApplicantSummary> summaries(Specification<Applicant> spec, Pageable pageable, CountMode count, FieldSet fields,
+                                              LongSupplier approximateTotal) {
+        return rowCountEstimator.fetch(count, pageable,
+                p -> applicantRepository.findSummaries(spec, p, fields),
+                p -> applicantRepository.findSummarySlice(spec, p, fields),
+                approximateTotal);
+    }
+
+    private CursorSlice<ApplicantSummary> summariesAfter(Specification<Applicant> spec, String after, int limit,
+                                                         FieldSet fields) {
+        int afterId = CursorSlice.decode(after);
+        return CursorSlice.of(applicantRepository.findSummarySlice(
+                spec.and(ApplicantSpecifications.idAfter(afterId)), CursorSlice.pageRequest(limit), fields), ApplicantSummary::getId);
     }
 }
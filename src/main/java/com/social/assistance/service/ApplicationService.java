@@ -1,6 +1,12 @@
 package com.social.assistance.service;
 
 import com.social.assistance.dto.ApplicationReport;
+import com.social.assistance.dto.ApplicationSummary;
+import com.social.assistance.dto.BulkDecisionResult;
+import com.social.assistance.dto.CountMode;
+import com.social.assistance.dto.CursorSlice;
+import com.social.assistance.dto.FieldSet;
+import com.social.assistance.dto.GeographyLevel;
 import com.social.assistance.exception.DuplicateResourceException;
 import com.social.assistance.exception.InvalidStateException;
 import com.social.assistance.exception.ResourceNotFoundException;
@@ -11,6 +17,7 @@ import com.social.assistance.model.Programme;
 import com.social.assistance.model.User;
 import com.social.assistance.repository.ApplicantRepository;
 import com.social.assistance.repository.ApplicationRepository;
+import com.social.assistance.repository.ApplicationSpecifications;
 import com.social.assistance.repository.MakerCheckerLogRepository;
 import com.social.assistance.repository.ProgrammeRepository;
 import com.social.assistance.repository.UserRepository;
@@ -19,9 +26,12 @@ import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -44,20 +54,33 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ApplicationService {
 
+    /** SQLSTATE of a unique constraint violation. */
+    private static final String UNIQUE_VIOLATION = "23505";
+    /** PostgreSQL's name for the UNIQUE (applicant_id, programme_id) constraint of schema.sql. */
+    private static final String APPLICANT_PROGRAMME_KEY = "applications_applicant_id_programme_id_key";
+
     private final ApplicationRepository applicationRepository;
     private final ApplicantRepository applicantRepository;
     private final ProgrammeRepository programmeRepository;
     private final UserRepository userRepository;
     private final MakerCheckerLogRepository makerCheckerLogRepository;
     private final UserService userService; // Added for username-to-ID lookup
+    private final RowCountEstimator rowCountEstimator;
 
     @PersistenceContext
     private EntityManager entityManager; // For stored procedures (optional)
@@ -70,8 +93,7 @@ public class ApplicationService {
         Programme programme = programmeRepository.findById(programmeId)
                 .orElseThrow(() -> new ResourceNotFoundException("Programme not found with ID: " + programmeId));
 
-        Page<Application> existingApplications = applicationRepository.findByApplicantId(applicantId, PageRequest.of(0, Integer.MAX_VALUE));
-        if (existingApplications.getContent().stream().anyMatch(app -> app.getProgramme().getId().equals(programmeId))) {
+        if (applicationRepository.existsByApplicantIdAndProgrammeId(applicantId, programmeId)) {
             throw new DuplicateResourceException("Application already exists for this applicant and programme");
         }
 
@@ -80,16 +102,22 @@ public class ApplicationService {
         application.setProgramme(programme);
         application.setStatus("Pending");
 
-        return applicationRepository.save(application);
+        return saveUnique(application, "Application already exists for this applicant and programme");
     }
 
     public Optional<Application> getApplicationById(Integer id) {
-        return applicationRepository.findById(id);
+        return applicationRepository.findWithDetailsById(id);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'DATA_COLLECTOR')")
+    public Slice<ApplicationSummary> getAllApplications(Pageable pageable, CountMode count, FieldSet fields) {
+        return summaries(Specification.where(null), pageable, count, fields,
+                () -> rowCountEstimator.estimate("applications", applicationRepository::count));
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'DATA_COLLECTOR')")
-    public Page<Application> getAllApplications(Pageable pageable) {
-        return applicationRepository.findAll(pageable);
+    public CursorSlice<ApplicationSummary> getApplicationsAfter(String after, int limit, FieldSet fields) {
+        return summariesAfter(Specification.where(null), after, limit, fields);
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'DATA_COLLECTOR')")
@@ -103,16 +131,41 @@ public class ApplicationService {
         Programme programme = programmeRepository.findById(programmeId)
                 .orElseThrow(() -> new ResourceNotFoundException("Programme not found with ID: " + programmeId));
 
-        Page<Application> existingApplications = applicationRepository.findByApplicantId(applicantId, PageRequest.of(0, Integer.MAX_VALUE));
-        if (existingApplications.getContent().stream()
-                .anyMatch(app -> app.getProgramme().getId().equals(programmeId) && !app.getId().equals(id))) {
+        if (applicationRepository.existsByApplicantIdAndProgrammeIdAndIdNot(applicantId, programmeId, id)) {
             throw new DuplicateResourceException("Another application already exists for this applicant and programme");
         }
 
         application.setApplicant(applicant);
         application.setProgramme(programme);
 
-        return applicationRepository.save(application);
+        return saveUnique(application, "Another application already exists for this applicant and programme");
+    }
+
+    /**
+     * Save and flush so that a concurrent insert of the same applicant/programme pair, which
+     * passed the exists check at the same time, surfaces here as a duplicate instead of a 500
+     * at commit. Any other integrity violation is rethrown unchanged.
+     */
+    private Application saveUnique(Application application, String duplicateMessage) {
+        try {
+            return applicationRepository.saveAndFlush(application);
+        } catch (DataIntegrityViolationException e) {
+            if (isApplicantProgrammeDuplicate(e)) {
+                throw new DuplicateResourceException(duplicateMessage);
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isApplicantProgrammeDuplicate(DataIntegrityViolationException e) {
+        if (!(e.getCause() instanceof ConstraintViolationException)) {
+            return false;
+        }
+        ConstraintViolationException violation = (ConstraintViolationException) e.getCause();
+        String constraint = violation.getConstraintName();
+        // The dialect cannot always extract the name; applications has no other unique key
+        return UNIQUE_VIOLATION.equals(violation.getSQLState())
+                && (constraint == null || APPLICANT_PROGRAMME_KEY.equalsIgnoreCase(constraint));
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -126,8 +179,21 @@ public class ApplicationService {
     @PreAuthorize("hasRole('APPROVER')")
     @Transactional
     public void approveApplication(Integer id, String username, boolean useMakerChecker) {
+        approveApplication(id, username, useMakerChecker, null);
+    }
+
+    /**
+     * @param expectedVersion Version the approver looked at; if given and the application has
+     * changed since, the approval is refused with an optimistic locking failure
+     */
+    @PreAuthorize("hasRole('APPROVER')")
+    @Transactional
+    public void approveApplication(Integer id, String username, boolean useMakerChecker, Integer expectedVersion) {
         Application application = applicationRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Application not found with ID: " + id));
+        if (expectedVersion != null && !expectedVersion.equals(application.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Application.class, id);
+        }
         User approver = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("Approver not found with username: " + username));
 
@@ -161,19 +227,95 @@ public class ApplicationService {
         */
     }
 
+    /**
+     * Approve or reject many pending applications at once: one locking query reads the state of
+     * all of them, one UPDATE per outcome applies the decision and the maker-checker logs go in
+     * a single JDBC batch. Applications that are missing, no longer pending or (for approval)
+     * whose applicant is not verified are skipped and reported instead of failing the batch.
+     * @return One result per distinct id, in request order
+     */
+    @PreAuthorize("hasRole('APPROVER')")
+    @Transactional
+    public List<BulkDecisionResult> decideApplications(List<Integer> ids, boolean approve, String username, boolean useMakerChecker) {
+        User approver = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("Approver not found with username: " + username));
+        Set<Integer> requested = new LinkedHashSet<>(ids);
+
+        Map<Integer, Object[]> states = new HashMap<>();
+        for (Object[] row : applicationRepository.findDecisionStates(requested)) {
+            states.put((Integer) row[0], row);
+        }
+
+        BulkDecisionResult.Outcome decided = useMakerChecker ? BulkDecisionResult.Outcome.PROPOSED
+                : approve ? BulkDecisionResult.Outcome.APPROVED : BulkDecisionResult.Outcome.REJECTED;
+        List<BulkDecisionResult> results = new ArrayList<>(requested.size());
+        List<Integer> eligible = new ArrayList<>();
+        for (Integer id : requested) {
+            Object[] state = states.get(id);
+            BulkDecisionResult.Outcome outcome;
+            if (state == null) {
+                outcome = BulkDecisionResult.Outcome.NOT_FOUND;
+            } else if (!"Pending".equals(state[1])) {
+                outcome = BulkDecisionResult.Outcome.NOT_PENDING;
+            } else if (approve && !"Verified".equals(state[2])) {
+                outcome = BulkDecisionResult.Outcome.NOT_VERIFIED;
+            } else {
+                outcome = decided;
+                eligible.add(id);
+            }
+            results.add(new BulkDecisionResult(id, outcome));
+        }
+        if (eligible.isEmpty()) {
+            return results;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (useMakerChecker) {
+            applicationRepository.propose(eligible, approver, now);
+            List<MakerCheckerLog> logs = new ArrayList<>(eligible.size());
+            for (Integer id : eligible) {
+                MakerCheckerLog log = new MakerCheckerLog();
+                log.setEntityType("Application");
+                log.setEntityId(id);
+                log.setAction(approve ? "Approve" : "Reject");
+                log.setStatus("Proposed");
+                log.setMaker(approver);
+                log.setCreatedAt(now);
+                log.setUpdatedAt(now);
+                logs.add(log);
+            }
+            makerCheckerLogRepository.insertBatch(logs);
+        } else {
+            applicationRepository.updateStatus(eligible, approve ? "Approved" : "Rejected", now);
+        }
+        return results;
+    }
+
     @PreAuthorize("hasRole('APPROVER')")
     @Transactional
     public void confirmMakerChecker(Integer logId, String username, boolean approve) {
-        MakerCheckerLog log = makerCheckerLogRepository.findById(logId)
+        MakerCheckerLog log = makerCheckerLogRepository.findWithLockById(logId)
                 .orElseThrow(() -> new ResourceNotFoundException("Maker-checker log not found with ID: " + logId));
         User checker = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("Checker not found with username: " + username));
+        if (!"Proposed".equals(log.getStatus())) {
+            throw new InvalidStateException("Maker-checker log " + logId + " has already been decided: " + log.getStatus());
+        }
+        if (log.isClaimedByOther(username, LocalDateTime.now())) {
+            throw new InvalidStateException("Maker-checker log " + logId + " is claimed by another reviewer");
+        }
 
         if ("Application".equals(log.getEntityType()) && "Approve".equals(log.getAction())) {
             Application application = applicationRepository.findById(log.getEntityId())
                     .orElseThrow(() -> new ResourceNotFoundException("Application not found with ID: " + log.getEntityId()));
             application.setStatus(approve ? "Approved" : "Rejected");
             applicationRepository.save(application);
+        } else if ("Application".equals(log.getEntityType()) && "Reject".equals(log.getAction())) {
+            // A proposed rejection that the checker turns down goes back to the queue
+            Application application = applicationRepository.findById(log.getEntityId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Application not found with ID: " + log.getEntityId()));
+            application.setStatus(approve ? "Rejected" : "Pending");
+            applicationRepository.save(application);
         }
 
         log.setStatus(approve ? "Approved" : "Rejected");
@@ -192,30 +334,63 @@ public class ApplicationService {
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'DATA_COLLECTOR')")
-    public Page<Application> getApplicationsByStatus(String status, Pageable pageable) {
-        return applicationRepository.findByStatus(status, pageable);
+    public Slice<ApplicationSummary> getApplicationsByStatus(String status, Pageable pageable, CountMode count, FieldSet fields) {
+        return summaries(ApplicationSpecifications.hasStatus(status), pageable, count, fields,
+                () -> rowCountEstimator.cached("applications:status:" + status,
+                        () -> applicationRepository.countByStatus(status)));
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'DATA_COLLECTOR', 'APPROVER')")
-    public Page<Application> filterApplicationsByApplicantAndStatus(Integer applicantId, String status, Pageable pageable) {
-        if (applicantId == null && (status == null || status.trim().isEmpty())) {
-            return applicationRepository.findAll(pageable);
+    public Slice<ApplicationSummary> filterApplicationsByApplicantAndStatus(Integer applicantId, String status, Pageable pageable, CountMode count, FieldSet fields) {
+        boolean noStatus = status == null || status.trim().isEmpty();
+        if (applicantId == null && noStatus) {
+            return getAllApplications(pageable, count, fields);
         }
         if (applicantId == null) {
-            return applicationRepository.findByStatus(status, pageable);
+            return getApplicationsByStatus(status, pageable, count, fields);
         }
-        if (status == null || status.trim().isEmpty()) {
-            return applicationRepository.findByApplicantId(applicantId, pageable);
+        if (noStatus) {
+            return summaries(ApplicationSpecifications.forApplicant(applicantId), pageable, count, fields,
+                    () -> rowCountEstimator.cached("applications:applicant:" + applicantId,
+                            () -> applicationRepository.countByApplicantId(applicantId)));
         }
-        return applicationRepository.findByApplicantIdAndStatus(applicantId, status, pageable);
+        return summaries(ApplicationSpecifications.forApplicant(applicantId).and(ApplicationSpecifications.hasStatus(status)),
+                pageable, count, fields,
+                () -> rowCountEstimator.cached("applications:applicant-status:" + applicantId + "|" + status,
+                        () -> applicationRepository.countByApplicantIdAndStatus(applicantId, status)));
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'DATA_COLLECTOR')")
-    public Page<Application> filterApplicationsByProgramme(Integer programmeId, Pageable pageable) {
+    public Slice<ApplicationSummary> filterApplicationsByProgramme(Integer programmeId, Pageable pageable, CountMode count, FieldSet fields) {
         if (programmeId == null) {
-            return applicationRepository.findAll(pageable);
+            return getAllApplications(pageable, count, fields);
         }
-        return applicationRepository.findByProgrammeId(programmeId, pageable);
+        return summaries(ApplicationSpecifications.forProgramme(programmeId), pageable, count, fields,
+                () -> rowCountEstimator.cached("applications:programme:" + programmeId,
+                        () -> applicationRepository.countByProgrammeId(programmeId)));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'DATA_COLLECTOR')")
+    public CursorSlice<ApplicationSummary> filterApplicationsByProgrammeAfter(Integer programmeId, String after, int limit, FieldSet fields) {
+        if (programmeId == null) {
+            return getApplicationsAfter(after, limit, fields);
+        }
+        return summariesAfter(ApplicationSpecifications.forProgramme(programmeId), after, limit, fields);
+    }
+
+    private Slice<ApplicationSummary> summaries(Specification<Application> spec, Pageable pageable, CountMode count, FieldSet fields,
+                                                LongSupplier approximateTotal) {
+        return rowCountEstimator.fetch(count, pageable,
+                p -> applicationRepository.findSummaries(spec, p, fields),
+                p -> applicationRepository.findSummarySlice(spec, p, fields),
+                approximateTotal);
+    }
+
+    private CursorSlice<ApplicationSummary> summariesAfter(Specification<Application> spec, String after, int limit,
+                                                           FieldSet fields) {
+        int afterId = CursorSlice.decode(after);
+        return CursorSlice.of(applicationRepository.findSummarySlice(
+                spec.and(ApplicationSpecifications.idAfter(afterId)), CursorSlice.pageRequest(limit), fields), ApplicationSummary::getId);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -239,12 +414,11 @@ public class ApplicationService {
         LocalDate effectiveStartDate = startDate != null ? startDate : effectiveEndDate.minusMonths(3);
 
         // Fetch filtered applications
-        List<Application> applications = applicationRepository.findFilteredApplications(
+        List<Application> applications = findForExport(
             status == null || "all".equalsIgnoreCase(status) ? null : status,
             effectiveStartDate, effectiveEndDate,
             age, sexId, maritalStatusId,
-            physicalLocationLevel == null || "All".equalsIgnoreCase(physicalLocationLevel) ? "All" : physicalLocationLevel,
-            physicalLocationId
+            physicalLocationLevel, physicalLocationId
         );
 
         // Export based on format
@@ -260,6 +434,24 @@ public class ApplicationService {
         }
     }
 
+    /**
+     * Builds the export query from the filters that are present; a location at any level is
+     * matched on the applicant's denormalized column for that level.
+     */
+    private List<Application> findForExport(String status, LocalDate startDate, LocalDate endDate,
+                                            Integer age, Integer sexId, Integer maritalStatusId,
+                                            String physicalLocationLevel, Integer physicalLocationId) {
+        GeographyLevel level = null;
+        if (physicalLocationLevel != null && !"All".equalsIgnoreCase(physicalLocationLevel)) {
+            level = GeographyLevel.from(physicalLocationLevel);
+            if (physicalLocationId == null) {
+                throw new InvalidStateException("physicalLocationId is required when filtering by " + level.key());
+            }
+        }
+        return applicationRepository.findForExport(ApplicationSpecifications.exported(
+                startDate, endDate, status, age, sexId, maritalStatusId, level, physicalLocationId));
+    }
+
     private byte[] exportToCsv(List<Application> applications) {
         try (StringWriter stringWriter = new StringWriter();
              CSVWriter csvWriter = new CSVWriter(stringWriter)) {
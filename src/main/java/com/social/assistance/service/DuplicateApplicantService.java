@@ -0,0 +1,245 @@
+package com.social.assistance.service;
+
+import com.social.assistance.dto.DuplicateCandidate;
+import com.social.assistance.dto.DuplicatePair;
+import com.social.assistance.model.Applicant;
+import com.social.assistance.repository.ApplicantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+/**
+ * Finds applicants that are probably the same person registered under a different spelling.
+ * <p>
+ * Records are blocked on the phonetic keys of first and last name (order-insensitive),
+ * village and a five-year age band; only records in the same or an adjacent band of the
+ * same block are scored against each other. The registry scan streams applicants ordered by
+ * village so only one village is held in memory at a time, keeping the job linear in the
+ * size of the registry instead of quadratic, and keeps only the best {@link #MAX_PAIRS} pairs
+ * while it goes.
+ */
+@Service
+public class DuplicateApplicantService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateApplicantService.class);
+
+    static final int AGE_BAND = 5;
+    static final int AGE_TOLERANCE = 2;
+    static final double MATCH_THRESHOLD = 0.88;
+    private static final int MAX_BLOCK_SIZE = 500;
+    static final int MAX_PAIRS = 10000;
+
+    private final ApplicantRepository applicantRepository;
+
+    public DuplicateApplicantService(ApplicantRepository applicantRepository) {
+        this.applicantRepository = applicantRepository;
+    }
+
+    /**
+     * Likely duplicates of an applicant that is about to be created or updated, best match first.
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'DATA_COLLECTOR')")
+    public List<DuplicateCandidate> findLikelyDuplicates(Applicant applicant) {
+        if (applicant.getVillage() == null || applicant.getVillage().getId() == null || applicant.getAge() == null) {
+            return new ArrayList<>();
+        }
+        Candidate probe = new Candidate(applicant.getId(), applicant.getFirstName(), applicant.getMiddleName(),
+                applicant.getLastName(), applicant.getAge(), applicant.getVillage().getId(), applicant.getIdNumber());
+
+        List<DuplicateCandidate> matches = new ArrayList<>();
+        for (Object[] row : applicantRepository.findDeduplicationRows(
+                probe.villageId, probe.age - AGE_TOLERANCE, probe.age + AGE_TOLERANCE)) {
+            Candidate other = Candidate.of(row);
+            if (Objects.equals(other.id, probe.id) || !other.nameKey.equals(probe.nameKey)) {
+                continue;
+            }
+            double score = score(probe, other);
+            if (score >= MATCH_THRESHOLD) {
+                matches.add(other.toDto(score));
+            }
+        }
+        matches.sort(Comparator.comparingDouble(DuplicateCandidate::getScore).reversed());
+        return matches;
+    }
+
+    /**
+     * Score every candidate pair in the registry and return the {@link #MAX_PAIRS} most likely
+     * duplicates, best first.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
+    public List<DuplicatePair> scanRegistry() {
+        long start = System.currentTimeMillis();
+        // Min-heap of the best pairs so far; its head is the weakest one kept
+        PriorityQueue<DuplicatePair> best = new PriorityQueue<>(MAX_PAIRS, Comparator.comparingDouble(DuplicatePair::getScore));
+        long scanned = 0;
+        long found = 0;
+
+        try (Stream<Object[]> rows = applicantRepository.streamDeduplicationRows()) {
+            Map<String, List<Candidate>> blocks = new HashMap<>();
+            Integer currentVillage = null;
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Candidate candidate = Candidate.of(iterator.next());
+                scanned++;
+                if (!Objects.equals(candidate.villageId, currentVillage)) {
+                    blocks.clear();
+                    currentVillage = candidate.villageId;
+                }
+                int band = candidate.age / AGE_BAND;
+                for (int neighbour = band - 1; neighbour <= band + 1; neighbour++) {
+                    List<Candidate> block = blocks.get(candidate.nameKey + "|" + neighbour);
+                    if (block == null) {
+                        continue;
+                    }
+                    for (Candidate other : block) {
+                        if (Math.abs(other.age - candidate.age) > AGE_TOLERANCE) {
+                            continue;
+                        }
+                        double score = score(candidate, other);
+                        if (score < MATCH_THRESHOLD) {
+                            continue;
+                        }
+                        found++;
+                        if (best.size() < MAX_PAIRS) {
+                            best.add(new DuplicatePair(other.toDto(score), candidate.toDto(score), score));
+                        } else if (score > best.peek().getScore()) {
+                            best.poll();
+                            best.add(new DuplicatePair(other.toDto(score), candidate.toDto(score), score));
+                        }
+                    }
+                }
+                List<Candidate> ownBlock = blocks.computeIfAbsent(candidate.nameKey + "|" + band, key -> new ArrayList<>());
+                if (ownBlock.size() < MAX_BLOCK_SIZE) {
+                    ownBlock.add(candidate);
+                } else if (ownBlock.size() == MAX_BLOCK_SIZE) {
+                    logger.warn("Duplicate scan block {} in village {} exceeds {} applicants; further members are not compared",
+                            candidate.nameKey, candidate.villageId, MAX_BLOCK_SIZE);
+                }
+            }
+        }
+
+        List<DuplicatePair> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(DuplicatePair::getScore).reversed());
+        logger.info("Duplicate scan compared {} applicants and found {} likely duplicate pairs in {} ms",
+                scanned, found, System.currentTimeMillis() - start);
+        return result;
+    }
+
+    /**
+     * Blocking key for a name pair: the two phonetic keys in sorted order, so that swapped
+     * first and last names land in the same block. The keys do not keep the first letter, so
+     * Catherine and Katherine block together too.
+     */
+    static String nameKey(String firstName, String lastName) {
+        String first = PhoneticEncoder.key(firstName);
+        String last = PhoneticEncoder.key(lastName);
+        return first.compareTo(last) <= 0 ? first + "-" + last : last + "-" + first;
+    }
+
+    static double score(Candidate a, Candidate b) {
+        double direct = (similarity(a.firstName, b.firstName) + similarity(a.lastName, b.lastName)) / 2;
+        double swapped = (similarity(a.firstName, b.lastName) + similarity(a.lastName, b.firstName)) / 2;
+        double name = Math.max(direct, swapped);
+        if (!a.middleName.isEmpty() && !b.middleName.isEmpty()) {
+            name = name * 0.8 + similarity(a.middleName, b.middleName) * 0.2;
+        }
+        return name - 0.02 * Math.abs(a.age - b.age);
+    }
+
+    /**
+     * Jaro-Winkler similarity of two normalized names.
+     */
+    static double similarity(String s1, String s2) {
+        if (s1.isEmpty() || s2.isEmpty()) {
+            return 0;
+        }
+        if (s1.equals(s2)) {
+            return 1;
+        }
+        int range = Math.max(0, Math.max(s1.length(), s2.length()) / 2 - 1);
+        boolean[] matched1 = new boolean[s1.length()];
+        boolean[] matched2 = new boolean[s2.length()];
+        int matches = 0;
+        for (int i = 0; i < s1.length(); i++) {
+            int from = Math.max(0, i - range);
+            int to = Math.min(s2.length() - 1, i + range);
+            for (int j = from; j <= to; j++) {
+                if (!matched2[j] && s1.charAt(i) == s2.charAt(j)) {
+                    matched1[i] = true;
+                    matched2[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0;
+        }
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < s1.length(); i++) {
+            if (!matched1[i]) {
+                continue;
+            }
+            while (!matched2[j]) {
+                j++;
+            }
+            if (s1.charAt(i) != s2.charAt(j)) {
+                transpositions++;
+            }
+            j++;
+        }
+        double m = matches;
+        double jaro = (m / s1.length() + m / s2.length() + (m - transpositions / 2.0) / m) / 3;
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(s1.length(), s2.length())) && s1.charAt(prefix) == s2.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1 - jaro);
+    }
+
+    static final class Candidate {
+        final Integer id;
+        final String displayName;
+        final String firstName;
+        final String middleName;
+        final String lastName;
+        final int age;
+        final Integer villageId;
+        final String idNumber;
+        final String nameKey;
+
+        Candidate(Integer id, String firstName, String middleName, String lastName, Integer age, Integer villageId, String idNumber) {
+            this.id = id;
+            this.displayName = firstName + " " + (middleName != null && !middleName.isEmpty() ? middleName + " " : "") + lastName;
+            this.firstName = PhoneticEncoder.normalize(firstName);
+            this.middleName = PhoneticEncoder.normalize(middleName);
+            this.lastName = PhoneticEncoder.normalize(lastName);
+            this.age = age != null ? age : 0;
+            this.villageId = villageId;
+            this.idNumber = idNumber;
+            this.nameKey = nameKey(firstName, lastName);
+        }
+
+        static Candidate of(Object[] row) {
+            return new Candidate((Integer) row[0], (String) row[1], (String) row[2], (String) row[3],
+                    (Integer) row[4], (Integer) row[5], (String) row[6]);
+        }
+
+        DuplicateCandidate toDto(double score) {
+            return new DuplicateCandidate(id, displayName, idNumber, villageId, age, Math.round(score * 1000) / 1000.0);
+        }
+    }
+}
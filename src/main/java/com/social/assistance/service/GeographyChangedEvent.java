@@ -0,0 +1,8 @@
+package com.social.assistance.service;
+
+/**
+ * Published when counties, sub-counties, locations, sub-locations or villages are added or
+ * changed, so that the {@link GeographyTree} is rebuilt once the change commits.
+ */
+public class GeographyChangedEvent {
+}
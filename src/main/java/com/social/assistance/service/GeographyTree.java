@@ -0,0 +1,306 @@
+package com.social.assistance.service;
+
+import com.social.assistance.dto.GeographyLevel;
+import com.social.assistance.dto.GeographyNode;
+import com.social.assistance.exception.ResourceNotFoundException;
+import com.social.assistance.model.Applicant;
+import com.social.assistance.model.Location;
+import com.social.assistance.model.SubCounty;
+import com.social.assistance.model.SubLocation;
+import com.social.assistance.model.Village;
+import com.social.assistance.repository.CountyRepository;
+import com.social.assistance.repository.LocationRepository;
+import com.social.assistance.repository.SubCountyRepository;
+import com.social.assistance.repository.SubLocationRepository;
+import com.social.assistance.repository.VillageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable in-memory copy of the county to village hierarchy, used to answer "everything
+ * under this node" without querying the five geography tables.
+ * <p>
+ * Nodes are numbered in pre-order, so the subtree of a node is the contiguous range from its
+ * own number to the number of its last descendant, and villages are kept in the same order.
+ * A subtree lookup is therefore a range copy and an ancestry test is two comparisons. The tree
+ * is rebuilt from scratch after every geography change and swapped in with a single write, so
+ * readers never see a half-built tree.
+ */
+@Component
+public class GeographyTree {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeographyTree.class);
+
+    private static final GeographyLevel[] LEVELS = GeographyLevel.values();
+    private static final int VILLAGE = GeographyLevel.VILLAGE.ordinal();
+
+    private final CountyRepository countyRepository;
+    private final SubCountyRepository subCountyRepository;
+    private final LocationRepository locationRepository;
+    private final SubLocationRepository subLocationRepository;
+    private final VillageRepository villageRepository;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public GeographyTree(CountyRepository countyRepository, SubCountyRepository subCountyRepository,
+                         LocationRepository locationRepository, SubLocationRepository subLocationRepository,
+                         VillageRepository villageRepository) {
+        this.countyRepository = countyRepository;
+        this.subCountyRepository = subCountyRepository;
+        this.locationRepository = locationRepository;
+        this.subLocationRepository = subLocationRepository;
+        this.villageRepository = villageRepository;
+    }
+
+    /**
+     * Load the whole hierarchy. Runs once the application has started and can be called again
+     * to pick up changes made outside the service layer.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        List<List<Object[]>> rows = Arrays.asList(
+                countyRepository.findTreeRows(),
+                subCountyRepository.findTreeRows(),
+                locationRepository.findTreeRows(),
+                subLocationRepository.findTreeRows(),
+                villageRepository.findTreeRows());
+        Snapshot built = Snapshot.build(rows);
+        snapshot = built;
+        logger.info("Geography tree built with {} nodes ({} villages) in {} ms",
+                built.size, built.villageIds.length, System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGeographyChanged(GeographyChangedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Ids of every village under the given node, in tree order; a village yields itself.
+     */
+    public int[] villageIdsUnder(GeographyLevel level, Integer id) {
+        Snapshot tree = snapshot;
+        int node = tree.require(level, id);
+        return Arrays.copyOfRange(tree.villageIds, tree.villagesBefore[node], tree.villagesBefore[tree.last[node] + 1]);
+    }
+
+    /**
+     * Whether the village lies under the given node. Unknown nodes or villages contain nothing.
+     */
+    public boolean contains(GeographyLevel level, Integer id, Integer villageId) {
+        Snapshot tree = snapshot;
+        int node = tree.find(level.ordinal(), id);
+        int village = tree.find(VILLAGE, villageId);
+        return node >= 0 && village >= node && village <= tree.last[node];
+    }
+
+    /**
+     * Id of the village's ancestor at the given level, or {@code null} for an unknown village.
+     */
+    public Integer ancestorId(Integer villageId, GeographyLevel level) {
+        Snapshot tree = snapshot;
+        int node = tree.find(VILLAGE, villageId);
+        if (node < 0) {
+            return null;
+        }
+        while (tree.level[node] > level.ordinal()) {
+            node = tree.parent[node];
+        }
+        return tree.entityId[node];
+    }
+
+    /**
+     * Copy the ancestors of the applicant's village onto its denormalized location columns.
+     * A village the tree does not know yet is walked through its entities instead.
+     */
+    public void locate(Applicant applicant) {
+        Village village = applicant.getVillage();
+        Snapshot tree = snapshot;
+        int node = tree.find(VILLAGE, village.getId());
+        if (node >= 0) {
+            int subLocation = tree.parent[node];
+            int location = tree.parent[subLocation];
+            int subCounty = tree.parent[location];
+            applicant.setSubLocationId(tree.entityId[subLocation]);
+            applicant.setLocationId(tree.entityId[location]);
+            applicant.setSubCountyId(tree.entityId[subCounty]);
+            applicant.setCountyId(tree.entityId[tree.parent[subCounty]]);
+        } else {
+            SubLocation subLocation = village.getSubLocation();
+            Location location = subLocation.getLocation();
+            SubCounty subCounty = location.getSubCounty();
+            applicant.setSubLocationId(subLocation.getId());
+            applicant.setLocationId(location.getId());
+            applicant.setSubCountyId(subCounty.getId());
+            applicant.setCountyId(subCounty.getCounty().getId());
+        }
+    }
+
+    /**
+     * The whole hierarchy as nested nodes, counties first.
+     */
+    public List<GeographyNode> tree() {
+        Snapshot tree = snapshot;
+        List<GeographyNode> counties = new ArrayList<>();
+        GeographyNode[] open = new GeographyNode[LEVELS.length];
+        for (int node = 0; node < tree.size; node++) {
+            int level = tree.level[node];
+            GeographyNode current = tree.node(node);
+            if (level != VILLAGE) {
+                current.setChildren(new ArrayList<>());
+            }
+            if (level == 0) {
+                counties.add(current);
+            } else {
+                open[level - 1].getChildren().add(current);
+            }
+            open[level] = current;
+        }
+        return counties;
+    }
+
+    /**
+     * Every node below the given one in tree order, optionally only those at {@code only}.
+     */
+    public List<GeographyNode> descendants(GeographyLevel level, Integer id, GeographyLevel only) {
+        Snapshot tree = snapshot;
+        int node = tree.require(level, id);
+        List<GeographyNode> descendants = new ArrayList<>();
+        for (int i = node + 1; i <= tree.last[node]; i++) {
+            if (only == null || tree.level[i] == only.ordinal()) {
+                descendants.add(tree.node(i));
+            }
+        }
+        return descendants;
+    }
+
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = build(Arrays.asList(
+                new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>()));
+
+        final int size;
+        final int[] parent;
+        final byte[] level;
+        final int[] entityId;
+        final String[] name;
+        /** Pre-order number of the last node in each node's subtree. */
+        final int[] last;
+        /** Number of villages numbered before each node; one extra entry for the end. */
+        final int[] villagesBefore;
+        final int[] villageIds;
+        /** Per level, entity id to pre-order number, -1 where there is no such node. */
+        final int[][] nodeById;
+
+        private int next;
+
+        private Snapshot(int capacity) {
+            parent = new int[capacity];
+            level = new byte[capacity];
+            entityId = new int[capacity];
+            name = new String[capacity];
+            last = new int[capacity];
+            villagesBefore = new int[capacity + 1];
+            nodeById = new int[LEVELS.length][];
+            size = capacity;
+            villageIds = null;
+        }
+
+        private Snapshot(Snapshot numbered, int size, int[] villageIds) {
+            this.size = size;
+            this.parent = Arrays.copyOf(numbered.parent, size);
+            this.level = Arrays.copyOf(numbered.level, size);
+            this.entityId = Arrays.copyOf(numbered.entityId, size);
+            this.name = Arrays.copyOf(numbered.name, size);
+            this.last = Arrays.copyOf(numbered.last, size);
+            this.villagesBefore = Arrays.copyOf(numbered.villagesBefore, size + 1);
+            this.villageIds = villageIds;
+            this.nodeById = numbered.nodeById;
+        }
+
+        /**
+         * Number the rows of each level (id, name and, below counties, parent id) in pre-order.
+         * Rows whose parent is missing are unreachable and left out.
+         */
+        static Snapshot build(List<List<Object[]>> rows) {
+            int capacity = 0;
+            List<Map<Integer, List<Object[]>>> childrenByParent = new ArrayList<>();
+            for (int lvl = 0; lvl < LEVELS.length; lvl++) {
+                capacity += rows.get(lvl).size();
+                Map<Integer, List<Object[]>> children = new HashMap<>();
+                if (lvl > 0) {
+                    for (Object[] row : rows.get(lvl)) {
+                        children.computeIfAbsent((Integer) row[2], key -> new ArrayList<>()).add(row);
+                    }
+                }
+                childrenByParent.add(children);
+            }
+
+            Snapshot numbered = new Snapshot(capacity);
+            for (int lvl = 0; lvl < LEVELS.length; lvl++) {
+                int maxId = 0;
+                for (Object[] row : rows.get(lvl)) {
+                    maxId = Math.max(maxId, (Integer) row[0]);
+                }
+                numbered.nodeById[lvl] = new int[maxId + 1];
+                Arrays.fill(numbered.nodeById[lvl], -1);
+            }
+            int[] villageIds = new int[rows.get(VILLAGE).size()];
+            int[] villages = {0};
+            for (Object[] county : rows.get(0)) {
+                numbered.visit(county, 0, -1, childrenByParent, villageIds, villages);
+            }
+            numbered.villagesBefore[numbered.next] = villages[0];
+            return new Snapshot(numbered, numbered.next, Arrays.copyOf(villageIds, villages[0]));
+        }
+
+        private void visit(Object[] row, int lvl, int parentNode, List<Map<Integer, List<Object[]>>> childrenByParent,
+                           int[] villageIds, int[] villages) {
+            int node = next++;
+            int id = (Integer) row[0];
+            parent[node] = parentNode;
+            level[node] = (byte) lvl;
+            entityId[node] = id;
+            name[node] = (String) row[1];
+            nodeById[lvl][id] = node;
+            villagesBefore[node] = villages[0];
+            if (lvl == VILLAGE) {
+                villageIds[villages[0]++] = id;
+            } else {
+                for (Object[] child : childrenByParent.get(lvl + 1).getOrDefault(id, List.of())) {
+                    visit(child, lvl + 1, node, childrenByParent, villageIds, villages);
+                }
+            }
+            last[node] = next - 1;
+        }
+
+        int find(int lvl, Integer id) {
+            int[] byId = nodeById[lvl];
+            return id == null || id < 0 || id >= byId.length ? -1 : byId[id];
+        }
+
+        int require(GeographyLevel lvl, Integer id) {
+            int node = find(lvl.ordinal(), id);
+            if (node < 0) {
+                throw new ResourceNotFoundException(lvl.key() + " not found with ID: " + id);
+            }
+            return node;
+        }
+
+        GeographyNode node(int node) {
+            return new GeographyNode(entityId[node], name[node], LEVELS[level[node]].key(),
+                    parent[node] < 0 ? null : entityId[parent[node]], null);
+        }
+    }
+}
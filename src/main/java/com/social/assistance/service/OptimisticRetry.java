@@ -0,0 +1,61 @@
+package com.social.assistance.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work in its own transaction and re-runs it when it loses an optimistic-lock
+ * race, for internal jobs that have no user to hand a 409 to. The work must re-read what it
+ * changes on every attempt; it should not be called with entities loaded by the caller.
+ */
+@Component
+public class OptimisticRetry {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticRetry.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager,
+                           @Value("${optimistic-retry.max-attempts:3}") int maxAttempts) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * @throws OptimisticLockingFailureException if every attempt conflicted
+     */
+    public <T> T execute(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                logger.debug("Optimistic lock conflict on attempt {}, retrying: {}", attempt, e.getMessage());
+                backOff(attempt);
+            }
+        }
+    }
+
+    private static void backOff(int attempt) {
+        try {
+            // Jittered so that the jobs that collided do not collide again
+            Thread.sleep(ThreadLocalRandom.current().nextLong(10L << attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying", e);
+        }
+    }
+}
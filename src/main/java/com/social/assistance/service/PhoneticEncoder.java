@@ -0,0 +1,107 @@
+package com.social.assistance.service;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Soundex-style phonetic code tuned for the spelling variation seen in registrations.
+ * <p>
+ * Names are folded to ASCII, common digraphs are rewritten to a single consonant
+ * (ph/f, ch/c, sh/s, th/t, dh/d, gh/g, ck/k), and l/r share a code because they are
+ * used interchangeably in several local languages. Vowels and the semivowels y, w and h
+ * carry no code, so Otieno/Otyeno and Wanjiku/Wanjiiku encode the same.
+ * <p>
+ * {@link #encode} keeps the first letter as Soundex does, so Catherine and Katherine differ;
+ * {@link #key} codes the first letter like the others for callers that must not split them.
+ */
+public final class PhoneticEncoder {
+
+    private static final int MAX_LENGTH = 6;
+
+    private PhoneticEncoder() {
+    }
+
+    public static String encode(String name) {
+        String normalized = normalize(name);
+        if (normalized.isEmpty()) {
+            return "";
+        }
+        StringBuilder code = new StringBuilder(MAX_LENGTH);
+        code.append(Character.toUpperCase(normalized.charAt(0)));
+        char last = codeOf(normalized.charAt(0));
+        for (int i = 1; i < normalized.length() && code.length() < MAX_LENGTH; i++) {
+            char current = codeOf(normalized.charAt(i));
+            if (current != '0' && current != last) {
+                code.append(current);
+            }
+            last = current;
+        }
+        return code.toString();
+    }
+
+    /**
+     * Like {@link #encode}, but the first letter is coded like the rest instead of kept as is, so
+     * names that differ only in how their first sound is spelt (Catherine/Katherine, Cyrus/Sirus)
+     * share a key. Names starting with a vowel lose that vowel, so Atieno and Otieno do too.
+     */
+    public static String key(String name) {
+        String normalized = normalize(name);
+        StringBuilder code = new StringBuilder(MAX_LENGTH);
+        char last = 0;
+        for (int i = 0; i < normalized.length() && code.length() < MAX_LENGTH; i++) {
+            char current = codeOf(normalized.charAt(i));
+            if (current != '0' && current != last) {
+                code.append(current);
+            }
+            last = current;
+        }
+        return code.toString();
+    }
+
+    /**
+     * Lower-case, accent-free, letters-only spelling with digraphs rewritten and doubled
+     * letters collapsed. Also used as the input for string similarity scoring.
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String folded = Normalizer.normalize(name, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z]", "");
+        folded = folded.replace("ph", "f")
+                .replace("ck", "k")
+                .replace("ch", "c")
+                .replace("sh", "s")
+                .replace("th", "t")
+                .replace("dh", "d")
+                .replace("gh", "g")
+                .replace('q', 'k');
+        StringBuilder collapsed = new StringBuilder(folded.length());
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (collapsed.length() == 0 || collapsed.charAt(collapsed.length() - 1) != c) {
+                collapsed.append(c);
+            }
+        }
+        return collapsed.toString();
+    }
+
+    private static char codeOf(char c) {
+        switch (c) {
+            case 'b': case 'f': case 'p': case 'v':
+                return '1';
+            case 'c': case 'g': case 'j': case 'k': case 's': case 'x': case 'z':
+                return '2';
+            case 'd': case 't':
+                return '3';
+            case 'l': case 'r':
+                return '4';
+            case 'm': case 'n':
+                return '5';
+            default:
+                return '0';
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.social.assistance.service;
+
+import com.social.assistance.model.RefreshToken;
+import com.social.assistance.model.User;
+import com.social.assistance.repository.RefreshTokenRepository;
+import com.social.assistance.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque, single-use refresh tokens. Only a SHA-256 hash is stored; each refresh revokes the
+ * presented token and issues a new one in the same family. Presenting a token that was already
+ * rotated means it leaked, so the whole family is revoked and the user has to log in again.
+ * <p>
+ * This is where revocation is enforced for short-lived access tokens: a refresh is refused if
+ * the user has been disabled or their token version has moved on since login.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final long refreshExpirationMillis;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository,
+                               @Value("${jwt.refresh-expiration:1209600000}") long refreshExpirationMillis) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.refreshExpirationMillis = refreshExpirationMillis;
+    }
+
+    /**
+     * Start a new token family for a user who has just logged in.
+     * @return The opaque token to hand to the client
+     */
+    @Transactional
+    public String issue(String username, int tokenVersion) {
+        return create(UUID.randomUUID().toString(), username, tokenVersion);
+    }
+
+    /**
+     * Exchange a refresh token for a new one.
+     * @throws BadCredentialsException if the token is unknown, expired, already used or no longer
+     * valid for its user
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        LocalDateTime now = LocalDateTime.now();
+
+        if (current.getRevokedAt() != null) {
+            int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            logger.warn("Reuse of rotated refresh token for user {}; revoked {} tokens in its family",
+                    current.getUsername(), revoked);
+            throw new BadCredentialsException("Refresh token has already been used");
+        }
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new BadCredentialsException("Refresh token has expired");
+        }
+
+        current.setRevokedAt(now);
+        User user = userRepository.findByUsername(current.getUsername()).orElse(null);
+        if (user == null || !Boolean.TRUE.equals(user.getEnabled())
+                || !user.getTokenVersion().equals(current.getTokenVersion())) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            throw new BadCredentialsException("Refresh token has been revoked");
+        }
+
+        String next = create(current.getFamilyId(), user.getUsername(), user.getTokenVersion());
+        return new Rotation(user.getUsername(), user.getTokenVersion(), next);
+    }
+
+    /**
+     * End the session a refresh token belongs to. Unknown tokens are ignored.
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-cleanup-interval:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            logger.debug("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    private String create(String familyId, String username, int tokenVersion) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(rawToken));
+        token.setFamilyId(familyId);
+        token.setUsername(username);
+        token.setTokenVersion(tokenVersion);
+        token.setExpiresAt(LocalDateTime.now().plusNanos(refreshExpirationMillis * 1_000_000));
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+
+    static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static final class Rotation {
+        private final String username;
+        private final int tokenVersion;
+        private final String refreshToken;
+
+        public Rotation(String username, int tokenVersion, String refreshToken) {
+            this.username = username;
+            this.tokenVersion = tokenVersion;
+            this.refreshToken = refreshToken;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public int getTokenVersion() {
+            return tokenVersion;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+}
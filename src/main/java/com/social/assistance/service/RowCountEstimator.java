@@ -0,0 +1,108 @@
+package com.social.assistance.service;
+
+import com.social.assistance.dto.CountMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Cheap totals for {@code count=approx} listings.
+ * <p>
+ * Unfiltered listings read the planner's row estimate ({@code pg_class.reltuples}), which
+ * autovacuum keeps within a few percent of the real size. Filtered listings run the exact
+ * count at most once per {@link #TTL_MILLIS} for each distinct filter.
+ */
+@Component
+public class RowCountEstimator {
+
+    private static final Logger logger = LoggerFactory.getLogger(RowCountEstimator.class);
+
+    static final long TTL_MILLIS = 60_000;
+    private static final int MAX_ENTRIES = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+
+    /**
+     * Run a paginated query in the given mode. {@code approximateTotal} is only invoked for
+     * {@code APPROX} and may be an estimate; the returned total never contradicts the rows
+     * actually fetched.
+     */
+    public <T> Slice<T> fetch(CountMode count, Pageable pageable,
+                              Function<Pageable, Page<T>> exact,
+                              Function<Pageable, Slice<T>> slice,
+                              LongSupplier approximateTotal) {
+        switch (count) {
+            case NONE:
+                return slice.apply(pageable);
+            case APPROX:
+                Slice<T> rows = slice.apply(pageable);
+                long seen = pageable.isPaged() ? pageable.getOffset() + rows.getNumberOfElements() : rows.getNumberOfElements();
+                long total = rows.hasNext() ? Math.max(approximateTotal.getAsLong(), seen + 1) : seen;
+                return new PageImpl<>(rows.getContent(), pageable, total);
+            default:
+                return exact.apply(pageable);
+        }
+    }
+
+    /**
+     * Planner estimate for a whole table, falling back to a cached exact count when the table
+     * has never been analyzed or the statistics are unavailable.
+     */
+    public long estimate(String table, LongSupplier exactCount) {
+        try {
+            Object result = entityManager
+                    .createNativeQuery("SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = to_regclass(:table)")
+                    .setParameter("table", table)
+                    .getSingleResult();
+            long estimate = result != null ? ((Number) result).longValue() : -1;
+            if (estimate > 0) {
+                return estimate;
+            }
+        } catch (PersistenceException e) {
+            logger.debug("No planner statistics for {}: {}", table, e.getMessage());
+        }
+        return cached(table, exactCount);
+    }
+
+    /**
+     * Exact count for {@code key}, reused until it is {@link #TTL_MILLIS} old.
+     */
+    public long cached(String key, LongSupplier exactCount) {
+        long now = System.currentTimeMillis();
+        CachedCount entry = counts.get(key);
+        if (entry != null && entry.expiresAt > now) {
+            return entry.value;
+        }
+        if (counts.size() >= MAX_ENTRIES) {
+            counts.clear();
+        }
+        long value = exactCount.getAsLong();
+        counts.put(key, new CachedCount(value, now + TTL_MILLIS));
+        return value;
+    }
+
+    private static final class CachedCount {
+        final long value;
+        final long expiresAt;
+
+        CachedCount(long value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.social.assistance.service;
+
+import com.social.assistance.config.JwtUtil;
+import com.social.assistance.exception.InvalidStateException;
+import com.social.assistance.model.RevokedToken;
+import com.social.assistance.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked token ids ({@code jti}), checked on every authenticated request without touching the
+ * database. A Bloom filter answers the common "not revoked" case; its rare positives are
+ * confirmed against an in-memory map of jti to expiry. Both are loaded from
+ * {@code revoked_tokens} at startup and re-synced periodically so that revocations made on other
+ * instances are picked up; entries are dropped once the token would have expired anyway.
+ * <p>
+ * Revoking all of a user's tokens goes through {@link UserService#revokeTokens(String)} instead,
+ * which bumps the user's token version.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private static final int EXPECTED_REVOCATIONS = 100_000;
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final JwtUtil jwtUtil;
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter = new BloomFilter(EXPECTED_REVOCATIONS, FALSE_POSITIVE_RATE);
+    // Held while adding a jti and while rebuilding the filter, so no jti lands only in a filter
+    // that is about to be replaced; isRevoked reads without it
+    private final Object filterLock = new Object();
+    private volatile LocalDateTime lastSync;
+
+    // Deliberately independent of UserService: this bean is part of the security filter chain,
+    // and UserService needs the PasswordEncoder that chain's configuration provides
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository, JwtUtil jwtUtil) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.jwtUtil = jwtUtil;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedToken> active = revokedTokenRepository.findByExpiresAtAfter(now);
+        active.forEach(this::remember);
+        lastSync = now;
+        logger.info("Loaded {} revoked tokens", active.size());
+    }
+
+    public boolean isRevoked(String jti) {
+        return jti != null && bloomFilter.mightContain(jti) && revoked.containsKey(jti);
+    }
+
+    /**
+     * Revoke a single token until it expires.
+     * @throws InvalidStateException if the token is not one of ours or predates token ids
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
+    public void revokeToken(String token) {
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(token);
+        } catch (ExpiredJwtException e) {
+            return; // already unusable
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidStateException("Invalid token: " + e.getMessage());
+        }
+        if (claims.getId() == null) {
+            throw new InvalidStateException("Token has no id; revoke the user's tokens instead");
+        }
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setJti(claims.getId());
+        revokedToken.setUsername(claims.getSubject());
+        revokedToken.setExpiresAt(LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault()));
+        remember(revokedTokenRepository.save(revokedToken));
+        logger.info("Revoked token {} of user {}", claims.getId(), claims.getSubject());
+    }
+
+    /**
+     * Pick up revocations made on other instances, forget expired ones and purge them from the table.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation-sync-interval:60000}")
+    @Transactional
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastSync != null ? lastSync.minusSeconds(5) : now.minusYears(1);
+        revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since, now).forEach(this::remember);
+        lastSync = now;
+
+        long nowMillis = System.currentTimeMillis();
+        if (revoked.values().removeIf(expiresAt -> expiresAt < nowMillis)) {
+            rebuildFilter();
+        }
+        int purged = revokedTokenRepository.deleteExpired(now);
+        if (purged > 0) {
+            logger.info("Purged {} expired revoked tokens", purged);
+        }
+    }
+
+    /**
+     * Replace the filter with one holding only the ids still in the map, dropping the bits of
+     * forgotten ones.
+     */
+    void rebuildFilter() {
+        synchronized (filterLock) {
+            BloomFilter rebuilt = new BloomFilter(EXPECTED_REVOCATIONS, FALSE_POSITIVE_RATE);
+            revoked.keySet().forEach(rebuilt::put);
+            bloomFilter = rebuilt;
+        }
+    }
+
+    private void remember(RevokedToken revokedToken) {
+        long expiresAt = revokedToken.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (expiresAt > Instant.now().toEpochMilli()) {
+            synchronized (filterLock) {
+                revoked.put(revokedToken.getJti(), expiresAt);
+                bloomFilter.put(revokedToken.getJti());
+            }
+        }
+    }
+}
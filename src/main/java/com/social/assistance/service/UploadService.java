@@ -10,6 +10,7 @@ import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -45,6 +46,10 @@ public class UploadService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserService userService; // Added for consistency
+    private final ApplicantSearchIndex applicantSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OptimisticRetry optimisticRetry;
+    private final GeographyTree geographyTree;
 
     private static final String UPLOAD_DIR = "uploads/";
 
@@ -56,7 +61,10 @@ public class UploadService {
     public List<Applicant> uploadApplicants(MultipartFile file) {
         validateFile(file, "csv", "xlsx");
         List<Applicant> applicants = parseApplicants(file);
-        return applicantRepository.saveAll(applicants);
+        applicants.forEach(geographyTree::locate);
+        List<Applicant> savedApplicants = applicantRepository.saveAll(applicants);
+        applicantSearchIndex.indexAll(savedApplicants);
+        return savedApplicants;
     }
 
     @PreAuthorize("hasRole('DATA_COLLECTOR')")
@@ -80,6 +88,7 @@ public class UploadService {
     public void uploadPhysicalLocations(MultipartFile file) {
         validateFile(file, "csv", "xlsx");
         parseAndSavePhysicalLocations(file);
+        eventPublisher.publishEvent(new GeographyChangedEvent());
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -87,18 +96,24 @@ public class UploadService {
     public List<User> uploadUsers(MultipartFile file) {
         validateFile(file, "csv", "xlsx");
         List<User> users = parseUsers(file);
-        return userRepository.saveAll(users);
+        List<User> saved = userRepository.saveAll(users);
+        saved.forEach(user -> eventPublisher.publishEvent(new UserChangedEvent(user.getUsername())));
+        return saved;
     }
 
     @PreAuthorize("hasRole('DATA_COLLECTOR')")
-    @Transactional
     public String uploadApplicantImage(Integer applicantId, MultipartFile image) {
         validateImage(image);
-        Applicant applicant = applicantRepository.findById(applicantId)
+        applicantRepository.findById(applicantId)
                 .orElseThrow(() -> new ResourceNotFoundException("Applicant not found with ID: " + applicantId));
         String filePath = saveFile(image, "images/" + applicantId + "/");
-        applicant.setImagePath(filePath);
-        applicantRepository.save(applicant);
+        // Only the image path is written, so an edit that raced us is re-read and the path reapplied
+        optimisticRetry.execute(() -> {
+            Applicant applicant = applicantRepository.findById(applicantId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Applicant not found with ID: " + applicantId));
+            applicant.setImagePath(filePath);
+            return applicantRepository.save(applicant);
+        });
         return filePath;
     }
 
@@ -0,0 +1,18 @@
+package com.social.assistance.service;
+
+/**
+ * Published when a user's credentials, status or role change, so that cached authentication
+ * state for that username can be dropped once the change commits.
+ */
+public class UserChangedEvent {
+
+    private final String username;
+
+    public UserChangedEvent(String username) {
+        this.username = username;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+}
@@ -6,6 +6,7 @@ import com.social.assistance.exception.InvalidStateException;
 import com.social.assistance.exception.ResourceNotFoundException;
 import com.social.assistance.model.User;
 import com.social.assistance.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -21,13 +22,16 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @PersistenceContext
     private EntityManager entityManager; // For stored procedures (optional)
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     // Valid roles for the application
@@ -74,11 +78,14 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found after registration"));
         */
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(saved.getUsername()));
+        return saved;
     }
 
     /**
-     * Change password for the authenticated user.
+     * Change password for the authenticated user. Tokens issued before the change stop being
+     * accepted in stateless mode.
      * @param username Current user's username
      * @param oldPassword Current password
      * @param newPassword New password
@@ -95,6 +102,7 @@ public class UserService {
         }
 
         user.setPassword(passwordEncoder.encode(newPassword));
+        user.setTokenVersion(user.getTokenVersion() + 1);
 
         // Optional: Use stored procedure instead
         /*
@@ -105,6 +113,42 @@ public class UserService {
         */
 
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(username));
+    }
+
+    /**
+     * Revoke every token issued to a user so far (admin use, e.g. for a leaked token).
+     * @param username User whose tokens should stop being accepted
+     * @throws ResourceNotFoundException if user not found
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
+    public void revokeTokens(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(username));
+    }
+
+    /**
+     * Enable or disable a user. Disabling also bumps the token version, so tokens already issued
+     * stop being accepted at once in stateless mode instead of when the cached state expires.
+     * @param username User to enable or disable
+     * @param enabled New status
+     * @throws ResourceNotFoundException if user not found
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
+    public void setEnabled(String username, boolean enabled) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
+        if (!enabled && Boolean.TRUE.equals(user.getEnabled())) {
+            user.setTokenVersion(user.getTokenVersion() + 1);
+        }
+        user.setEnabled(enabled);
+        userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(username));
     }
 
     /**
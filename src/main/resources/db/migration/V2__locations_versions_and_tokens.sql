@@ -0,0 +1,206 @@
+-- Columns, tables and procedures added to schema.sql since the V1 baseline. Runs in one
+-- transaction; the guards let it run on databases where Hibernate's ddl-auto or a newer
+-- schema.sql already created some of them.
+
+ALTER TABLE applicants
+    -- Ancestors of village_id, kept in step by the application and insert_application
+    ADD COLUMN IF NOT EXISTS sub_location_id INTEGER REFERENCES sub_locations(id),
+    ADD COLUMN IF NOT EXISTS location_id INTEGER REFERENCES locations(id),
+    ADD COLUMN IF NOT EXISTS sub_county_id INTEGER REFERENCES sub_counties(id),
+    ADD COLUMN IF NOT EXISTS county_id INTEGER REFERENCES counties(id),
+    ADD COLUMN IF NOT EXISTS version INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE applications
+    ADD COLUMN IF NOT EXISTS version INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE users
+    ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE maker_checker_logs
+    ADD COLUMN IF NOT EXISTS claimed_by VARCHAR(50),
+    ADD COLUMN IF NOT EXISTS claim_expires_at TIMESTAMP,
+    ADD COLUMN IF NOT EXISTS version INTEGER NOT NULL DEFAULT 0;
+
+-- Revoked JWTs, kept until the token would have expired
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti VARCHAR(36) PRIMARY KEY,
+    username VARCHAR(50) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Refresh tokens, stored as SHA-256 hashes; rotated on every use
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id SERIAL PRIMARY KEY,
+    token_hash VARCHAR(64) NOT NULL UNIQUE,
+    family_id VARCHAR(36) NOT NULL,
+    username VARCHAR(50) NOT NULL,
+    token_version INTEGER NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    revoked_at TIMESTAMP
+);
+
+-- Trigram indexes of the name search (V3)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Replaced by set-based statements in ApplicantRepositoryImpl
+DROP FUNCTION IF EXISTS verify_applicants(INTEGER[], INTEGER, BOOLEAN);
+
+-- Procedures: location columns, version bumps, the pending check and the Reject action of
+-- confirm_maker_checker, and token revocation on password change
+
+CREATE OR REPLACE PROCEDURE insert_application(
+    p_first_name VARCHAR(50),
+    p_middle_name VARCHAR(50),
+    p_last_name VARCHAR(50),
+    p_sex_id INTEGER,
+    p_age INTEGER,
+    p_marital_status_id INTEGER,
+    p_id_number VARCHAR(20),
+    p_village_id INTEGER,
+    p_postal_address VARCHAR(255),
+    p_physical_address VARCHAR(255),
+    p_telephone VARCHAR(20),
+    p_programme_id INTEGER
+)
+LANGUAGE plpgsql AS $$
+DECLARE
+    v_applicant_id INTEGER;
+BEGIN
+    INSERT INTO applicants (
+        first_name, middle_name, last_name, sex_id, age, marital_status_id,
+        id_number, village_id, sub_location_id, location_id, sub_county_id, county_id,
+        postal_address, physical_address, telephone
+    )
+    SELECT
+        p_first_name, p_middle_name, p_last_name, p_sex_id, p_age, p_marital_status_id,
+        p_id_number, v.id, sl.id, l.id, sc.id, sc.county_id,
+        p_postal_address, p_physical_address, p_telephone
+    FROM villages v
+    JOIN sub_locations sl ON sl.id = v.sub_location_id
+    JOIN locations l ON l.id = sl.location_id
+    JOIN sub_counties sc ON sc.id = l.sub_county_id
+    WHERE v.id = p_village_id
+    RETURNING id INTO v_applicant_id;
+
+    IF v_applicant_id IS NULL THEN
+        RAISE EXCEPTION 'Village not found with ID: %', p_village_id;
+    END IF;
+
+    INSERT INTO applications (applicant_id, programme_id)
+    VALUES (v_applicant_id, p_programme_id);
+END;
+$$;
+
+CREATE OR REPLACE PROCEDURE verify_applicant(
+    p_applicant_id INTEGER,
+    p_user_id INTEGER,
+    p_use_maker_checker BOOLEAN DEFAULT FALSE
+)
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF p_use_maker_checker THEN
+        UPDATE applicants
+        SET version = version + 1,
+            verification_status = 'Proposed'
+        WHERE id = p_applicant_id;
+
+        INSERT INTO maker_checker_logs (entity_type, entity_id, action, status, maker_id)
+        VALUES ('Applicant', p_applicant_id, 'Verify', 'Proposed', p_user_id);
+    ELSE
+        UPDATE applicants
+        SET version = version + 1,
+            verification_status = 'Verified'
+        WHERE id = p_applicant_id;
+    END IF;
+END;
+$$;
+
+CREATE OR REPLACE PROCEDURE approve_application(
+    p_application_id INTEGER,
+    p_user_id INTEGER,
+    p_use_maker_checker BOOLEAN DEFAULT FALSE
+)
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF p_use_maker_checker THEN
+        UPDATE applications
+        SET version = version + 1,
+            status = 'Proposed',
+            maker_id = p_user_id
+        WHERE id = p_application_id;
+
+        INSERT INTO maker_checker_logs (entity_type, entity_id, action, status, maker_id)
+        VALUES ('Application', p_application_id, 'Approve', 'Proposed', p_user_id);
+    ELSE
+        UPDATE applications
+        SET version = version + 1,
+            status = 'Approved'
+        WHERE id = p_application_id;
+    END IF;
+END;
+$$;
+
+CREATE OR REPLACE PROCEDURE confirm_maker_checker(
+    p_log_id INTEGER,
+    p_checker_id INTEGER,
+    p_approve BOOLEAN
+)
+LANGUAGE plpgsql AS $$
+DECLARE
+    v_entity_type VARCHAR(20);
+    v_entity_id INTEGER;
+    v_action VARCHAR(20);
+BEGIN
+    SELECT entity_type, entity_id, action
+    INTO v_entity_type, v_entity_id, v_action
+    FROM maker_checker_logs
+    WHERE id = p_log_id AND status = 'Proposed'
+    FOR UPDATE;
+
+    IF NOT FOUND THEN
+        RAISE EXCEPTION 'Maker-checker log % is not pending', p_log_id;
+    END IF;
+
+    IF v_entity_type = 'Applicant' AND v_action = 'Verify' THEN
+        UPDATE applicants
+        SET version = version + 1,
+            verification_status = CASE WHEN p_approve THEN 'Verified' ELSE 'Rejected' END
+        WHERE id = v_entity_id;
+    ELSIF v_entity_type = 'Application' AND v_action = 'Approve' THEN
+        UPDATE applications
+        SET version = version + 1,
+            status = CASE WHEN p_approve THEN 'Approved' ELSE 'Rejected' END,
+            checker_id = p_checker_id
+        WHERE id = v_entity_id;
+    ELSIF v_entity_type = 'Application' AND v_action = 'Reject' THEN
+        UPDATE applications
+        SET version = version + 1,
+            status = CASE WHEN p_approve THEN 'Rejected' ELSE 'Pending' END,
+            checker_id = p_checker_id
+        WHERE id = v_entity_id;
+    END IF;
+
+    UPDATE maker_checker_logs
+    SET version = version + 1,
+        status = CASE WHEN p_approve THEN 'Approved' ELSE 'Rejected' END,
+        checker_id = p_checker_id,
+        updated_at = CURRENT_TIMESTAMP
+    WHERE id = p_log_id;
+END;
+$$;
+
+CREATE OR REPLACE PROCEDURE change_user_password(
+    p_user_id INTEGER,
+    p_new_password VARCHAR(255)
+)
+LANGUAGE plpgsql AS $$
+BEGIN
+    UPDATE users
+    SET password = p_new_password,
+        token_version = token_version + 1,
+        updated_at = CURRENT_TIMESTAMP
+    WHERE id = p_user_id;
+END;
+$$;
@@ -0,0 +1,29 @@
+-- Indexes added to schema.sql since the V1 baseline, apart from the applications indexes of
+-- V4. Every statement builds CONCURRENTLY, so Flyway runs this migration outside a transaction
+-- and the tables stay writable; IF NOT EXISTS lets a failed run be repeated.
+
+-- Name search: substring matches on the lower-cased names
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_applicants_first_name_trgm ON applicants USING gin (lower(first_name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_applicants_middle_name_trgm ON applicants USING gin (lower(middle_name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_applicants_last_name_trgm ON applicants USING gin (lower(last_name) gin_trgm_ops);
+
+-- Location filters with an age range, one per level of the denormalized hierarchy
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_applicants_village_age ON applicants(village_id, age);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_applicants_sub_location_age ON applicants(sub_location_id, age);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_applicants_location_age ON applicants(location_id, age);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_applicants_sub_county_age ON applicants(sub_county_id, age);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_applicants_county_age ON applicants(county_id, age);
+
+-- Verification status lists page and seek by id
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_applicants_verification_status ON applicants(verification_status, id);
+
+-- Token clean-up and revocation of a refresh token family
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_revoked_tokens_revoked_at ON revoked_tokens(revoked_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_family_id ON refresh_tokens(family_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens(expires_at);
+
+-- Pending maker-checker queue: only proposals are indexed
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_maker_checker_logs_proposed ON maker_checker_logs(id) WHERE status = 'Proposed';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_maker_checker_logs_proposed_type ON maker_checker_logs(entity_type, id) WHERE status = 'Proposed';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_maker_checker_logs_proposed_maker ON maker_checker_logs(maker_id, id) WHERE status = 'Proposed';
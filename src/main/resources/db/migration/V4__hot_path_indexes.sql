@@ -0,0 +1,22 @@
+-- Applications indexes of the hot list, export and report queries. Every statement builds or
+-- drops CONCURRENTLY, so Flyway runs this migration outside a transaction and the table stays
+-- writable; IF [NOT] EXISTS lets a failed run be repeated and skips indexes a database created
+-- from an older schema.sql already has, or never had.
+
+-- Lookups by applicant are served by the UNIQUE (applicant_id, programme_id) index
+DROP INDEX CONCURRENTLY IF EXISTS idx_applications_applicant_id;
+
+-- Status lists page and seek by id; the export filters a status over a date range
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_applications_status_id ON applications(status, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_applications_status_date ON applications(status, application_date);
+DROP INDEX CONCURRENTLY IF EXISTS idx_applications_status;
+
+-- Programme lists page by id and the per-programme report counts statuses from the index alone
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_applications_programme_status ON applications(programme_id, id) INCLUDE (status);
+DROP INDEX CONCURRENTLY IF EXISTS idx_applications_programme_id;
+
+-- The applicant search by application date probes applications of one day per applicant
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_applications_date_applicant ON applications(application_date, applicant_id);
+
+-- Backs the users foreign key; most applications never get a maker, so only those that do are indexed
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_applications_maker_id ON applications(maker_id) WHERE maker_id IS NOT NULL;
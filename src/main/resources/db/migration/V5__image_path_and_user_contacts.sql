@@ -0,0 +1,9 @@
+-- Columns the entities have always mapped but schema.sql never created; Hibernate's ddl-auto
+-- update used to add them, which databases created by these migrations no longer get.
+
+ALTER TABLE applicants
+    ADD COLUMN IF NOT EXISTS image_path VARCHAR(255);
+
+ALTER TABLE users
+    ADD COLUMN IF NOT EXISTS email VARCHAR(100) UNIQUE,
+    ADD COLUMN IF NOT EXISTS phone VARCHAR(20);
@@ -1,3 +1,5 @@
+-- The whole current schema in one place. Databases are created and upgraded by the Flyway
+-- migrations in db/migration, so every change made here also needs a migration.
 
 -- Lookup table for configurable items
 CREATE TABLE parameters (
@@ -56,10 +58,17 @@ CREATE TABLE applicants (
     marital_status_id INTEGER NOT NULL REFERENCES parameters(id),
     id_number VARCHAR(20) NOT NULL UNIQUE,
     village_id INTEGER NOT NULL REFERENCES villages(id),
+    -- Ancestors of village_id, kept in step by the application and insert_application
+    sub_location_id INTEGER REFERENCES sub_locations(id),
+    location_id INTEGER REFERENCES locations(id),
+    sub_county_id INTEGER REFERENCES sub_counties(id),
+    county_id INTEGER REFERENCES counties(id),
     postal_address VARCHAR(255),
     physical_address VARCHAR(255),
     telephone VARCHAR(20),
     verification_status VARCHAR(20) NOT NULL DEFAULT 'Pending',
+    image_path VARCHAR(255),
+    version INTEGER NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -83,6 +92,7 @@ CREATE TABLE applications (
     maker_id INTEGER REFERENCES users(id),
     checker_id INTEGER REFERENCES users(id),
     approved BOOLEAN NOT NULL DEFAULT FALSE,
+    version INTEGER NOT NULL DEFAULT 0,
     UNIQUE (applicant_id, programme_id),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
@@ -96,10 +106,33 @@ CREATE TABLE users (
     name VARCHAR(100) NOT NULL,
     role VARCHAR(50) NOT NULL CHECK (role IN ('ROLE_ADMIN', 'ROLE_APPLICANT', 'ROLE_VERIFIER', 'ROLE_APPROVER', 'ROLE_DATA_COLLECTOR', 'ROLE_USER')),
     enabled BOOLEAN NOT NULL DEFAULT TRUE,
+    token_version INTEGER NOT NULL DEFAULT 0,
+    email VARCHAR(100) UNIQUE,
+    phone VARCHAR(20),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Revoked JWTs, kept until the token would have expired
+CREATE TABLE revoked_tokens (
+    jti VARCHAR(36) PRIMARY KEY,
+    username VARCHAR(50) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Refresh tokens, stored as SHA-256 hashes; rotated on every use
+CREATE TABLE refresh_tokens (
+    id SERIAL PRIMARY KEY,
+    token_hash VARCHAR(64) NOT NULL UNIQUE,
+    family_id VARCHAR(36) NOT NULL,
+    username VARCHAR(50) NOT NULL,
+    token_version INTEGER NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    revoked_at TIMESTAMP
+);
+
 -- Maker-Checker Logs
 CREATE TABLE maker_checker_logs (
     id SERIAL PRIMARY KEY,
@@ -109,16 +142,45 @@ CREATE TABLE maker_checker_logs (
     status VARCHAR(20) NOT NULL,
     maker_id INTEGER NOT NULL REFERENCES users(id),
     checker_id INTEGER REFERENCES users(id),
+    claimed_by VARCHAR(50),
+    claim_expires_at TIMESTAMP,
+    version INTEGER NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
 -- Indexes
-CREATE INDEX idx_applications_applicant_id ON applications(applicant_id);
-CREATE INDEX idx_applications_status ON applications(status);
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Lookups by applicant are served by the UNIQUE (applicant_id, programme_id) index.
+-- Status and programme lists page and seek by id; the programme index also covers the status
+-- counts of the per-programme report, so that report is an index-only scan
+CREATE INDEX idx_applications_status_id ON applications(status, id);
+CREATE INDEX idx_applications_status_date ON applications(status, application_date);
+CREATE INDEX idx_applications_programme_status ON applications(programme_id, id) INCLUDE (status);
+CREATE INDEX idx_applications_date_applicant ON applications(application_date, applicant_id);
+-- Backs the users foreign key; most applications never get a maker, so only those that do are indexed
+CREATE INDEX idx_applications_maker_id ON applications(maker_id) WHERE maker_id IS NOT NULL;
 CREATE INDEX idx_applicants_last_name ON applicants(last_name);
+CREATE INDEX idx_applicants_first_name_trgm ON applicants USING gin (lower(first_name) gin_trgm_ops);
+CREATE INDEX idx_applicants_middle_name_trgm ON applicants USING gin (lower(middle_name) gin_trgm_ops);
+CREATE INDEX idx_applicants_last_name_trgm ON applicants USING gin (lower(last_name) gin_trgm_ops);
+CREATE INDEX idx_applicants_village_age ON applicants(village_id, age);
+CREATE INDEX idx_applicants_sub_location_age ON applicants(sub_location_id, age);
+CREATE INDEX idx_applicants_location_age ON applicants(location_id, age);
+CREATE INDEX idx_applicants_sub_county_age ON applicants(sub_county_id, age);
+CREATE INDEX idx_applicants_county_age ON applicants(county_id, age);
+CREATE INDEX idx_applicants_verification_status ON applicants(verification_status, id);
 CREATE INDEX idx_users_username ON users(username);
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
+CREATE INDEX idx_revoked_tokens_revoked_at ON revoked_tokens(revoked_at);
+CREATE INDEX idx_refresh_tokens_family_id ON refresh_tokens(family_id);
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens(expires_at);
 CREATE INDEX idx_maker_checker_logs_entity ON maker_checker_logs(entity_type, entity_id);
+-- Pending queue: only proposals are indexed, so the indexes stay small as decided logs pile up
+CREATE INDEX idx_maker_checker_logs_proposed ON maker_checker_logs(id) WHERE status = 'Proposed';
+CREATE INDEX idx_maker_checker_logs_proposed_type ON maker_checker_logs(entity_type, id) WHERE status = 'Proposed';
+CREATE INDEX idx_maker_checker_logs_proposed_maker ON maker_checker_logs(maker_id, id) WHERE status = 'Proposed';
 
 -- Stored Procedures
 
@@ -142,11 +204,23 @@ DECLARE
 BEGIN
     INSERT INTO applicants (
         first_name, middle_name, last_name, sex_id, age, marital_status_id,
-        id_number, village_id, postal_address, physical_address, telephone
-    ) VALUES (
+        id_number, village_id, sub_location_id, location_id, sub_county_id, county_id,
+        postal_address, physical_address, telephone
+    )
+    SELECT
         p_first_name, p_middle_name, p_last_name, p_sex_id, p_age, p_marital_status_id,
-        p_id_number, p_village_id, p_postal_address, p_physical_address, p_telephone
-    ) RETURNING id INTO v_applicant_id;
+        p_id_number, v.id, sl.id, l.id, sc.id, sc.county_id,
+        p_postal_address, p_physical_address, p_telephone
+    FROM villages v
+    JOIN sub_locations sl ON sl.id = v.sub_location_id
+    JOIN locations l ON l.id = sl.location_id
+    JOIN sub_counties sc ON sc.id = l.sub_county_id
+    WHERE v.id = p_village_id
+    RETURNING id INTO v_applicant_id;
+
+    IF v_applicant_id IS NULL THEN
+        RAISE EXCEPTION 'Village not found with ID: %', p_village_id;
+    END IF;
 
     INSERT INTO applications (applicant_id, programme_id)
     VALUES (v_applicant_id, p_programme_id);
@@ -162,14 +236,16 @@ LANGUAGE plpgsql AS $$
 BEGIN
     IF p_use_maker_checker THEN
         UPDATE applicants
-        SET verification_status = 'Proposed'
+        SET version = version + 1,
+            verification_status = 'Proposed'
         WHERE id = p_applicant_id;
 
         INSERT INTO maker_checker_logs (entity_type, entity_id, action, status, maker_id)
         VALUES ('Applicant', p_applicant_id, 'Verify', 'Proposed', p_user_id);
     ELSE
         UPDATE applicants
-        SET verification_status = 'Verified'
+        SET version = version + 1,
+            verification_status = 'Verified'
         WHERE id = p_applicant_id;
     END IF;
 END;
@@ -184,7 +260,8 @@ LANGUAGE plpgsql AS $$
 BEGIN
     IF p_use_maker_checker THEN
         UPDATE applications
-        SET status = 'Proposed',
+        SET version = version + 1,
+            status = 'Proposed',
             maker_id = p_user_id
         WHERE id = p_application_id;
 
@@ -192,7 +269,8 @@ BEGIN
         VALUES ('Application', p_application_id, 'Approve', 'Proposed', p_user_id);
     ELSE
         UPDATE applications
-        SET status = 'Approved'
+        SET version = version + 1,
+            status = 'Approved'
         WHERE id = p_application_id;
     END IF;
 END;
@@ -212,21 +290,35 @@ BEGIN
     SELECT entity_type, entity_id, action
     INTO v_entity_type, v_entity_id, v_action
     FROM maker_checker_logs
-    WHERE id = p_log_id;
+    WHERE id = p_log_id AND status = 'Proposed'
+    FOR UPDATE;
+
+    IF NOT FOUND THEN
+        RAISE EXCEPTION 'Maker-checker log % is not pending', p_log_id;
+    END IF;
 
     IF v_entity_type = 'Applicant' AND v_action = 'Verify' THEN
         UPDATE applicants
-        SET verification_status = CASE WHEN p_approve THEN 'Verified' ELSE 'Rejected' END
+        SET version = version + 1,
+            verification_status = CASE WHEN p_approve THEN 'Verified' ELSE 'Rejected' END
         WHERE id = v_entity_id;
     ELSIF v_entity_type = 'Application' AND v_action = 'Approve' THEN
         UPDATE applications
-        SET status = CASE WHEN p_approve THEN 'Approved' ELSE 'Rejected' END,
+        SET version = version + 1,
+            status = CASE WHEN p_approve THEN 'Approved' ELSE 'Rejected' END,
+            checker_id = p_checker_id
+        WHERE id = v_entity_id;
+    ELSIF v_entity_type = 'Application' AND v_action = 'Reject' THEN
+        UPDATE applications
+        SET version = version + 1,
+            status = CASE WHEN p_approve THEN 'Rejected' ELSE 'Pending' END,
             checker_id = p_checker_id
         WHERE id = v_entity_id;
     END IF;
 
     UPDATE maker_checker_logs
-    SET status = CASE WHEN p_approve THEN 'Approved' ELSE 'Rejected' END,
+    SET version = version + 1,
+        status = CASE WHEN p_approve THEN 'Approved' ELSE 'Rejected' END,
         checker_id = p_checker_id,
         updated_at = CURRENT_TIMESTAMP
     WHERE id = p_log_id;
@@ -254,6 +346,7 @@ LANGUAGE plpgsql AS $$
 BEGIN
     UPDATE users
     SET password = p_new_password,
+        token_version = token_version + 1,
         updated_at = CURRENT_TIMESTAMP
     WHERE id = p_user_id;
 END;
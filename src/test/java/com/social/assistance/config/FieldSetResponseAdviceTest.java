@@ -0,0 +1,109 @@
+package com.social.assistance.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.social.assistance.controller.ApplicationController;
+import com.social.assistance.dto.ApplicationSummary;
+import com.social.assistance.dto.CountMode;
+import com.social.assistance.dto.CursorSlice;
+import com.social.assistance.dto.FieldSet;
+import com.social.assistance.service.ApplicationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Serializes list responses through the advice and the object mapper as {@link JacksonConfig}
+ * customizes it, without a database or security context.
+ */
+@ExtendWith(MockitoExtension.class)
+class FieldSetResponseAdviceTest {
+
+    @Mock
+    private ApplicationService applicationService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        new JacksonConfig().fieldSetFilter().customize(builder);
+        ObjectMapper objectMapper = builder.build();
+        mockMvc = MockMvcBuilders.standaloneSetup(new ApplicationController(applicationService))
+                .setControllerAdvice(new FieldSetResponseAdvice())
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .build();
+    }
+
+    @Test
+    void fields_writesOnlyRequestedPropertiesAndId() throws Exception {
+        when(applicationService.getAllApplications(any(Pageable.class), eq(CountMode.EXACT), argThat(fields -> fields.names().contains("status"))))
+                .thenReturn(new PageImpl<>(Collections.singletonList(summary())));
+
+        mockMvc.perform(get("/api/applications").param("fields", "status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].status").value("Pending"))
+                .andExpect(jsonPath("$.content[0].applicantName").doesNotExist())
+                .andExpect(jsonPath("$.content[0].programmeName").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    void withoutFields_writesEveryProperty() throws Exception {
+        when(applicationService.getAllApplications(any(Pageable.class), eq(CountMode.EXACT), eq(FieldSet.ALL)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(summary())));
+
+        mockMvc.perform(get("/api/applications"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].status").value("Pending"))
+                .andExpect(jsonPath("$.content[0].applicantName").value("Peter Otieno"))
+                .andExpect(jsonPath("$.content[0].programmeName").value("Elderly Support"));
+    }
+
+    @Test
+    void fields_narrowsCursorSliceItemsButNotTheWrapper() throws Exception {
+        when(applicationService.getApplicationsAfter(isNull(), eq(20), argThat(fields -> fields.names().contains("programmeName"))))
+                .thenReturn(new CursorSlice<>(Collections.singletonList(summary()), "next", true, 20));
+
+        mockMvc.perform(get("/api/applications").param("limit", "20").param("fields", "programmeName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].programmeName").value("Elderly Support"))
+                .andExpect(jsonPath("$.content[0].status").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    private static ApplicationSummary summary() {
+        ApplicationSummary summary = new ApplicationSummary();
+        summary.setId(1);
+        summary.setApplicantName("Peter Otieno");
+        summary.setProgrammeName("Elderly Support");
+        summary.setStatus("Pending");
+        summary.setApplicationDate(LocalDate.of(2025, 3, 14));
+        return summary;
+    }
+}
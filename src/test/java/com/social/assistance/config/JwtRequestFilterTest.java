@@ -0,0 +1,135 @@
+package com.social.assistance.config;
+
+import com.social.assistance.service.TokenRevocationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtRequestFilterTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-test-secret-test-secret-test-secret";
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Mock
+    private UserStateCache userStateCache;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private JwtUtil jwtUtil;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 60_000L);
+        userDetails = new User("collector", "encoded",
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_DATA_COLLECTOR")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void stateless_currentVersion_authenticatesFromClaims() throws Exception {
+        when(userStateCache.get("collector")).thenReturn(new UserStateCache.UserState(true, 2));
+
+        MockHttpServletResponse response = filter(true, jwtUtil.generateToken(userDetails, 2));
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(200, response.getStatus());
+        assertNotNull(authentication);
+        assertEquals("ROLE_DATA_COLLECTOR", authentication.getAuthorities().iterator().next().getAuthority());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void stateless_staleVersion_notAuthenticated() throws Exception {
+        when(userStateCache.get("collector")).thenReturn(new UserStateCache.UserState(true, 3));
+
+        filter(true, jwtUtil.generateToken(userDetails, 2));
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void stateless_disabledUser_notAuthenticated() throws Exception {
+        when(userStateCache.get("collector")).thenReturn(new UserStateCache.UserState(false, 2));
+
+        filter(true, jwtUtil.generateToken(userDetails, 2));
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void stateful_loadsUserOnce() throws Exception {
+        when(userDetailsService.loadUserByUsername("collector")).thenReturn(userDetails);
+        when(userStateCache.get("collector")).thenReturn(new UserStateCache.UserState(true, 0));
+
+        filter(false, jwtUtil.generateToken(userDetails));
+
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(userDetailsService, times(1)).loadUserByUsername("collector");
+    }
+
+    @Test
+    void stateful_revokedUserTokens_notAuthenticated() throws Exception {
+        when(userDetailsService.loadUserByUsername("collector")).thenReturn(userDetails);
+        when(userStateCache.get("collector")).thenReturn(new UserStateCache.UserState(true, 1));
+
+        filter(false, jwtUtil.generateToken(userDetails, 0));
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void revokedToken_returnsUnauthorized() throws Exception {
+        when(tokenRevocationService.isRevoked(anyString())).thenReturn(true);
+
+        MockHttpServletResponse response = filter(true, jwtUtil.generateToken(userDetails));
+
+        assertEquals(401, response.getStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(userStateCache);
+    }
+
+    @Test
+    void tamperedToken_returnsUnauthorized() throws Exception {
+        String token = jwtUtil.generateToken(userDetails);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        MockHttpServletResponse response = filter(false, tampered);
+
+        assertEquals(401, response.getStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private MockHttpServletResponse filter(boolean stateless, String token) throws Exception {
+        JwtRequestFilter filter = new JwtRequestFilter(userDetailsService, jwtUtil, userStateCache, tokenRevocationService, stateless);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/applicants");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,84 @@
+package com.social.assistance.config;
+
+import com.social.assistance.exception.TooManyRequestsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private LoginThrottle loginThrottle;
+
+    @BeforeEach
+    void setUp() {
+        // 3 attempts per user, 10 per IP, refilled over 60 seconds; one hash at a time
+        loginThrottle = new LoginThrottle(3, 10, 60_000, 1, 50, clock::get);
+    }
+
+    @Test
+    void guard_userOverLimit_throwsWithRetryAfter() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals("ok", loginThrottle.guard("Collector", "10.0.0.1", () -> "ok"));
+        }
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> loginThrottle.guard("collector", "10.0.0.2", () -> "ok"));
+        assertEquals(20, ex.getRetryAfterSeconds());
+    }
+
+    @Test
+    void guard_refillsOverTime() {
+        for (int i = 0; i < 3; i++) {
+            loginThrottle.guard("collector", "10.0.0.1", () -> "ok");
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(20));
+
+        assertEquals("ok", loginThrottle.guard("collector", "10.0.0.1", () -> "ok"));
+    }
+
+    @Test
+    void guard_ipOverLimit_throwsAcrossUsernames() {
+        for (int i = 0; i < 10; i++) {
+            loginThrottle.guard("user" + i, "10.0.0.1", () -> "ok");
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> loginThrottle.guard("other", "10.0.0.1", () -> "ok"));
+        assertEquals("ok", loginThrottle.guard("other", "10.0.0.2", () -> "ok"));
+    }
+
+    @Test
+    void guard_hashingSaturated_rejectsInsteadOfQueueing() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> loginThrottle.guard("first", "10.0.0.1", () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "ok";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                    () -> loginThrottle.guard("second", "10.0.0.2", () -> "ok"));
+            assertEquals(1, ex.getRetryAfterSeconds());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals("ok", loginThrottle.guard("second", "10.0.0.2", () -> "ok"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.social.assistance.config;
+
+import com.social.assistance.model.User;
+import com.social.assistance.repository.UserRepository;
+import com.social.assistance.service.UserChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDetailsServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserDetailsCache userDetailsCache;
+    private UserDetailsServiceImpl userDetailsService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsCache = new UserDetailsCache(100, 60_000);
+        userDetailsService = new UserDetailsServiceImpl(userRepository, userDetailsCache);
+        user = new User();
+        user.setUsername("collector");
+        user.setPassword("encoded");
+        user.setRole("ROLE_DATA_COLLECTOR");
+    }
+
+    @Test
+    void loadUserByUsername_repeated_hitsCache() {
+        when(userRepository.findByUsername("collector")).thenReturn(Optional.of(user));
+
+        userDetailsService.loadUserByUsername("collector");
+        UserDetails second = userDetailsService.loadUserByUsername("collector");
+
+        assertEquals("ROLE_DATA_COLLECTOR", second.getAuthorities().iterator().next().getAuthority());
+        verify(userRepository, times(1)).findByUsername("collector");
+        assertEquals(1, userDetailsCache.stats().getHitCount());
+        assertEquals(0.5, userDetailsCache.stats().getHitRatio());
+    }
+
+    @Test
+    void loadUserByUsername_erasedCredentials_doNotLeakIntoCache() {
+        when(userRepository.findByUsername("collector")).thenReturn(Optional.of(user));
+
+        ((org.springframework.security.core.userdetails.User) userDetailsService.loadUserByUsername("collector"))
+                .eraseCredentials();
+
+        assertEquals("encoded", userDetailsService.loadUserByUsername("collector").getPassword());
+    }
+
+    @Test
+    void userChanged_evictsEntry() {
+        when(userRepository.findByUsername("collector")).thenReturn(Optional.of(user));
+        userDetailsService.loadUserByUsername("collector");
+
+        userDetailsCache.onUserChanged(new UserChangedEvent("collector"));
+        userDetailsService.loadUserByUsername("collector");
+
+        verify(userRepository, times(2)).findByUsername("collector");
+    }
+
+    @Test
+    void loadUserByUsername_unknownUser_notCached() {
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+
+        verify(userRepository, times(2)).findByUsername("ghost");
+    }
+}
@@ -2,6 +2,9 @@ package com.social.assistance.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.social.assistance.dto.ApplicantRequest;
+import com.social.assistance.dto.ApplicantSummary;
+import com.social.assistance.dto.CountMode;
+import com.social.assistance.dto.FieldSet;
 import com.social.assistance.model.Applicant;
 import com.social.assistance.service.ApplicantService;
 import org.junit.jupiter.api.Test;
@@ -57,7 +60,7 @@ class ApplicantControllerTest {
         applicant.setIdNumber("12345678");
         applicant.setVerificationStatus("Pending");
 
-        when(applicantService.createApplicant(any(Applicant.class))).thenReturn(applicant);
+        when(applicantService.createApplicant(any(Applicant.class), eq(false))).thenReturn(applicant);
 
         mockMvc.perform(post("/api/applicants")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -92,13 +95,13 @@ class ApplicantControllerTest {
     @Test
     @WithMockUser(roles = "DATA_COLLECTOR")
     void getAllApplicants_paginated_success() throws Exception {
-        Applicant applicant = new Applicant();
+        ApplicantSummary applicant = new ApplicantSummary();
         applicant.setId(1);
         applicant.setFirstName("John");
         applicant.setLastName("Doe");
-        Page<Applicant> page = new PageImpl<>(Collections.singletonList(applicant));
+        Page<ApplicantSummary> page = new PageImpl<>(Collections.singletonList(applicant));
 
-        when(applicantService.getAllApplicants(any(PageRequest.class))).thenReturn(page);
+        when(applicantService.getAllApplicants(any(PageRequest.class), eq(CountMode.EXACT), eq(FieldSet.ALL))).thenReturn(page);
 
         mockMvc.perform(get("/api/applicants")
                 .param("page", "0")
@@ -143,12 +146,12 @@ class ApplicantControllerTest {
     @Test
     @WithMockUser(roles = "VERIFIER")
     void filterApplicantsByStatus_success() throws Exception {
-        Applicant applicant = new Applicant();
+        ApplicantSummary applicant = new ApplicantSummary();
         applicant.setId(1);
         applicant.setVerificationStatus("Pending");
-        Page<Applicant> page = new PageImpl<>(Collections.singletonList(applicant));
+        Page<ApplicantSummary> page = new PageImpl<>(Collections.singletonList(applicant));
 
-        when(applicantService.filterApplicantsByStatus(eq("Pending"), any(PageRequest.class))).thenReturn(page);
+        when(applicantService.filterApplicantsByStatus(eq("Pending"), any(PageRequest.class), eq(CountMode.EXACT), eq(FieldSet.ALL))).thenReturn(page);
 
         mockMvc.perform(get("/api/applicants/filter/status")
                 .param("status", "Pending")
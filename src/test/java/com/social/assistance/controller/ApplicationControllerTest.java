@@ -2,6 +2,9 @@ package com.social.assistance.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.social.assistance.dto.ApplicationRequest;
+import com.social.assistance.dto.ApplicationSummary;
+import com.social.assistance.dto.CountMode;
+import com.social.assistance.dto.FieldSet;
 import com.social.assistance.model.Application;
 import com.social.assistance.service.ApplicationService;
 import org.junit.jupiter.api.Test;
@@ -74,12 +77,12 @@ class ApplicationControllerTest {
     @Test
     @WithMockUser(roles = "DATA_COLLECTOR")
     void getAllApplications_paginated_success() throws Exception {
-        Application application = new Application();
+        ApplicationSummary application = new ApplicationSummary();
         application.setId(1);
         application.setStatus("Pending");
-        Page<Application> page = new PageImpl<>(Collections.singletonList(application));
+        Page<ApplicationSummary> page = new PageImpl<>(Collections.singletonList(application));
 
-        when(applicationService.getAllApplications(any(PageRequest.class))).thenReturn(page);
+        when(applicationService.getAllApplications(any(PageRequest.class), eq(CountMode.EXACT), eq(FieldSet.ALL))).thenReturn(page);
 
         mockMvc.perform(get("/api/applications")
                 .param("page", "0")
@@ -103,12 +106,12 @@ class ApplicationControllerTest {
     @Test
     @WithMockUser(roles = "APPROVER")
     void filterApplicationsByApplicantAndStatus_paginated_success() throws Exception {
-        Application application = new Application();
+        ApplicationSummary application = new ApplicationSummary();
         application.setId(1);
         application.setStatus("Pending");
-        Page<Application> page = new PageImpl<>(Collections.singletonList(application));
+        Page<ApplicationSummary> page = new PageImpl<>(Collections.singletonList(application));
 
-        when(applicationService.filterApplicationsByApplicantAndStatus(eq(1), eq("Pending"), any(PageRequest.class))).thenReturn(page);
+        when(applicationService.filterApplicationsByApplicantAndStatus(eq(1), eq("Pending"), any(PageRequest.class), eq(CountMode.EXACT), eq(FieldSet.ALL))).thenReturn(page);
 
         mockMvc.perform(get("/api/applications/filter/applicant-status")
                 .param("applicantId", "1")
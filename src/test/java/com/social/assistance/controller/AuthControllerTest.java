@@ -2,9 +2,12 @@ package com.social.assistance.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.social.assistance.config.JwtUtil;
+import com.social.assistance.config.LoginThrottle;
+import com.social.assistance.config.UserStateCache;
 import com.social.assistance.dto.LoginRequest;
 import com.social.assistance.dto.UserRegistrationRequest;
 import com.social.assistance.model.User;
+import com.social.assistance.service.RefreshTokenService;
 import com.social.assistance.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -48,6 +51,12 @@ class AuthControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private UserStateCache userStateCache;
+
+    @MockBean
+    private RefreshTokenService refreshTokenService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -64,13 +73,16 @@ class AuthControllerTest {
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(null); // Authentication success
         when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
-        when(jwtUtil.generateToken(userDetails)).thenReturn("jwt.token.here");
+        when(userStateCache.get("testuser")).thenReturn(new UserStateCache.UserState(true, 0));
+        when(jwtUtil.generateToken(userDetails, 0)).thenReturn("jwt.token.here");
+        when(refreshTokenService.issue("testuser", 0)).thenReturn("refresh.token.here");
 
         mockMvc.perform(post("/api/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.token").value("jwt.token.here"))
+                .andExpect(jsonPath("$.refreshToken").value("refresh.token.here"))
                 .andExpect(jsonPath("$.username").value("testuser"))
                 .andExpect(jsonPath("$.role").value("ROLE_USER"));
     }
@@ -134,5 +146,20 @@ class AuthControllerTest {
         public UserService userService() {
             return mock(UserService.class);
         }
+
+        @Bean
+        public UserStateCache userStateCache() {
+            return mock(UserStateCache.class);
+        }
+
+        @Bean
+        public RefreshTokenService refreshTokenService() {
+            return mock(RefreshTokenService.class);
+        }
+
+        @Bean
+        public LoginThrottle loginThrottle() {
+            return new LoginThrottle(5, 30, 60_000, 4, 200);
+        }
     }
 }
@@ -0,0 +1,198 @@
+package com.social.assistance.repository;
+
+import com.social.assistance.model.Applicant;
+import com.social.assistance.model.MakerCheckerLog;
+import com.social.assistance.model.Parameter;
+import com.social.assistance.model.User;
+import com.social.assistance.model.Village;
+import com.social.assistance.service.ApplicantLocationBackfill;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.social.assistance.repository.TestFixtures.parameter;
+import static com.social.assistance.repository.TestFixtures.user;
+import static com.social.assistance.repository.TestFixtures.village;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the set-based applicant statements, which are plain SQL, against a database: bulk
+ * verification and the location backfill.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class ApplicantRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ApplicantRepository applicantRepository;
+
+    @Autowired
+    private MakerCheckerLogRepository makerCheckerLogRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Parameter male;
+    private Parameter single;
+    private Village village;
+    private User verifier;
+
+    @BeforeEach
+    void setUp() {
+        male = persist(parameter("Sex", "Male"));
+        single = persist(parameter("Marital Status", "Single"));
+        village = persist(village(entityManager, 0));
+        verifier = persist(user("verifier", "ROLE_VERIFIER"));
+    }
+
+    @Test
+    void fillMissingLocations_fillsOnlyUnfilledApplicantsInRange() {
+        Applicant first = persist(applicant("1001", "Pending"));
+        Applicant filled = applicant("1002", "Pending");
+        filled.setCountyId(-1);
+        persist(filled);
+        Applicant second = persist(applicant("1003", "Pending"));
+        Applicant outside = persist(applicant("1004", "Pending"));
+        flushAndClear();
+
+        assertEquals(2, applicantRepository.fillMissingLocations(first.getId(), second.getId()));
+        entityManager.clear();
+
+        for (Applicant applicant : Arrays.asList(first, second)) {
+            Applicant reloaded = reload(applicant);
+            assertEquals(village.getSubLocation().getId(), reloaded.getSubLocationId());
+            assertEquals(village.getSubLocation().getLocation().getId(), reloaded.getLocationId());
+            assertEquals(village.getSubLocation().getLocation().getSubCounty().getId(), reloaded.getSubCountyId());
+            assertEquals(village.getSubLocation().getLocation().getSubCounty().getCounty().getId(), reloaded.getCountyId());
+            assertEquals(1, reloaded.getVersion());
+        }
+        assertEquals(-1, reload(filled).getCountyId());
+        assertEquals(0, reload(filled).getVersion());
+        assertNull(reload(outside).getCountyId());
+        assertEquals(outside.getId(), applicantRepository.findFirstIdMissingLocation(0));
+        assertNull(applicantRepository.findFirstIdMissingLocation(outside.getId() + 1));
+    }
+
+    @Test
+    void locationBackfill_fillsEveryApplicantAcrossBatches() {
+        List<Applicant> applicants = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            applicants.add(persist(applicant("100" + i, "Pending")));
+        }
+        flushAndClear();
+
+        ApplicantLocationBackfill backfill = new ApplicantLocationBackfill(applicantRepository, transactionManager, 2);
+        assertEquals(5, backfill.fillMissingLocations());
+        entityManager.clear();
+
+        Integer countyId = village.getSubLocation().getLocation().getSubCounty().getCounty().getId();
+        assertTrue(applicants.stream().allMatch(applicant -> countyId.equals(reload(applicant).getCountyId())));
+        assertNull(applicantRepository.findFirstIdMissingLocation(0));
+        assertEquals(0, backfill.fillMissingLocations());
+    }
+
+    @Test
+    void verifyAll_verifiesEligibleApplicantsOnly() {
+        Applicant pending = persist(applicant("1001", "Pending"));
+        Applicant rejected = persist(applicant("1002", "Rejected"));
+        Applicant verified = persist(applicant("1003", "Verified"));
+        Applicant proposed = persist(applicant("1004", "Proposed"));
+        persist(proposal(proposed));
+        flushAndClear();
+
+        List<Integer> updated = applicantRepository.verifyAll(
+                Arrays.asList(pending.getId(), rejected.getId(), verified.getId(), proposed.getId(), 999999),
+                verifier.getId(), false);
+        entityManager.clear();
+
+        assertEquals(Arrays.asList(pending.getId(), rejected.getId()), updated);
+        assertEquals("Verified", reload(pending).getVerificationStatus());
+        assertEquals(1, reload(pending).getVersion());
+        assertEquals("Verified", reload(rejected).getVerificationStatus());
+        assertEquals(0, reload(verified).getVersion());
+        // The open proposal is left for the checker instead of being bypassed
+        assertEquals("Proposed", reload(proposed).getVerificationStatus());
+        assertEquals(0, reload(proposed).getVersion());
+        assertEquals(1, makerCheckerLogRepository.count());
+    }
+
+    @Test
+    void verifyAll_withMakerChecker_proposesAndLogsEachApplicantOnce() {
+        Applicant first = persist(applicant("1001", "Pending"));
+        Applicant second = persist(applicant("1002", "Pending"));
+        Applicant proposed = persist(applicant("1003", "Proposed"));
+        persist(proposal(proposed));
+        flushAndClear();
+
+        List<Integer> updated = applicantRepository.verifyAll(
+                Arrays.asList(first.getId(), second.getId(), proposed.getId()), verifier.getId(), true);
+        entityManager.clear();
+
+        assertEquals(Arrays.asList(first.getId(), second.getId()), updated);
+        assertEquals("Proposed", reload(first).getVerificationStatus());
+        assertEquals("Proposed", reload(second).getVerificationStatus());
+        List<MakerCheckerLog> logs = makerCheckerLogRepository.findAll();
+        assertEquals(3, logs.size());
+        List<MakerCheckerLog> created = logs.stream()
+                .filter(log -> !log.getEntityId().equals(proposed.getId()))
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList(first.getId(), second.getId()),
+                created.stream().map(MakerCheckerLog::getEntityId).sorted().collect(Collectors.toList()));
+        assertTrue(created.stream().allMatch(log -> "Applicant".equals(log.getEntityType())
+                && "Verify".equals(log.getAction()) && "Proposed".equals(log.getStatus())
+                && verifier.getId().equals(log.getMaker().getId()) && log.getVersion() == 0));
+    }
+
+    @Test
+    void verifyAll_pendingApplicantWithOpenProposal_skipped() {
+        Applicant applicant = persist(applicant("1001", "Pending"));
+        persist(proposal(applicant));
+        flushAndClear();
+
+        assertTrue(applicantRepository.verifyAll(Arrays.asList(applicant.getId()), verifier.getId(), true).isEmpty());
+        assertEquals(1, makerCheckerLogRepository.count());
+    }
+
+    private Applicant reload(Applicant applicant) {
+        return applicantRepository.findById(applicant.getId()).orElseThrow();
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private <T> T persist(T entity) {
+        return entityManager.persist(entity);
+    }
+
+    private Applicant applicant(String idNumber, String verificationStatus) {
+        Applicant applicant = TestFixtures.applicant("First" + idNumber, "Last" + idNumber, idNumber, male, single, village);
+        applicant.setVerificationStatus(verificationStatus);
+        return applicant;
+    }
+
+    private MakerCheckerLog proposal(Applicant applicant) {
+        MakerCheckerLog log = new MakerCheckerLog();
+        log.setEntityType("Applicant");
+        log.setEntityId(applicant.getId());
+        log.setAction("Verify");
+        log.setStatus("Proposed");
+        log.setMaker(verifier);
+        return log;
+    }
+}
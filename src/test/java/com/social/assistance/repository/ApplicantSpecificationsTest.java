@@ -0,0 +1,115 @@
+package com.social.assistance.repository;
+
+import com.social.assistance.dto.ApplicantSummary;
+import com.social.assistance.dto.FieldSet;
+import com.social.assistance.model.Applicant;
+import com.social.assistance.model.Application;
+import com.social.assistance.model.Parameter;
+import com.social.assistance.model.Programme;
+import com.social.assistance.model.Village;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.social.assistance.repository.TestFixtures.applicant;
+import static com.social.assistance.repository.TestFixtures.application;
+import static com.social.assistance.repository.TestFixtures.parameter;
+import static com.social.assistance.repository.TestFixtures.programme;
+import static com.social.assistance.repository.TestFixtures.village;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the composed applicant search against a database, where an applicant with several
+ * applications on the searched date must still come back once and be counted once.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class ApplicantSpecificationsTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 14);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ApplicantRepository applicantRepository;
+
+    private Applicant otieno;
+    private Applicant wanjiku;
+
+    @BeforeEach
+    void setUp() {
+        Parameter male = persist(parameter("Sex", "Male"));
+        Parameter single = persist(parameter("Marital Status", "Single"));
+        Village village = persist(village(entityManager, 0));
+        Programme[] programmes = new Programme[3];
+        for (int i = 0; i < programmes.length; i++) {
+            programmes[i] = persist(programme("Programme " + i));
+        }
+
+        otieno = persist(applicant("Peter", "Otieno", "1001", male, single, village));
+        wanjiku = persist(applicant("Grace", "Wanjiku", "1002", male, single, village));
+        Applicant kamau = persist(applicant("John", "Kamau", "1003", male, single, village));
+        for (Programme programme : programmes) {
+            persist(application(otieno, programme, DAY));
+        }
+        persist(application(wanjiku, programmes[0], DAY));
+        persist(application(kamau, programmes[0], DAY.minusDays(1)));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void dateApplied_returnsEachApplicantOnce() {
+        Page<Applicant> page = applicantRepository.findAll(ApplicantSpecifications.matching(null, null, DAY),
+                PageRequest.of(0, 10, Sort.by("id")));
+
+        assertEquals(List.of(otieno.getId(), wanjiku.getId()), ids(page.getContent()));
+        assertEquals(2, page.getTotalElements());
+    }
+
+    @Test
+    void dateApplied_countsApplicantsNotApplications() {
+        Specification<Applicant> spec = ApplicantSpecifications.matching(null, null, DAY);
+
+        assertEquals(2, applicantRepository.count(spec));
+        // A page smaller than the result forces the separate count query
+        Page<ApplicantSummary> page = applicantRepository.findSummaries(spec, PageRequest.of(0, 1, Sort.by("id")), FieldSet.ALL);
+        assertEquals(1, page.getContent().size());
+        assertEquals(2, page.getTotalElements());
+    }
+
+    @Test
+    void dateAppliedAndName_combineAsConjunction() {
+        List<Applicant> applicants = applicantRepository.findAll(ApplicantSpecifications.matching("otie", null, DAY));
+
+        assertEquals(List.of(otieno.getId()), ids(applicants));
+    }
+
+    @Test
+    void dateApplied_withoutApplicationsThatDay_returnsNothing() {
+        assertEquals(0, applicantRepository.count(ApplicantSpecifications.matching(null, null, DAY.plusDays(1))));
+        assertEquals(0, applicantRepository.count(ApplicantSpecifications.matching("Kamau", null, DAY)));
+    }
+
+    private static List<Integer> ids(List<Applicant> applicants) {
+        return applicants.stream().map(Applicant::getId).collect(Collectors.toList());
+    }
+
+    private <T> T persist(T entity) {
+        return entityManager.persist(entity);
+    }
+}
@@ -0,0 +1,221 @@
+package com.social.assistance.repository;
+
+import com.social.assistance.dto.GeographyLevel;
+import com.social.assistance.model.Applicant;
+import com.social.assistance.model.Application;
+import com.social.assistance.model.Parameter;
+import com.social.assistance.model.Programme;
+import com.social.assistance.model.User;
+import com.social.assistance.model.Village;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.social.assistance.repository.TestFixtures.parameter;
+import static com.social.assistance.repository.TestFixtures.programme;
+import static com.social.assistance.repository.TestFixtures.user;
+import static com.social.assistance.repository.TestFixtures.village;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs EXPLAIN on the SQL each export filter combination renders, with the plain B-tree indexes
+ * from {@code schema.sql} in place, so a filter that can only be answered by a full scan shows up
+ * as a failure. Each combination must also render the same SQL whatever the filter values, so
+ * it is prepared and planned once.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.social.assistance.repository.ExportQueryPlanTest$LastStatement")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExportQueryPlanTest {
+
+    private static final Pattern PLAIN_INDEX = Pattern.compile("CREATE INDEX (\\w+) ON (\\w+)\\(([\\w, ]+)\\);");
+    private static final int COUNTIES = 4;
+    private static final int APPLICANTS_PER_VILLAGE = 50;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final LocalDate start = LocalDate.now().minusMonths(3);
+    private final LocalDate end = LocalDate.now();
+    private Applicant sample;
+
+    @BeforeAll
+    void setUp() throws IOException {
+        String schema = new String(new ClassPathResource("schema.sql").getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        Matcher index = PLAIN_INDEX.matcher(schema);
+        while (index.find()) {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + index.group(1) + " ON " + index.group(2) + "(" + index.group(3) + ")");
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> persistApplicants());
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private void persistApplicants() {
+        Parameter male = persist(parameter("Sex", "Male"));
+        Parameter single = persist(parameter("Marital Status", "Single"));
+        Programme programme = persist(programme("Older Persons"));
+        User maker = persist(user("maker", "ADMIN"));
+        for (int c = 0; c < COUNTIES; c++) {
+            Village village = persist(village(entityManager, c));
+            for (int i = 0; i < APPLICANTS_PER_VILLAGE; i++) {
+                Applicant applicant = new Applicant();
+                applicant.setFirstName("First" + i);
+                applicant.setLastName("Last" + c);
+                applicant.setSex(male);
+                applicant.setMaritalStatus(single);
+                applicant.setAge(20 + i);
+                applicant.setIdNumber(c + "-" + i);
+                applicant.setVillage(village);
+                applicant.setSubLocationId(village.getSubLocation().getId());
+                applicant.setLocationId(village.getSubLocation().getLocation().getId());
+                applicant.setSubCountyId(village.getSubLocation().getLocation().getSubCounty().getId());
+                applicant.setCountyId(village.getSubLocation().getLocation().getSubCounty().getCounty().getId());
+                sample = persist(applicant);
+
+                Application application = new Application();
+                application.setApplicant(applicant);
+                application.setProgramme(programme);
+                application.setMaker(maker);
+                persist(application);
+            }
+        }
+    }
+
+    @Test
+    void everyFilterCombination_usesAnIndex() {
+        for (Map.Entry<String, Specification<Application>> combination : combinations(sample).entrySet()) {
+            String plan = plan(combination.getValue());
+
+            assertFalse(plan.toLowerCase(Locale.ROOT).contains("tablescan"),
+                    combination.getKey() + " scans a whole table:\n" + plan);
+        }
+    }
+
+    @Test
+    void locationFilters_lookUpTheirLevelColumn() {
+        assertIndexLookup(exported(GeographyLevel.COUNTY, sample.getCountyId()), "COUNTY_ID");
+        assertIndexLookup(exported(GeographyLevel.SUB_COUNTY, sample.getSubCountyId()), "SUB_COUNTY_ID");
+        assertIndexLookup(exported(GeographyLevel.LOCATION, sample.getLocationId()), "LOCATION_ID");
+        assertIndexLookup(exported(GeographyLevel.SUB_LOCATION, sample.getSubLocationId()), "SUB_LOCATION_ID");
+        assertIndexLookup(exported(GeographyLevel.VILLAGE, sample.getVillage().getId()), "VILLAGE_ID");
+    }
+
+    @Test
+    void sameCombination_rendersSameSqlForDifferentValues() {
+        String first = sql(ApplicationSpecifications.exported(start, end, "Pending", 30, null, null, GeographyLevel.COUNTY, 1));
+        String second = sql(ApplicationSpecifications.exported(start.minusDays(1), end, "Approved", 41, null, null, GeographyLevel.COUNTY, 2));
+        String otherShape = sql(ApplicationSpecifications.exported(start, end, "Pending", null, null, null, GeographyLevel.COUNTY, 1));
+
+        assertEquals(first, second);
+        assertNotEquals(first, otherShape);
+        assertFalse(first.contains("'Pending'"));
+    }
+
+    private Map<String, Specification<Application>> combinations(Applicant applicant) {
+        Integer sexId = applicant.getSex().getId();
+        Integer maritalStatusId = applicant.getMaritalStatus().getId();
+        Map<String, Specification<Application>> combinations = new LinkedHashMap<>();
+        combinations.put("dates only", ApplicationSpecifications.exported(start, end, null, null, null, null, null, null));
+        combinations.put("status", ApplicationSpecifications.exported(start, end, "Pending", null, null, null, null, null));
+        combinations.put("age", ApplicationSpecifications.exported(start, end, null, 30, null, null, null, null));
+        combinations.put("sex and marital status", ApplicationSpecifications.exported(start, end, null, null, sexId, maritalStatusId, null, null));
+        combinations.put("all applicant filters", ApplicationSpecifications.exported(start, end, "Pending", 30, sexId, maritalStatusId, null, null));
+        for (GeographyLevel level : GeographyLevel.values()) {
+            combinations.put(level.key(), exported(level, locationId(applicant, level)));
+            combinations.put(level.key() + " and age", ApplicationSpecifications.exported(start, end, null, 30, null, null, level, locationId(applicant, level)));
+            combinations.put(level.key() + " and status", ApplicationSpecifications.exported(start, end, "Pending", null, null, null, level, locationId(applicant, level)));
+        }
+        return combinations;
+    }
+
+    /**
+     * The plan reads applicants through an index whose condition is {@code column = ?}.
+     */
+    private void assertIndexLookup(Specification<Application> spec, String column) {
+        String plan = plan(spec);
+        assertTrue(Pattern.compile("/\\* PUBLIC\\.\\w+: " + column + " = \\?").matcher(plan).find(),
+                "expected an index lookup on " + column + " in:\n" + plan);
+    }
+
+    private Specification<Application> exported(GeographyLevel level, Integer locationId) {
+        return ApplicationSpecifications.exported(start, end, null, null, null, null, level, locationId);
+    }
+
+    private static Integer locationId(Applicant applicant, GeographyLevel level) {
+        switch (level) {
+            case COUNTY:
+                return applicant.getCountyId();
+            case SUB_COUNTY:
+                return applicant.getSubCountyId();
+            case LOCATION:
+                return applicant.getLocationId();
+            case SUB_LOCATION:
+                return applicant.getSubLocationId();
+            default:
+                return applicant.getVillage().getId();
+        }
+    }
+
+    private String sql(Specification<Application> spec) {
+        LastStatement.sql = null;
+        applicationRepository.findForExport(spec);
+        return LastStatement.sql;
+    }
+
+    private String plan(Specification<Application> spec) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql(spec), String.class);
+    }
+
+    private <T> T persist(T entity) {
+        return entityManager.persist(entity);
+    }
+
+
+    /**
+     * Keeps the last SQL statement Hibernate prepared, so the test can EXPLAIN exactly that text.
+     */
+    public static class LastStatement implements StatementInspector {
+
+        static volatile String sql;
+
+        @Override
+        public String inspect(String statement) {
+            sql = statement;
+            return statement;
+        }
+    }
+}
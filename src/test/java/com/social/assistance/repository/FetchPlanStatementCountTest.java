@@ -0,0 +1,231 @@
+package com.social.assistance.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.social.assistance.dto.ApplicantSummary;
+import com.social.assistance.dto.ApplicationSummary;
+import com.social.assistance.dto.FieldSet;
+import com.social.assistance.dto.GeographyLevel;
+import com.social.assistance.exception.InvalidStateException;
+import com.social.assistance.model.Applicant;
+import com.social.assistance.model.Application;
+import com.social.assistance.model.Parameter;
+import com.social.assistance.model.Programme;
+import com.social.assistance.model.User;
+import com.social.assistance.model.Village;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.social.assistance.repository.TestFixtures.parameter;
+import static com.social.assistance.repository.TestFixtures.programme;
+import static com.social.assistance.repository.TestFixtures.user;
+import static com.social.assistance.repository.TestFixtures.village;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the JDBC statements needed to load and serialize what each read endpoint returns, so a
+ * missing entity graph (one select per row) shows up as a failure rather than a slow page.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class FetchPlanStatementCountTest {
+
+    private static final int VILLAGES = 5;
+    private static final int APPLICANTS = 20;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private ApplicantRepository applicantRepository;
+
+    @Autowired
+    private VillageRepository villageRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .setFilterProvider(new SimpleFilterProvider().addFilter(FieldSet.FILTER, SimpleBeanPropertyFilter.serializeAll()));
+
+    private Statistics statistics;
+    private Integer applicationId;
+
+    @BeforeEach
+    void setUp() {
+        Parameter male = persist(parameter("Sex", "Male"));
+        Parameter single = persist(parameter("Marital Status", "Single"));
+        List<User> makers = new ArrayList<>();
+        List<Programme> programmes = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            makers.add(persist(user("maker" + i, "ADMIN")));
+            programmes.add(persist(programme("Programme " + i)));
+        }
+        List<Village> villages = new ArrayList<>();
+        for (int i = 0; i < VILLAGES; i++) {
+            villages.add(persist(village(entityManager, i)));
+        }
+        for (int i = 0; i < APPLICANTS; i++) {
+            Applicant applicant = new Applicant();
+            applicant.setFirstName("First" + i);
+            applicant.setLastName("Last" + i);
+            applicant.setSex(male);
+            applicant.setMaritalStatus(single);
+            applicant.setAge(30 + i);
+            applicant.setIdNumber("ID" + i);
+            applicant.setVillage(villages.get(i % VILLAGES));
+            persist(applicant);
+
+            Application application = new Application();
+            application.setApplicant(applicant);
+            application.setProgramme(programmes.get(i % 2));
+            application.setMaker(makers.get(i % 2));
+            applicationId = persist(application).getId();
+        }
+        entityManager.flush();
+        applicantRepository.fillMissingLocations(0, Integer.MAX_VALUE);
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void applicationListPage_joinsHierarchyAndBatchLoadsRepeatedRows() throws Exception {
+        List<Application> page = applicationRepository.findAll(PageRequest.of(0, 50)).getContent();
+        objectMapper.writeValueAsString(page);
+
+        assertEquals(APPLICANTS, page.size());
+        // page query, one batch for sex/marital status, one batch for makers
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void applicationDetail_singleStatement() throws Exception {
+        Application application = applicationRepository.findWithDetailsById(applicationId).orElseThrow();
+        objectMapper.writeValueAsString(application);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void applicationExport_singleStatement() {
+        List<Application> applications = applicationRepository.findForExport(ApplicationSpecifications.exported(
+                LocalDate.now().minusDays(1), LocalDate.now().plusDays(1), null, null, null, null, null, null));
+        applications.forEach(app -> {
+            app.getApplicant().getFirstName();
+            app.getProgramme().getName();
+        });
+
+        assertEquals(APPLICANTS, applications.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void applicationExportByCounty_singleStatementWithoutGeographyJoins() {
+        Integer countyId = villageRepository.findAll(Sort.by("id")).get(0).getSubLocation().getLocation().getSubCounty().getCounty().getId();
+        statistics.clear();
+
+        List<Application> applications = applicationRepository.findForExport(ApplicationSpecifications.exported(
+                LocalDate.now().minusDays(1), LocalDate.now().plusDays(1), null, null, null, null, GeographyLevel.COUNTY, countyId));
+        applications.forEach(app -> app.getProgramme().getName());
+
+        assertEquals(APPLICANTS / VILLAGES, applications.size());
+        assertTrue(applications.stream().allMatch(app -> countyId.equals(app.getApplicant().getCountyId())));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void applicantListPage_joinsHierarchyAndBatchLoadsParameters() throws Exception {
+        List<Applicant> page = applicantRepository.findAll(PageRequest.of(0, 50)).getContent();
+        objectMapper.writeValueAsString(page);
+
+        assertEquals(APPLICANTS, page.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void applicationSummaries_singleProjectionStatement() throws Exception {
+        List<ApplicationSummary> page = applicationRepository.findSummaries(
+                ApplicationSpecifications.hasStatus("Pending"), PageRequest.of(0, 50), FieldSet.ALL).getContent();
+        objectMapper.writeValueAsString(page);
+
+        assertEquals(APPLICANTS, page.size());
+        assertEquals("First0 Last0", page.get(0).getApplicantName());
+        assertEquals("Village 0", page.get(0).getVillageName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void applicantSummarySlice_singleProjectionStatement() throws Exception {
+        Specification<Applicant> spec = ApplicantSpecifications.matching("Last", null, null);
+        List<ApplicantSummary> slice = applicantRepository.findSummarySlice(spec, PageRequest.of(0, 50), FieldSet.ALL).getContent();
+        objectMapper.writeValueAsString(slice);
+
+        assertEquals(APPLICANTS, slice.size());
+        assertEquals("Male", slice.get(0).getSex());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void applicationSummaries_sparseFieldsetSelectsOnlyRequestedColumns() {
+        List<ApplicationSummary> page = applicationRepository.findSummaries(Specification.where(null),
+                PageRequest.of(0, 50, Sort.by("id")), FieldSet.from("programmeName,status")).getContent();
+
+        assertEquals(APPLICANTS, page.size());
+        ApplicationSummary first = page.get(0);
+        assertNotNull(first.getId());
+        assertEquals("Programme 0", first.getProgrammeName());
+        assertEquals("Pending", first.getStatus());
+        assertNull(first.getApplicantName());
+        assertNull(first.getVillageName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void summaries_unknownFieldRejected() {
+        assertThrows(InvalidStateException.class, () -> applicantRepository.findSummarySlice(
+                Specification.where(null), PageRequest.of(0, 50), FieldSet.from("firstName,password")));
+    }
+
+    @Test
+    void applicantDetail_singleStatement() throws Exception {
+        Applicant applicant = applicantRepository.findAll().get(0);
+        entityManager.clear();
+        statistics.clear();
+
+        objectMapper.writeValueAsString(applicantRepository.findWithDetailsById(applicant.getId()).orElseThrow());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void villageList_singleStatement() throws Exception {
+        objectMapper.writeValueAsString(villageRepository.findAll(PageRequest.of(0, 50)).getContent());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private <T> T persist(T entity) {
+        return entityManager.persist(entity);
+    }
+}
@@ -0,0 +1,152 @@
+package com.social.assistance.repository;
+
+import com.social.assistance.dto.PendingLogView;
+import com.social.assistance.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.social.assistance.repository.TestFixtures.makerCheckerLog;
+import static com.social.assistance.repository.TestFixtures.user;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the claim statement, which relies on PostgreSQL's {@code FOR UPDATE SKIP LOCKED}, against
+ * a real PostgreSQL whose schema comes from the Flyway migrations: concurrent reviewers get
+ * disjoint proposals, and a lease keeps a proposal reserved until it expires. Skipped where
+ * Docker is not available.
+ */
+@DataJpaTest(properties = "spring.flyway.enabled=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MakerCheckerClaimPostgresTest {
+
+    private static final int PROPOSALS = 6;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private MakerCheckerLogRepository makerCheckerLogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final List<Integer> proposed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(user("alice", "ROLE_VERIFIER"));
+        userRepository.save(user("bob", "ROLE_VERIFIER"));
+        User maker = userRepository.save(user("maker", "ROLE_DATA_COLLECTOR"));
+        for (int i = 0; i < PROPOSALS; i++) {
+            proposed.add(makerCheckerLogRepository.save(makerCheckerLog("Applicant", i, "Proposed", maker)).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        makerCheckerLogRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentClaims_getDisjointProposals() throws Exception {
+        CountDownLatch aliceClaimed = new CountDownLatch(1);
+        CountDownLatch bobClaimed = new CountDownLatch(1);
+        ExecutorService alice = Executors.newSingleThreadExecutor();
+        try {
+            // Alice's transaction keeps her rows locked until Bob has claimed
+            Future<List<Integer>> aliceIds = alice.submit(() -> inTransaction(() -> {
+                List<Integer> ids = claim("alice", PROPOSALS / 2, now);
+                aliceClaimed.countDown();
+                assertTrue(bobClaimed.await(10, TimeUnit.SECONDS));
+                return ids;
+            }));
+            assertTrue(aliceClaimed.await(10, TimeUnit.SECONDS));
+            List<Integer> bobIds = inTransaction(() -> claim("bob", PROPOSALS, now));
+            bobClaimed.countDown();
+
+            List<Integer> aliceClaims = aliceIds.get(10, TimeUnit.SECONDS);
+            assertEquals(proposed.subList(0, PROPOSALS / 2), aliceClaims);
+            assertEquals(proposed.subList(PROPOSALS / 2, PROPOSALS), bobIds);
+            Set<Integer> all = new HashSet<>(aliceClaims);
+            all.addAll(bobIds);
+            assertEquals(PROPOSALS, all.size());
+        } finally {
+            alice.shutdownNow();
+        }
+    }
+
+    @Test
+    void liveLease_cannotBeClaimed() {
+        assertEquals(proposed, claim("alice", PROPOSALS, now));
+
+        assertTrue(claim("bob", PROPOSALS, now.plusMinutes(14)).isEmpty());
+        assertTrue(makerCheckerLogRepository.findAll().stream().allMatch(log -> "alice".equals(log.getClaimedBy())));
+    }
+
+    @Test
+    void expiredLease_canBeReclaimed() {
+        assertEquals(proposed, claim("alice", PROPOSALS, now));
+
+        assertEquals(proposed, claim("bob", PROPOSALS, now.plusMinutes(16)));
+        assertTrue(makerCheckerLogRepository.findAll().stream().allMatch(log -> "bob".equals(log.getClaimedBy())));
+    }
+
+    /**
+     * Claims for fifteen minutes from {@code at}.
+     */
+    private List<Integer> claim(String username, int limit, LocalDateTime at) {
+        return makerCheckerLogRepository.claimPending(username, null, limit, at, at.plusMinutes(15)).stream()
+                .map(PendingLogView::getId)
+                .collect(Collectors.toList());
+    }
+
+    private <T> T inTransaction(Callable<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            try {
+                return work.call();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
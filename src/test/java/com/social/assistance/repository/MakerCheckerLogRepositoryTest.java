@@ -0,0 +1,137 @@
+package com.social.assistance.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.social.assistance.dto.PendingLogView;
+import com.social.assistance.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.social.assistance.repository.TestFixtures.makerCheckerLog;
+import static com.social.assistance.repository.TestFixtures.user;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the pending maker-checker queue against a database: cursor paging, the optional
+ * filters, and the projection that leaves the maker and checker users unloaded.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class MakerCheckerLogRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MakerCheckerLogRepository makerCheckerLogRepository;
+
+    private Statistics statistics;
+    private User alice;
+    private final List<Integer> proposed = new ArrayList<>();
+
+    /**
+     * Five proposals alternating between two makers and entity types, interleaved with decided
+     * logs that the queue must never return.
+     */
+    @BeforeEach
+    void setUp() {
+        alice = persist(user("alice", "ROLE_VERIFIER"));
+        User bob = persist(user("bob", "ROLE_VERIFIER"));
+        for (int i = 0; i < 5; i++) {
+            boolean even = i % 2 == 0;
+            proposed.add(persist(makerCheckerLog(even ? "Applicant" : "Application", i, "Proposed", even ? alice : bob)).getId());
+            persist(makerCheckerLog("Applicant", 100 + i, i % 2 == 0 ? "Confirmed" : "Rejected", alice));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findPending_pagesThroughProposedLogsByCursor() {
+        Slice<PendingLogView> first = makerCheckerLogRepository.findPending(null, null, 0, PageRequest.of(0, 2));
+        assertEquals(proposed.subList(0, 2), ids(first));
+        assertTrue(first.hasNext());
+
+        int cursor = first.getContent().get(1).getId();
+        Slice<PendingLogView> second = makerCheckerLogRepository.findPending(null, null, cursor, PageRequest.of(0, 2));
+        assertEquals(proposed.subList(2, 4), ids(second));
+        assertTrue(second.hasNext());
+
+        cursor = second.getContent().get(1).getId();
+        Slice<PendingLogView> last = makerCheckerLogRepository.findPending(null, null, cursor, PageRequest.of(0, 2));
+        assertEquals(proposed.subList(4, 5), ids(last));
+        assertFalse(last.hasNext());
+    }
+
+    @Test
+    void findPending_exactlyFullPage_hasNoNext() {
+        Slice<PendingLogView> slice = makerCheckerLogRepository.findPending(null, null, 0, PageRequest.of(0, 5));
+
+        assertEquals(proposed, ids(slice));
+        assertFalse(slice.hasNext());
+    }
+
+    @Test
+    void findPending_filtersByEntityType() {
+        Slice<PendingLogView> slice = makerCheckerLogRepository.findPending("Application", null, 0, PageRequest.of(0, 10));
+
+        assertEquals(List.of(proposed.get(1), proposed.get(3)), ids(slice));
+        assertTrue(slice.getContent().stream().allMatch(view -> "Application".equals(view.getEntityType())));
+    }
+
+    @Test
+    void findPending_filtersByMaker() {
+        Slice<PendingLogView> slice = makerCheckerLogRepository.findPending(null, "alice", 0, PageRequest.of(0, 10));
+
+        assertEquals(List.of(proposed.get(0), proposed.get(2), proposed.get(4)), ids(slice));
+    }
+
+    @Test
+    void findPending_combinesFilters() {
+        assertEquals(List.of(proposed.get(1), proposed.get(3)),
+                ids(makerCheckerLogRepository.findPending("Application", "bob", 0, PageRequest.of(0, 10))));
+        assertTrue(makerCheckerLogRepository.findPending("Application", "alice", 0, PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void findPending_projectsMakerWithoutLoadingUsers() throws Exception {
+        Slice<PendingLogView> slice = makerCheckerLogRepository.findPending(null, null, 0, PageRequest.of(0, 1));
+
+        PendingLogView view = slice.getContent().get(0);
+        assertEquals("Applicant", view.getEntityType());
+        assertEquals(0, view.getEntityId());
+        assertEquals("Verify", view.getAction());
+        assertEquals(alice.getId(), view.getMakerId());
+        assertEquals("alice", view.getMakerUsername());
+        assertNotNull(view.getCreatedAt());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        String json = new ObjectMapper().findAndRegisterModules().writeValueAsString(view);
+        assertFalse(json.contains("password"));
+        assertFalse(json.contains("hash-of-alice"));
+    }
+
+    private static List<Integer> ids(Slice<PendingLogView> slice) {
+        return slice.getContent().stream().map(PendingLogView::getId).collect(Collectors.toList());
+    }
+
+    private <T> T persist(T entity) {
+        return entityManager.persist(entity);
+    }
+}
@@ -0,0 +1,105 @@
+package com.social.assistance.repository;
+
+import com.social.assistance.config.ReferenceDataCache;
+import com.social.assistance.dto.CacheRegionStats;
+import com.social.assistance.model.Parameter;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+
+import static com.social.assistance.repository.TestFixtures.parameter;
+import static com.social.assistance.repository.TestFixtures.programme;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reference data is served from the second-level cache across sessions and the cache stays
+ * correct when the reference tables are written through JPA, as the uploads do. Runs without a
+ * test transaction so every repository call commits like it would in production.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReferenceDataCacheTest {
+
+    @Autowired
+    private ParameterRepository parameterRepository;
+
+    @Autowired
+    private ProgrammeRepository programmeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        parameterRepository.saveAll(Arrays.asList(parameter("Sex", "Male"), parameter("Sex", "Female")));
+        programmeRepository.save(programme("Older Persons"));
+
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        parameterRepository.deleteAllInBatch();
+        programmeRepository.deleteAllInBatch();
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    @Test
+    void parameterById_servedFromCacheInLaterSessions() {
+        Integer id = parameterRepository.findByCategory("Sex", PageRequest.of(0, 10)).getContent().get(0).getId();
+        statistics.clear();
+
+        assertTrue(parameterRepository.findById(id).isPresent());
+        assertTrue(parameterRepository.findById(id).isPresent());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+        CacheRegionStats parameters = new ReferenceDataCache(entityManagerFactory).stats().stream()
+                .filter(region -> region.getRegion().equals(Parameter.class.getName()))
+                .findFirst().orElseThrow();
+        assertEquals(2, parameters.getHitCount());
+        assertEquals(1.0, parameters.getHitRatio());
+    }
+
+    @Test
+    void programmeByName_servedFromQueryCache() {
+        assertTrue(programmeRepository.findByName("Older Persons").isPresent());
+        long statements = statistics.getPrepareStatementCount();
+
+        assertTrue(programmeRepository.findByName("Older Persons").isPresent());
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void parametersByCategory_invalidatedWhenParametersAreSaved() {
+        assertEquals(2, parameterRepository.findByCategory("Sex", PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(2, parameterRepository.findByCategory("Sex", PageRequest.of(0, 10)).getTotalElements());
+        assertTrue(statistics.getQueryCacheHitCount() > 0);
+
+        parameterRepository.saveAll(Arrays.asList(parameter("Sex", "Intersex")));
+
+        assertEquals(3, parameterRepository.findByCategory("Sex", PageRequest.of(0, 10)).getTotalElements());
+    }
+}
@@ -0,0 +1,101 @@
+package com.social.assistance.repository;
+
+import com.social.assistance.model.Applicant;
+import com.social.assistance.model.Application;
+import com.social.assistance.model.County;
+import com.social.assistance.model.Location;
+import com.social.assistance.model.MakerCheckerLog;
+import com.social.assistance.model.Parameter;
+import com.social.assistance.model.Programme;
+import com.social.assistance.model.SubCounty;
+import com.social.assistance.model.SubLocation;
+import com.social.assistance.model.User;
+import com.social.assistance.model.Village;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+
+/**
+ * Entity factories shared by the repository tests. Entities are returned unsaved, except for
+ * {@link #village} which has to persist the geography above the village.
+ */
+final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    static Parameter parameter(String category, String value) {
+        Parameter parameter = new Parameter();
+        parameter.setCategory(category);
+        parameter.setValue(value);
+        return parameter;
+    }
+
+    static Programme programme(String name) {
+        Programme programme = new Programme();
+        programme.setName(name);
+        return programme;
+    }
+
+    static User user(String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("hash-of-" + username);
+        user.setName(username);
+        user.setRole(role);
+        return user;
+    }
+
+    static Applicant applicant(String firstName, String lastName, String idNumber,
+                               Parameter sex, Parameter maritalStatus, Village village) {
+        Applicant applicant = new Applicant();
+        applicant.setFirstName(firstName);
+        applicant.setLastName(lastName);
+        applicant.setIdNumber(idNumber);
+        applicant.setSex(sex);
+        applicant.setMaritalStatus(maritalStatus);
+        applicant.setAge(40);
+        applicant.setVillage(village);
+        return applicant;
+    }
+
+    static Application application(Applicant applicant, Programme programme, LocalDate date) {
+        Application application = new Application();
+        application.setApplicant(applicant);
+        application.setProgramme(programme);
+        application.setApplicationDate(date);
+        return application;
+    }
+
+    static MakerCheckerLog makerCheckerLog(String entityType, int entityId, String status, User maker) {
+        MakerCheckerLog log = new MakerCheckerLog();
+        log.setEntityType(entityType);
+        log.setEntityId(entityId);
+        log.setAction("Verify");
+        log.setStatus(status);
+        log.setMaker(maker);
+        return log;
+    }
+
+    /**
+     * A village under its own county, sub-county, location and sub-location, all named after
+     * {@code i}; the four above the village are persisted, the village itself is not.
+     */
+    static Village village(TestEntityManager entityManager, int i) {
+        County county = new County();
+        county.setName("County " + i);
+        SubCounty subCounty = new SubCounty();
+        subCounty.setName("Sub-county " + i);
+        subCounty.setCounty(entityManager.persist(county));
+        Location location = new Location();
+        location.setName("Location " + i);
+        location.setSubCounty(entityManager.persist(subCounty));
+        SubLocation subLocation = new SubLocation();
+        subLocation.setName("Sub-location " + i);
+        subLocation.setLocation(entityManager.persist(location));
+        Village village = new Village();
+        village.setName("Village " + i);
+        village.setSubLocation(entityManager.persist(subLocation));
+        return village;
+    }
+}
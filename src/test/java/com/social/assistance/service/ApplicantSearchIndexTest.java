@@ -0,0 +1,105 @@
+package com.social.assistance.service;
+
+import com.social.assistance.dto.ApplicantSuggestion;
+import com.social.assistance.model.Applicant;
+import com.social.assistance.repository.ApplicantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApplicantSearchIndexTest {
+
+    @Mock
+    private ApplicantRepository applicantRepository;
+
+    private ApplicantSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new ApplicantSearchIndex(applicantRepository);
+        when(applicantRepository.findSearchIndexRows()).thenReturn(Arrays.asList(
+                new Object[]{1, "John", null, "Otieno", "12345678"},
+                new Object[]{2, "Mary", "Wanjiku", "Kamau", "23456789"},
+                new Object[]{3, "Joseph", null, "Otieno", "34567890"}
+        ));
+        searchIndex.rebuild();
+    }
+
+    @Test
+    void search_matchesNamePrefixes() {
+        List<ApplicantSuggestion> result = searchIndex.search("jo oti", 10);
+
+        assertEquals(2, result.size());
+        assertEquals(Arrays.asList(1, 3), Arrays.asList(result.get(0).getId(), result.get(1).getId()));
+        assertEquals("John Otieno", result.get(0).getDisplayName());
+    }
+
+    @Test
+    void search_matchesIdNumberAndIgnoresCaseAndAccents() {
+        assertEquals(2, searchIndex.search("2345", 10).get(0).getId());
+        assertEquals(2, searchIndex.search("WANJ\u00CDKU", 10).get(0).getId());
+    }
+
+    @Test
+    void search_requiresEveryTokenToMatch() {
+        assertTrue(searchIndex.search("mary otieno", 10).isEmpty());
+        assertTrue(searchIndex.search("ieno", 10).isEmpty());
+        assertTrue(searchIndex.search("j", 10).isEmpty());
+    }
+
+    @Test
+    void search_respectsLimit() {
+        assertEquals(1, searchIndex.search("otieno", 1).size());
+    }
+
+    @Test
+    void index_replacesAndRemovesEntries() {
+        Applicant applicant = new Applicant();
+        applicant.setId(1);
+        applicant.setFirstName("John");
+        applicant.setLastName("Mwangi");
+        applicant.setIdNumber("12345678");
+
+        searchIndex.index(applicant);
+
+        assertTrue(searchIndex.search("john otieno", 10).isEmpty());
+        assertEquals(1, searchIndex.search("mwangi", 10).get(0).getId());
+
+        searchIndex.remove(1);
+
+        assertTrue(searchIndex.search("mwangi", 10).isEmpty());
+        assertEquals(2, searchIndex.size());
+    }
+
+    @Test
+    void rebuild_replaysWritesMadeWhileReadingRows() {
+        Applicant added = new Applicant();
+        added.setId(4);
+        added.setFirstName("Grace");
+        added.setLastName("Achieng");
+        added.setIdNumber("45678901");
+        when(applicantRepository.findSearchIndexRows()).thenAnswer(invocation -> {
+            // Committed after the rows below were read
+            searchIndex.index(added);
+            searchIndex.remove(3);
+            return Arrays.asList(
+                    new Object[]{1, "John", null, "Otieno", "12345678"},
+                    new Object[]{3, "Joseph", null, "Otieno", "34567890"});
+        });
+
+        searchIndex.rebuild();
+
+        assertEquals(4, searchIndex.search("achieng", 10).get(0).getId());
+        assertTrue(searchIndex.search("joseph", 10).isEmpty());
+        assertEquals(2, searchIndex.size());
+    }
+}
@@ -1,6 +1,14 @@
 package com.social.assistance.service;
 
+import com.social.assistance.dto.ApplicantSummary;
+import com.social.assistance.dto.BulkVerificationResult;
+import com.social.assistance.dto.CountMode;
+import com.social.assistance.dto.CursorSlice;
+import com.social.assistance.dto.DuplicateCandidate;
+import com.social.assistance.dto.FieldSet;
 import com.social.assistance.exception.DuplicateResourceException;
+import com.social.assistance.exception.InvalidStateException;
+import com.social.assistance.exception.LikelyDuplicateException;
 import com.social.assistance.model.Applicant;
 import com.social.assistance.model.Parameter;
 import com.social.assistance.model.User;
@@ -15,11 +23,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
 
@@ -44,6 +60,18 @@ class ApplicantServiceTest {
     @Mock
     private VillageRepository villageRepository;
 
+    @Mock
+    private ApplicantSearchIndex applicantSearchIndex;
+
+    @Mock
+    private DuplicateApplicantService duplicateApplicantService;
+
+    @Spy
+    private RowCountEstimator rowCountEstimator;
+
+    @Mock
+    private GeographyTree geographyTree;
+
     @InjectMocks
     private ApplicantService applicantService;
 
@@ -78,6 +106,7 @@ class ApplicantServiceTest {
 
         assertEquals("Pending", result.getVerificationStatus());
         verify(applicantRepository, times(1)).save(applicant);
+        verify(applicantSearchIndex, times(1)).index(applicant);
     }
 
     @Test
@@ -88,6 +117,32 @@ class ApplicantServiceTest {
         verify(applicantRepository, never()).save(any(Applicant.class));
     }
 
+    @Test
+    void createApplicant_likelyDuplicate_throwsException() {
+        when(applicantRepository.existsByIdNumber("12345678")).thenReturn(false);
+        when(parameterRepository.findById(1)).thenReturn(Optional.of(new Parameter()));
+        when(villageRepository.findById(1)).thenReturn(Optional.of(new Village()));
+        when(duplicateApplicantService.findLikelyDuplicates(applicant)).thenReturn(Collections.singletonList(
+                new DuplicateCandidate(7, "John Otyeno", "87654321", 1, 31, 0.95)));
+
+        LikelyDuplicateException ex = assertThrows(LikelyDuplicateException.class, () -> applicantService.createApplicant(applicant));
+        assertEquals(7, ex.getCandidates().get(0).getApplicantId());
+        verify(applicantRepository, never()).save(any(Applicant.class));
+    }
+
+    @Test
+    void createApplicant_likelyDuplicateAllowed_success() {
+        when(applicantRepository.existsByIdNumber("12345678")).thenReturn(false);
+        when(parameterRepository.findById(1)).thenReturn(Optional.of(new Parameter()));
+        when(villageRepository.findById(1)).thenReturn(Optional.of(new Village()));
+        when(applicantRepository.save(any(Applicant.class))).thenReturn(applicant);
+
+        applicantService.createApplicant(applicant, true);
+
+        verify(duplicateApplicantService, never()).findLikelyDuplicates(any());
+        verify(applicantRepository, times(1)).save(applicant);
+    }
+
     @Test
     void verifyApplicant_withoutMakerChecker_success() {
         User verifier = new User();
@@ -103,6 +158,35 @@ class ApplicantServiceTest {
         verify(makerCheckerLogRepository, never()).save(any());
     }
 
+    @Test
+    void verifyApplicants_singleCall_reportsUpdatedAndSkipped() {
+        User verifier = new User();
+        verifier.setId(7);
+        verifier.setUsername("verifier1");
+
+        when(userRepository.findByUsername("verifier1")).thenReturn(Optional.of(verifier));
+        when(applicantRepository.verifyAll(any(), eq(7), eq(true))).thenReturn(Arrays.asList(3, 1));
+
+        BulkVerificationResult result = applicantService.verifyApplicants(Arrays.asList(1, 2, 3, 2), "verifier1", true);
+
+        assertEquals("Proposed", result.getStatus());
+        assertEquals(Arrays.asList(1, 3), result.getUpdated());
+        assertEquals(Collections.singletonList(2), result.getSkipped());
+        verify(applicantRepository, times(1)).verifyAll(any(), eq(7), eq(true));
+        verify(applicantRepository, never()).save(any(Applicant.class));
+    }
+
+    @Test
+    void updateApplicant_staleVersion_throwsConflict() {
+        applicant.setVersion(3);
+        Applicant stale = new Applicant();
+        stale.setVersion(2);
+        when(applicantRepository.findById(1)).thenReturn(Optional.of(applicant));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> applicantService.updateApplicant(1, stale));
+        verify(applicantRepository, never()).save(any(Applicant.class));
+    }
+
     @Test
     void verifyApplicant_withMakerChecker_success() {
         User verifier = new User();
@@ -118,17 +202,6 @@ class ApplicantServiceTest {
         verify(makerCheckerLogRepository, times(1)).save(any());
     }
 
-    @Test
-    void getAllApplicants_paginated_success() {
-        Page<Applicant> page = new PageImpl<>(Collections.singletonList(applicant));
-        when(applicantRepository.findAll(any(PageRequest.class))).thenReturn(page);
-
-        Page<Applicant> result = applicantService.getAllApplicants(PageRequest.of(0, 10));
-
-        assertEquals(1, result.getTotalElements());
-        verify(applicantRepository, times(1)).findAll(any(PageRequest.class));
-    }
-
     @Test
     void searchApplicantsByName_paginated_success() {
         Page<Applicant> page = new PageImpl<>(Collections.singletonList(applicant));
@@ -142,17 +215,101 @@ class ApplicantServiceTest {
     }
 
     @Test
-    void filterApplicantsByStatus_success() {
-        Applicant verifiedApplicant = new Applicant();
-        verifiedApplicant.setVerificationStatus("Verified");
-        Page<Applicant> page = new PageImpl<>(Collections.singletonList(verifiedApplicant));
+    @SuppressWarnings("unchecked")
+    void getApplicantsAfter_seeksPastCursor() {
+        when(applicantRepository.findSummarySlice(any(Specification.class), any(Pageable.class), eq(FieldSet.ALL)))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(summary(42)), PageRequest.of(0, 1), true));
 
-        when(applicantRepository.findByVerificationStatus(eq("Verified"), any(PageRequest.class))).thenReturn(page);
+        CursorSlice<ApplicantSummary> result = applicantService.getApplicantsAfter(CursorSlice.encode(7), 1, FieldSet.ALL);
 
-        Page<Applicant> result = applicantService.filterApplicantsByStatus("Verified", PageRequest.of(0, 10));
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertEquals(42, CursorSlice.decode(result.getNextCursor()));
+        verify(applicantRepository, never()).count();
+    }
 
-        assertEquals(1, result.getTotalElements());
-        assertEquals("Verified", result.getContent().get(0).getVerificationStatus());
-        verify(applicantRepository, times(1)).findByVerificationStatus(eq("Verified"), any(PageRequest.class));
+    @Test
+    @SuppressWarnings("unchecked")
+    void getApplicantsAfter_lastPage_hasNoCursor() {
+        when(applicantRepository.findSummarySlice(any(Specification.class), any(Pageable.class), eq(FieldSet.ALL)))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(summary(1)), PageRequest.of(0, 10), false));
+
+        CursorSlice<ApplicantSummary> result = applicantService.getApplicantsAfter(null, 10, FieldSet.ALL);
+
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getApplicantsAfter_invalidCursor_throwsException() {
+        assertThrows(InvalidStateException.class, () -> applicantService.getApplicantsAfter("not-a-cursor", 10, FieldSet.ALL));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getAllApplicants_countNone_skipsCountQuery() {
+        when(applicantRepository.findSummarySlice(any(Specification.class), any(Pageable.class), eq(FieldSet.ALL)))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(summary(1)), PageRequest.of(0, 1), true));
+
+        Slice<ApplicantSummary> result = applicantService.getAllApplicants(PageRequest.of(0, 1), CountMode.NONE, FieldSet.ALL);
+
+        assertFalse(result instanceof Page);
+        assertTrue(result.hasNext());
+        verify(applicantRepository, never()).findSummaries(any(), any(Pageable.class), any());
+        verify(applicantRepository, never()).count();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void filterApplicantsByStatus_countApprox_usesCachedTotal() {
+        when(applicantRepository.findSummarySlice(any(Specification.class), any(Pageable.class), eq(FieldSet.ALL)))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(summary(1)), PageRequest.of(0, 1), true));
+        doReturn(250L).when(rowCountEstimator).cached(eq("applicants:status:Verified"), any());
+
+        Slice<ApplicantSummary> result = applicantService.filterApplicantsByStatus("Verified", PageRequest.of(0, 1), CountMode.APPROX, FieldSet.ALL);
+
+        assertEquals(250, ((Page<ApplicantSummary>) result).getTotalElements());
+        verify(applicantRepository, never()).findSummaries(any(), any(Pageable.class), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getAllApplicants_countApproxLastPage_totalFromRowsFetched() {
+        when(applicantRepository.findSummarySlice(any(Specification.class), any(Pageable.class), eq(FieldSet.ALL)))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(summary(1)), PageRequest.of(2, 10), false));
+
+        Slice<ApplicantSummary> result = applicantService.getAllApplicants(PageRequest.of(2, 10), CountMode.APPROX, FieldSet.ALL);
+
+        assertEquals(21, ((Page<ApplicantSummary>) result).getTotalElements());
+        verify(rowCountEstimator, never()).estimate(any(), any());
+    }
+
+    @Test
+    void countMode_invalidValue_throwsException() {
+        assertEquals(CountMode.EXACT, CountMode.from(null));
+        assertEquals(CountMode.APPROX, CountMode.from("Approx"));
+        assertThrows(InvalidStateException.class, () -> CountMode.from("fast"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchApplicants_countNone_usesSpecificationSlice() {
+        when(applicantRepository.findSummarySlice(any(Specification.class), any(Pageable.class), eq(FieldSet.ALL)))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(summary(1)), PageRequest.of(0, 10), false));
+
+        Slice<ApplicantSummary> result = applicantService.searchApplicants("john", null, LocalDate.of(2024, 1, 15),
+                PageRequest.of(0, 10), CountMode.NONE, FieldSet.ALL);
+
+        assertEquals(1, result.getNumberOfElements());
+        verify(applicantRepository, never()).findSummaries(any(Specification.class), any(Pageable.class), any());
+        verify(applicantRepository, never()).count(any(Specification.class));
+    }
+
+    private static ApplicantSummary summary(Integer id) {
+        ApplicantSummary summary = new ApplicantSummary();
+        summary.setId(id);
+        summary.setFirstName("John");
+        summary.setLastName("Doe");
+        return summary;
     }
 }
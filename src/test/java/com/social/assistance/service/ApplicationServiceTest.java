@@ -1,6 +1,7 @@
 package com.social.assistance.service;
 
 import com.social.assistance.dto.ApplicationReport;
+import com.social.assistance.dto.BulkDecisionResult;
 import com.social.assistance.exception.DuplicateResourceException;
 import com.social.assistance.exception.InvalidStateException;
 import com.social.assistance.model.Applicant;
@@ -15,18 +16,20 @@ import com.social.assistance.repository.ApplicationRepository;
 import com.social.assistance.repository.MakerCheckerLogRepository;
 import com.social.assistance.repository.ProgrammeRepository;
 import com.social.assistance.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -52,6 +55,9 @@ class ApplicationServiceTest {
     @Mock
     private MakerCheckerLogRepository makerCheckerLogRepository;
 
+    @Mock
+    private RowCountEstimator rowCountEstimator;
+
     @InjectMocks
     private ApplicationService applicationService;
 
@@ -83,32 +89,67 @@ class ApplicationServiceTest {
 
     @Test
     void createApplication_success() {
-        Pageable pageable = PageRequest.of(0, Integer.MAX_VALUE);
         when(applicantRepository.findById(1)).thenReturn(Optional.of(applicant));
         when(programmeRepository.findById(1)).thenReturn(Optional.of(programme));
-        when(applicationRepository.findByApplicantId(1, pageable)).thenReturn(new PageImpl<>(Collections.emptyList()));
-        when(applicationRepository.save(any(Application.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(applicationRepository.existsByApplicantIdAndProgrammeId(1, 1)).thenReturn(false);
+        when(applicationRepository.saveAndFlush(any(Application.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         Application result = applicationService.createApplication(1, 1);
 
         assertEquals("Pending", result.getStatus());
         assertEquals(applicant, result.getApplicant());
         assertEquals(programme, result.getProgramme());
-        verify(applicationRepository, times(1)).save(any(Application.class));
+        verify(applicationRepository, times(1)).saveAndFlush(any(Application.class));
     }
 
     @Test
     void createApplication_duplicateApplication_throwsException() {
-        Application existingApp = new Application();
-        existingApp.setProgramme(programme);
-        Pageable pageable = PageRequest.of(0, Integer.MAX_VALUE);
+        when(applicantRepository.findById(1)).thenReturn(Optional.of(applicant));
+        when(programmeRepository.findById(1)).thenReturn(Optional.of(programme));
+        when(applicationRepository.existsByApplicantIdAndProgrammeId(1, 1)).thenReturn(true);
 
+        assertThrows(DuplicateResourceException.class, () -> applicationService.createApplication(1, 1));
+        verify(applicationRepository, never()).saveAndFlush(any(Application.class));
+    }
+
+    @Test
+    void createApplication_concurrentDuplicate_throwsException() {
         when(applicantRepository.findById(1)).thenReturn(Optional.of(applicant));
         when(programmeRepository.findById(1)).thenReturn(Optional.of(programme));
-        when(applicationRepository.findByApplicantId(1, pageable)).thenReturn(new PageImpl<>(Collections.singletonList(existingApp)));
+        when(applicationRepository.existsByApplicantIdAndProgrammeId(1, 1)).thenReturn(false);
+        when(applicationRepository.saveAndFlush(any(Application.class)))
+                .thenThrow(integrityViolation("23505", "applications_applicant_id_programme_id_key"));
 
         assertThrows(DuplicateResourceException.class, () -> applicationService.createApplication(1, 1));
-        verify(applicationRepository, never()).save(any(Application.class));
+    }
+
+    @Test
+    void createApplication_otherIntegrityViolation_rethrown() {
+        when(applicantRepository.findById(1)).thenReturn(Optional.of(applicant));
+        when(programmeRepository.findById(1)).thenReturn(Optional.of(programme));
+        when(applicationRepository.existsByApplicantIdAndProgrammeId(1, 1)).thenReturn(false);
+        DataIntegrityViolationException foreignKey = integrityViolation("23503", "applications_programme_id_fkey");
+        when(applicationRepository.saveAndFlush(any(Application.class))).thenThrow(foreignKey);
+
+        assertSame(foreignKey, assertThrows(DataIntegrityViolationException.class,
+                () -> applicationService.createApplication(1, 1)));
+    }
+
+    @Test
+    void createApplication_integrityViolationWithoutConstraintCause_rethrown() {
+        when(applicantRepository.findById(1)).thenReturn(Optional.of(applicant));
+        when(programmeRepository.findById(1)).thenReturn(Optional.of(programme));
+        when(applicationRepository.existsByApplicantIdAndProgrammeId(1, 1)).thenReturn(false);
+        when(applicationRepository.saveAndFlush(any(Application.class)))
+                .thenThrow(new DataIntegrityViolationException("value too long for type character varying(20)"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> applicationService.createApplication(1, 1));
+    }
+
+    private static DataIntegrityViolationException integrityViolation(String sqlState, String constraint) {
+        SQLException sqlException = new SQLException("violates constraint " + constraint, sqlState);
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", sqlException, constraint));
     }
 
     @Test
@@ -164,31 +205,73 @@ class ApplicationServiceTest {
     }
 
     @Test
-    void getAllApplications_paginated_success() {
-        Application application = new Application();
-        application.setId(1);
-        Page<Application> page = new PageImpl<>(Collections.singletonList(application));
-        when(applicationRepository.findAll(any(PageRequest.class))).thenReturn(page);
-
-        Page<Application> result = applicationService.getAllApplications(PageRequest.of(0, 10));
-
-        assertEquals(1, result.getTotalElements());
-        verify(applicationRepository, times(1)).findAll(any(PageRequest.class));
+    void decideApplications_approve_updatesEligibleAndReportsRest() {
+        User approver = new User();
+        approver.setUsername("approver1");
+        when(userRepository.findByUsername("approver1")).thenReturn(Optional.of(approver));
+        when(applicationRepository.findDecisionStates(any())).thenReturn(Arrays.asList(
+                new Object[]{1, "Pending", "Verified"},
+                new Object[]{2, "Approved", "Verified"},
+                new Object[]{3, "Pending", "Pending"}));
+
+        List<BulkDecisionResult> results = applicationService.decideApplications(Arrays.asList(1, 2, 3, 4, 1), true, "approver1", false);
+
+        assertEquals(4, results.size());
+        assertEquals(BulkDecisionResult.Outcome.APPROVED, results.get(0).getOutcome());
+        assertEquals(BulkDecisionResult.Outcome.NOT_PENDING, results.get(1).getOutcome());
+        assertEquals(BulkDecisionResult.Outcome.NOT_VERIFIED, results.get(2).getOutcome());
+        assertEquals(BulkDecisionResult.Outcome.NOT_FOUND, results.get(3).getOutcome());
+        verify(applicationRepository).updateStatus(eq(Collections.singletonList(1)), eq("Approved"), any());
+        verify(makerCheckerLogRepository, never()).insertBatch(any());
     }
 
     @Test
-    void filterApplicationsByApplicantAndStatus_paginated_success() {
-        Application application = new Application();
-        application.setId(1);
-        application.setStatus("Pending");
-        Page<Application> page = new PageImpl<>(Collections.singletonList(application));
-        when(applicationRepository.findByApplicantIdAndStatus(eq(1), eq("Pending"), any(PageRequest.class))).thenReturn(page);
+    @SuppressWarnings("unchecked")
+    void decideApplications_rejectWithMakerChecker_batchesLogs() {
+        User approver = new User();
+        approver.setUsername("approver1");
+        when(userRepository.findByUsername("approver1")).thenReturn(Optional.of(approver));
+        when(applicationRepository.findDecisionStates(any())).thenReturn(Arrays.asList(
+                new Object[]{1, "Pending", "Pending"},
+                new Object[]{2, "Pending", "Verified"}));
+
+        List<BulkDecisionResult> results = applicationService.decideApplications(Arrays.asList(1, 2), false, "approver1", true);
+
+        assertTrue(results.stream().allMatch(result -> result.getOutcome() == BulkDecisionResult.Outcome.PROPOSED));
+        verify(applicationRepository).propose(eq(Arrays.asList(1, 2)), eq(approver), any());
+        ArgumentCaptor<List<MakerCheckerLog>> logs = ArgumentCaptor.forClass(List.class);
+        verify(makerCheckerLogRepository).insertBatch(logs.capture());
+        assertEquals(2, logs.getValue().size());
+        assertEquals("Reject", logs.getValue().get(0).getAction());
+        verify(applicationRepository, never()).save(any(Application.class));
+    }
 
-        Page<Application> result = applicationService.filterApplicationsByApplicantAndStatus(1, "Pending", PageRequest.of(0, 10));
+    @Test
+    void confirmMakerChecker_alreadyDecided_throwsException() {
+        MakerCheckerLog log = new MakerCheckerLog();
+        log.setEntityType("Application");
+        log.setAction("Approve");
+        log.setStatus("Approved");
+        when(makerCheckerLogRepository.findWithLockById(5)).thenReturn(Optional.of(log));
+        when(userRepository.findByUsername("checker1")).thenReturn(Optional.of(new User()));
+
+        assertThrows(InvalidStateException.class, () -> applicationService.confirmMakerChecker(5, "checker1", true));
+        verify(applicationRepository, never()).save(any(Application.class));
+    }
 
-        assertEquals(1, result.getTotalElements());
-        assertEquals("Pending", result.getContent().get(0).getStatus());
-        verify(applicationRepository, times(1)).findByApplicantIdAndStatus(eq(1), eq("Pending"), any(PageRequest.class));
+    @Test
+    void confirmMakerChecker_claimedByAnotherReviewer_throwsException() {
+        MakerCheckerLog log = new MakerCheckerLog();
+        log.setEntityType("Application");
+        log.setAction("Approve");
+        log.setStatus("Proposed");
+        log.setClaimedBy("checker2");
+        log.setClaimExpiresAt(LocalDateTime.now().plusMinutes(10));
+        when(makerCheckerLogRepository.findWithLockById(5)).thenReturn(Optional.of(log));
+        when(userRepository.findByUsername("checker1")).thenReturn(Optional.of(new User()));
+
+        assertThrows(InvalidStateException.class, () -> applicationService.confirmMakerChecker(5, "checker1", true));
+        verify(makerCheckerLogRepository, never()).save(any());
     }
 
     @Test
@@ -217,16 +300,14 @@ class ApplicationServiceTest {
         application.setStatus("Approved");
         application.setApplicationDate(LocalDate.of(2023, 1, 1));
 
-        when(applicationRepository.findFilteredApplications("Approved", LocalDate.now().minusMonths(3), LocalDate.now(),
-                null, null, null, "All", null)).thenReturn(Collections.singletonList(application));
+        when(applicationRepository.findForExport(any())).thenReturn(Collections.singletonList(application));
 
         byte[] result = applicationService.exportApplications("csv", "Approved", null, null, null, null, null, "All", null, null, null, null);
 
         String csvContent = new String(result);
         assertTrue(csvContent.contains("ID,Applicant Name,Programme,Status,Application Date"));
         assertTrue(csvContent.contains("1,John Doe,Programme A,Approved,2023-01-01"));
-        verify(applicationRepository, times(1)).findFilteredApplications("Approved", LocalDate.now().minusMonths(3), LocalDate.now(),
-                null, null, null, "All", null);
+        verify(applicationRepository, times(1)).findForExport(any());
     }
 
     @Test
@@ -238,15 +319,13 @@ class ApplicationServiceTest {
         application.setStatus("Approved");
         application.setApplicationDate(LocalDate.of(2023, 1, 1));
 
-        when(applicationRepository.findFilteredApplications("Approved", LocalDate.now().minusMonths(3), LocalDate.now(),
-                null, null, null, "All", null)).thenReturn(Collections.singletonList(application));
+        when(applicationRepository.findForExport(any())).thenReturn(Collections.singletonList(application));
 
         byte[] result = applicationService.exportApplications("excel", "Approved", null, null, null, null, null, "All", null, null, null, null);
 
         assertNotNull(result);
         assertTrue(result.length > 0); // Basic check for non-empty Excel file
-        verify(applicationRepository, times(1)).findFilteredApplications("Approved", LocalDate.now().minusMonths(3), LocalDate.now(),
-                null, null, null, "All", null);
+        verify(applicationRepository, times(1)).findForExport(any());
     }
 
     @Test
@@ -258,22 +337,44 @@ class ApplicationServiceTest {
         application.setStatus("Approved");
         application.setApplicationDate(LocalDate.of(2023, 1, 1));
 
-        when(applicationRepository.findFilteredApplications("Approved", LocalDate.now().minusMonths(3), LocalDate.now(),
-                null, null, null, "All", null)).thenReturn(Collections.singletonList(application));
+        when(applicationRepository.findForExport(any())).thenReturn(Collections.singletonList(application));
 
         byte[] result = applicationService.exportApplications("pdf", "Approved", null, null, null, null, null, "All", null,
                 "Test Org", null, "123 Test St");
 
         assertNotNull(result);
         assertTrue(result.length > 0); // Basic check for non-empty PDF file
-        verify(applicationRepository, times(1)).findFilteredApplications("Approved", LocalDate.now().minusMonths(3), LocalDate.now(),
-                null, null, null, "All", null);
+        verify(applicationRepository, times(1)).findForExport(any());
+    }
+
+    @Test
+    void exportApplications_byCounty_success() {
+        Application application = new Application();
+        application.setId(1);
+        application.setApplicant(applicant);
+        application.setProgramme(programme);
+        application.setStatus("Approved");
+        application.setApplicationDate(LocalDate.of(2023, 1, 1));
+
+        when(applicationRepository.findForExport(any())).thenReturn(Collections.singletonList(application));
+
+        String csvContent = new String(applicationService.exportApplications("csv", "Approved", null, null, null, null, null, "County", 7, null, null, null));
+
+        assertTrue(csvContent.contains("\"1\",\"John Doe\",\"Programme A\",\"Approved\",\"2023-01-01\""));
+        verify(applicationRepository, times(1)).findForExport(any());
+    }
+
+    @Test
+    void exportApplications_levelWithoutId_throwsException() {
+        assertThrows(InvalidStateException.class, () ->
+            applicationService.exportApplications("csv", "all", null, null, null, null, null, "village", null, null, null, null));
+        verifyNoInteractions(applicationRepository);
     }
 
     @Test
     void exportApplications_invalidFormat_throwsException() {
         assertThrows(IllegalArgumentException.class, () -> 
             applicationService.exportApplications("invalid", "all", null, null, null, null, null, "All", null, null, null, null));
-        verify(applicationRepository, never()).findFilteredApplications(any(), any(), any(), any(), any(), any(), any(), any());
+        verify(applicationRepository, never()).findForExport(any());
     }
 }
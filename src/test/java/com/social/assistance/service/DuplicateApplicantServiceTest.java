@@ -0,0 +1,113 @@
+package com.social.assistance.service;
+
+import com.social.assistance.dto.DuplicateCandidate;
+import com.social.assistance.dto.DuplicatePair;
+import com.social.assistance.model.Applicant;
+import com.social.assistance.model.Village;
+import com.social.assistance.repository.ApplicantRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DuplicateApplicantServiceTest {
+
+    @Mock
+    private ApplicantRepository applicantRepository;
+
+    @InjectMocks
+    private DuplicateApplicantService duplicateApplicantService;
+
+    @Test
+    void phoneticEncoder_foldsSpellingVariants() {
+        assertEquals(PhoneticEncoder.encode("Otieno"), PhoneticEncoder.encode("Otyeno"));
+        assertEquals(PhoneticEncoder.encode("Wanjiku"), PhoneticEncoder.encode("Wanjiiku"));
+        assertEquals(PhoneticEncoder.encode("Achieng"), PhoneticEncoder.encode("Acheng"));
+        assertNotEquals(PhoneticEncoder.encode("Otieno"), PhoneticEncoder.encode("Kamau"));
+    }
+
+    @Test
+    void phoneticKey_ignoresSpellingOfFirstSound() {
+        assertNotEquals(PhoneticEncoder.encode("Catherine"), PhoneticEncoder.encode("Katherine"));
+        assertEquals(PhoneticEncoder.key("Catherine"), PhoneticEncoder.key("Katherine"));
+        assertEquals(PhoneticEncoder.key("Cyrus"), PhoneticEncoder.key("Sirus"));
+        assertNotEquals(PhoneticEncoder.key("Otieno"), PhoneticEncoder.key("Kamau"));
+    }
+
+    @Test
+    void findLikelyDuplicates_matchesSpellingVariantInSameVillage() {
+        Applicant applicant = new Applicant();
+        applicant.setFirstName("Wanjiiku");
+        applicant.setLastName("Otyeno");
+        applicant.setAge(40);
+        Village village = new Village();
+        village.setId(3);
+        applicant.setVillage(village);
+
+        when(applicantRepository.findDeduplicationRows(3, 38, 42)).thenReturn(Arrays.asList(
+                new Object[]{10, "Wanjiku", null, "Otieno", 41, 3, "11111111"},
+                new Object[]{11, "Wambui", null, "Kamau", 40, 3, "22222222"}
+        ));
+
+        List<DuplicateCandidate> result = duplicateApplicantService.findLikelyDuplicates(applicant);
+
+        assertEquals(1, result.size());
+        assertEquals(10, result.get(0).getApplicantId());
+    }
+
+    @Test
+    void scanRegistry_comparesOnlyWithinVillageBlocks() {
+        when(applicantRepository.streamDeduplicationRows()).thenReturn(Stream.of(
+                new Object[]{1, "John", null, "Otieno", 34, 1, "1"},
+                new Object[]{2, "Otyeno", null, "John", 35, 1, "2"},
+                new Object[]{3, "Mary", null, "Kamau", 50, 1, "3"},
+                new Object[]{4, "John", null, "Otieno", 34, 2, "4"},
+                new Object[]{5, "John", null, "Otieno", 60, 2, "5"}
+        ));
+
+        List<DuplicatePair> pairs = duplicateApplicantService.scanRegistry();
+
+        assertEquals(1, pairs.size());
+        assertEquals(1, pairs.get(0).getFirst().getApplicantId());
+        assertEquals(2, pairs.get(0).getSecond().getApplicantId());
+    }
+
+    @Test
+    void scanRegistry_matchesNamesSpeltWithDifferentFirstLetter() {
+        when(applicantRepository.streamDeduplicationRows()).thenReturn(Stream.of(
+                new Object[]{1, "Catherine", null, "Otieno", 34, 1, "1"},
+                new Object[]{2, "Katherine", null, "Otieno", 34, 1, "2"}
+        ));
+
+        List<DuplicatePair> pairs = duplicateApplicantService.scanRegistry();
+
+        assertEquals(1, pairs.size());
+        assertEquals(2, pairs.get(0).getSecond().getApplicantId());
+    }
+
+    @Test
+    void scanRegistry_keepsOnlyTheBestPairs() {
+        // 200 applicants aged 36 then 200 aged 34: every same-age pair scores 1, every pair across
+        // the two ages less, and there are more same-age pairs than are kept
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            rows.add(new Object[]{i, "John", null, "Otieno", i < 200 ? 36 : 34, 1, String.valueOf(i)});
+        }
+        when(applicantRepository.streamDeduplicationRows()).thenReturn(rows.stream());
+
+        List<DuplicatePair> pairs = duplicateApplicantService.scanRegistry();
+
+        assertEquals(DuplicateApplicantService.MAX_PAIRS, pairs.size());
+        assertTrue(pairs.stream().allMatch(pair -> pair.getScore() == 1.0));
+    }
+}
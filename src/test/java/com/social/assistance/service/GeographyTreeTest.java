@@ -0,0 +1,153 @@
+package com.social.assistance.service;
+
+import com.social.assistance.dto.GeographyLevel;
+import com.social.assistance.dto.GeographyNode;
+import com.social.assistance.exception.ResourceNotFoundException;
+import com.social.assistance.model.Applicant;
+import com.social.assistance.model.Village;
+import com.social.assistance.repository.CountyRepository;
+import com.social.assistance.repository.LocationRepository;
+import com.social.assistance.repository.SubCountyRepository;
+import com.social.assistance.repository.SubLocationRepository;
+import com.social.assistance.repository.VillageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GeographyTreeTest {
+
+    @Mock
+    private CountyRepository countyRepository;
+
+    @Mock
+    private SubCountyRepository subCountyRepository;
+
+    @Mock
+    private LocationRepository locationRepository;
+
+    @Mock
+    private SubLocationRepository subLocationRepository;
+
+    @Mock
+    private VillageRepository villageRepository;
+
+    private GeographyTree geographyTree;
+
+    @BeforeEach
+    void setUp() {
+        geographyTree = new GeographyTree(countyRepository, subCountyRepository, locationRepository,
+                subLocationRepository, villageRepository);
+        when(countyRepository.findTreeRows()).thenReturn(Arrays.asList(
+                new Object[]{1, "Kisumu"},
+                new Object[]{2, "Nairobi"}));
+        when(subCountyRepository.findTreeRows()).thenReturn(Arrays.asList(
+                new Object[]{10, "Kisumu East", 1},
+                new Object[]{20, "Westlands", 2}));
+        when(locationRepository.findTreeRows()).thenReturn(Arrays.asList(
+                new Object[]{100, "Kolwa", 10},
+                new Object[]{200, "Parklands", 20}));
+        when(subLocationRepository.findTreeRows()).thenReturn(Arrays.asList(
+                new Object[]{1000, "Kasule", 100},
+                new Object[]{1001, "Nyalunya", 100},
+                new Object[]{2000, "Highridge", 200}));
+        when(villageRepository.findTreeRows()).thenReturn(Arrays.asList(
+                new Object[]{5, "Chiga", 1001},
+                new Object[]{3, "Kanyakwar", 1000},
+                new Object[]{4, "Mamboleo", 1000},
+                new Object[]{6, "Ojijo", 2000}));
+        geographyTree.rebuild();
+    }
+
+    @Test
+    void villageIdsUnder_everyLevel() {
+        assertArrayEquals(new int[]{3, 4, 5}, geographyTree.villageIdsUnder(GeographyLevel.COUNTY, 1));
+        assertArrayEquals(new int[]{6}, geographyTree.villageIdsUnder(GeographyLevel.SUB_COUNTY, 20));
+        assertArrayEquals(new int[]{3, 4}, geographyTree.villageIdsUnder(GeographyLevel.SUB_LOCATION, 1000));
+        assertArrayEquals(new int[]{5}, geographyTree.villageIdsUnder(GeographyLevel.VILLAGE, 5));
+    }
+
+    @Test
+    void villageIdsUnder_unknownNode_throwsException() {
+        assertThrows(ResourceNotFoundException.class, () -> geographyTree.villageIdsUnder(GeographyLevel.COUNTY, 99));
+        assertThrows(ResourceNotFoundException.class, () -> geographyTree.villageIdsUnder(GeographyLevel.LOCATION, 1));
+    }
+
+    @Test
+    void containsAndAncestor() {
+        assertTrue(geographyTree.contains(GeographyLevel.COUNTY, 1, 5));
+        assertFalse(geographyTree.contains(GeographyLevel.COUNTY, 2, 5));
+        assertFalse(geographyTree.contains(GeographyLevel.SUB_LOCATION, 1000, 5));
+        assertFalse(geographyTree.contains(GeographyLevel.COUNTY, 1, 99));
+        assertEquals(100, geographyTree.ancestorId(5, GeographyLevel.LOCATION));
+        assertEquals(2, geographyTree.ancestorId(6, GeographyLevel.COUNTY));
+        assertNull(geographyTree.ancestorId(99, GeographyLevel.COUNTY));
+    }
+
+    @Test
+    void locate_copiesVillageAncestorsToApplicant() {
+        Village village = new Village();
+        village.setId(5);
+        Applicant applicant = new Applicant();
+        applicant.setVillage(village);
+
+        geographyTree.locate(applicant);
+
+        assertEquals(1001, applicant.getSubLocationId());
+        assertEquals(100, applicant.getLocationId());
+        assertEquals(10, applicant.getSubCountyId());
+        assertEquals(1, applicant.getCountyId());
+    }
+
+    @Test
+    void tree_nestsChildrenInNameOrder() {
+        List<GeographyNode> counties = geographyTree.tree();
+
+        assertEquals(Arrays.asList("Kisumu", "Nairobi"), names(counties));
+        GeographyNode kolwa = counties.get(0).getChildren().get(0).getChildren().get(0);
+        assertEquals("location", kolwa.getLevel());
+        assertEquals(10, kolwa.getParentId());
+        assertEquals(Arrays.asList("Kasule", "Nyalunya"), names(kolwa.getChildren()));
+        assertEquals(Arrays.asList("Kanyakwar", "Mamboleo"), names(kolwa.getChildren().get(0).getChildren()));
+        assertNull(kolwa.getChildren().get(0).getChildren().get(0).getChildren());
+    }
+
+    @Test
+    void descendants_optionallyFilteredByLevel() {
+        assertEquals(Arrays.asList("Kolwa", "Kasule", "Kanyakwar", "Mamboleo", "Nyalunya", "Chiga"),
+                names(geographyTree.descendants(GeographyLevel.SUB_COUNTY, 10, null)));
+        assertEquals(Collections.singletonList("Ojijo"),
+                names(geographyTree.descendants(GeographyLevel.COUNTY, 2, GeographyLevel.VILLAGE)));
+    }
+
+    @Test
+    void rebuild_replacesTree() {
+        when(villageRepository.findTreeRows()).thenReturn(Collections.singletonList(new Object[]{7, "Rabuor", 1000}));
+
+        geographyTree.onGeographyChanged(new GeographyChangedEvent());
+
+        assertArrayEquals(new int[]{7}, geographyTree.villageIdsUnder(GeographyLevel.COUNTY, 1));
+        assertFalse(geographyTree.contains(GeographyLevel.COUNTY, 1, 3));
+    }
+
+    @Test
+    void level_parsesKeysLoosely() {
+        assertEquals(GeographyLevel.SUB_COUNTY, GeographyLevel.from("SubCounty"));
+        assertEquals(GeographyLevel.SUB_LOCATION, GeographyLevel.from("sub-location"));
+        assertEquals(GeographyLevel.VILLAGE, GeographyLevel.from("village"));
+    }
+
+    private static List<String> names(List<GeographyNode> nodes) {
+        return nodes.stream().map(GeographyNode::getName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,60 @@
+package com.social.assistance.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticRetryTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OptimisticRetry optimisticRetry;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        optimisticRetry = new OptimisticRetry(transactionManager, 3);
+    }
+
+    @Test
+    void execute_conflictThenSuccess_retriesInNewTransaction() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = optimisticRetry.execute(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new ObjectOptimisticLockingFailureException("Applicant", 1);
+            }
+            return "saved";
+        });
+
+        assertEquals("saved", result);
+        assertEquals(2, attempts.get());
+        verify(transactionManager, times(2)).getTransaction(any());
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void execute_persistentConflict_givesUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> optimisticRetry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Applicant", 1);
+        }));
+        assertEquals(3, attempts.get());
+    }
+}
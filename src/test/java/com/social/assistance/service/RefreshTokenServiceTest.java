@@ -0,0 +1,107 @@
+package com.social.assistance.service;
+
+import com.social.assistance.model.RefreshToken;
+import com.social.assistance.model.User;
+import com.social.assistance.repository.RefreshTokenRepository;
+import com.social.assistance.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private RefreshTokenService refreshTokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, userRepository, 3_600_000L);
+        user = new User();
+        user.setUsername("collector");
+        user.setEnabled(true);
+        user.setTokenVersion(2);
+    }
+
+    @Test
+    void issue_storesOnlyHash() {
+        String rawToken = refreshTokenService.issue("collector", 2);
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertEquals(RefreshTokenService.hash(rawToken), saved.getValue().getTokenHash());
+        assertNotEquals(rawToken, saved.getValue().getTokenHash());
+        assertEquals(2, saved.getValue().getTokenVersion());
+    }
+
+    @Test
+    void rotate_success_revokesOldAndIssuesNewInSameFamily() {
+        RefreshToken current = stored("raw", null, LocalDateTime.now().plusHours(1), 2);
+        when(userRepository.findByUsername("collector")).thenReturn(Optional.of(user));
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("raw");
+
+        assertNotNull(current.getRevokedAt());
+        assertEquals("collector", rotation.getUsername());
+        assertNotEquals("raw", rotation.getRefreshToken());
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertEquals("family", saved.getValue().getFamilyId());
+    }
+
+    @Test
+    void rotate_reusedToken_revokesFamily() {
+        stored("raw", LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1), 2);
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("raw"));
+        verify(refreshTokenRepository).revokeFamily(eq("family"), any(LocalDateTime.class));
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void rotate_tokenVersionBumped_rejected() {
+        stored("raw", null, LocalDateTime.now().plusHours(1), 1);
+        when(userRepository.findByUsername("collector")).thenReturn(Optional.of(user));
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("raw"));
+        verify(refreshTokenRepository).revokeFamily(eq("family"), any(LocalDateTime.class));
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void rotate_unknownToken_rejected() {
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("unknown"));
+    }
+
+    private RefreshToken stored(String rawToken, LocalDateTime revokedAt, LocalDateTime expiresAt, int tokenVersion) {
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(RefreshTokenService.hash(rawToken));
+        token.setFamilyId("family");
+        token.setUsername("collector");
+        token.setTokenVersion(tokenVersion);
+        token.setRevokedAt(revokedAt);
+        token.setExpiresAt(expiresAt);
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash(rawToken))).thenReturn(Optional.of(token));
+        return token;
+    }
+}
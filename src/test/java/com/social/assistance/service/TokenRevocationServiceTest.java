@@ -0,0 +1,143 @@
+package com.social.assistance.service;
+
+import com.social.assistance.config.JwtUtil;
+import com.social.assistance.exception.InvalidStateException;
+import com.social.assistance.model.RevokedToken;
+import com.social.assistance.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-test-secret-test-secret-test-secret";
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private JwtUtil jwtUtil;
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 60_000L);
+        tokenRevocationService = new TokenRevocationService(revokedTokenRepository, jwtUtil);
+    }
+
+    @Test
+    void revokeToken_rejectsThatTokenOnly() {
+        User user = new User("collector", "encoded", Collections.singletonList(new SimpleGrantedAuthority("ROLE_DATA_COLLECTOR")));
+        String leaked = jwtUtil.generateToken(user);
+        String other = jwtUtil.generateToken(user);
+        when(revokedTokenRepository.save(any(RevokedToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        tokenRevocationService.revokeToken(leaked);
+
+        assertTrue(tokenRevocationService.isRevoked(jwtUtil.parseClaims(leaked).getId()));
+        assertFalse(tokenRevocationService.isRevoked(jwtUtil.parseClaims(other).getId()));
+        verify(revokedTokenRepository).save(argThat(revoked -> "collector".equals(revoked.getUsername())));
+    }
+
+    @Test
+    void revokeToken_invalidToken_throwsException() {
+        assertThrows(InvalidStateException.class, () -> tokenRevocationService.revokeToken("not.a.token"));
+        verify(revokedTokenRepository, never()).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void load_skipsExpiredEntries() {
+        RevokedToken active = revoked(LocalDateTime.now().plusHours(1));
+        RevokedToken expired = revoked(LocalDateTime.now().minusMinutes(1));
+        when(revokedTokenRepository.findByExpiresAtAfter(any(LocalDateTime.class))).thenReturn(Arrays.asList(active, expired));
+
+        tokenRevocationService.load();
+
+        assertTrue(tokenRevocationService.isRevoked(active.getJti()));
+        assertFalse(tokenRevocationService.isRevoked(expired.getJti()));
+    }
+
+    @Test
+    void revokeToken_duringFilterRebuilds_isNeverLost() throws Exception {
+        User user = new User("collector", "encoded", Collections.singletonList(new SimpleGrantedAuthority("ROLE_DATA_COLLECTOR")));
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            tokens.add(jwtUtil.generateToken(user));
+        }
+        when(revokedTokenRepository.save(any(RevokedToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        // Enough entries that a rebuild takes long enough to overlap the revocations
+        List<RevokedToken> loaded = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            loaded.add(revoked(LocalDateTime.now().plusHours(1)));
+        }
+        when(revokedTokenRepository.findByExpiresAtAfter(any(LocalDateTime.class))).thenReturn(loaded);
+        tokenRevocationService.load();
+
+        AtomicBoolean revoking = new AtomicBoolean(true);
+        ExecutorService rebuilder = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> rebuilds = rebuilder.submit(() -> {
+                while (revoking.get()) {
+                    tokenRevocationService.rebuildFilter();
+                }
+            });
+            tokens.forEach(tokenRevocationService::revokeToken);
+            revoking.set(false);
+            rebuilds.get(10, TimeUnit.SECONDS);
+        } finally {
+            rebuilder.shutdownNow();
+        }
+
+        for (String token : tokens) {
+            assertTrue(tokenRevocationService.isRevoked(jwtUtil.parseClaims(token).getId()));
+        }
+    }
+
+    @Test
+    void bloomFilter_hasNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        String[] ids = new String[1000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID().toString();
+            filter.put(ids[i]);
+        }
+        for (String id : ids) {
+            assertTrue(filter.mightContain(id));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    private static RevokedToken revoked(LocalDateTime expiresAt) {
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setJti(UUID.randomUUID().toString());
+        revokedToken.setUsername("collector");
+        revokedToken.setExpiresAt(expiresAt);
+        return revokedToken;
+    }
+}
@@ -8,12 +8,14 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -54,6 +56,18 @@ class UploadServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicantSearchIndex applicantSearchIndex;
+
+    @Mock
+    private OptimisticRetry optimisticRetry;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private GeographyTree geographyTree;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -168,6 +182,7 @@ class UploadServiceTest {
         Applicant applicant = new Applicant();
         when(applicantRepository.findById(1)).thenReturn(Optional.of(applicant));
         when(applicantRepository.save(any())).thenReturn(applicant);
+        when(optimisticRetry.execute(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
 
         String result = uploadService.uploadApplicantImage(1, image);
 
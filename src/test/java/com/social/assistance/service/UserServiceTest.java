@@ -12,6 +12,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.util.Optional;
@@ -29,6 +30,9 @@ class UserServiceTest {
     @Mock
     private BCryptPasswordEncoder passwordEncoder;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserService userService;
 
@@ -89,7 +93,9 @@ class UserServiceTest {
         userService.changePassword("testuser", "oldPassword", "newPassword");
 
         assertEquals("encodedNewPassword", user.getPassword());
+        assertEquals(1, user.getTokenVersion());
         verify(userRepository, times(1)).save(user);
+        verify(eventPublisher).publishEvent(any(UserChangedEvent.class));
     }
 
     @Test
@@ -112,4 +118,45 @@ class UserServiceTest {
         assertThrows(InvalidStateException.class, () -> userService.changePassword("testuser", "wrongPassword", "newPassword"));
         verify(userRepository, never()).save(any(User.class));
     }
+
+    @Test
+    void revokeTokens_bumpsTokenVersion() {
+        User user = new User();
+        user.setUsername("testuser");
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+
+        userService.revokeTokens("testuser");
+
+        assertEquals(1, user.getTokenVersion());
+        verify(userRepository).save(user);
+        verify(eventPublisher).publishEvent(any(UserChangedEvent.class));
+    }
+
+    @Test
+    void setEnabled_disable_bumpsTokenVersionAndEvicts() {
+        User user = new User();
+        user.setUsername("testuser");
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+
+        userService.setEnabled("testuser", false);
+
+        assertFalse(user.getEnabled());
+        assertEquals(1, user.getTokenVersion());
+        verify(userRepository).save(user);
+        verify(eventPublisher).publishEvent(any(UserChangedEvent.class));
+    }
+
+    @Test
+    void setEnabled_enable_keepsTokenVersion() {
+        User user = new User();
+        user.setUsername("testuser");
+        user.setEnabled(false);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+
+        userService.setEnabled("testuser", true);
+
+        assertTrue(user.getEnabled());
+        assertEquals(0, user.getTokenVersion());
+        verify(eventPublisher).publishEvent(any(UserChangedEvent.class));
+    }
 }